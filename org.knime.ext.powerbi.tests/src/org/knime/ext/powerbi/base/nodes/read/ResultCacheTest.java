@@ -0,0 +1,226 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.localdate.LocalDateCellFactory;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Tests that the {@link ResultCache} returns the rows it stored and evicts the least recently used results.
+ */
+class ResultCacheTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(new String[]{"s", "d", "l", "b", "date", "time"},
+        new DataType[]{StringCell.TYPE, DoubleCell.TYPE, LongCell.TYPE, BooleanCell.TYPE, LocalDateCellFactory.TYPE,
+            LocalDateTimeCellFactory.TYPE});
+
+    private static final List<DataRow> ROWS = List.of( //
+        new DefaultRow(RowKey.createRowKey(0L), StringCell.StringCellFactory.create("Zürich 😀"),
+            DoubleCell.DoubleCellFactory.create(-1.5), LongCell.LongCellFactory.create(Long.MAX_VALUE),
+            BooleanCell.BooleanCellFactory.create(true), LocalDateCellFactory.create(LocalDate.of(2024, 2, 29)),
+            LocalDateTimeCellFactory.create(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_789))),
+        new DefaultRow(RowKey.createRowKey(1L), DataType.getMissingCell(), DataType.getMissingCell(),
+            DataType.getMissingCell(), DataType.getMissingCell(), DataType.getMissingCell(),
+            DataType.getMissingCell()));
+
+    @Test
+    void testRoundTrip(@TempDir final Path directory) throws Exception {
+        final var cache = new ResultCache(directory, ResultCache.MAX_SIZE);
+        assertTrue(cache.getSpec("key").isEmpty());
+        put(cache, "key");
+
+        assertEquals(SPEC, cache.getSpec("key").orElseThrow());
+        final var rows = read(cache, "key", SPEC);
+        assertEquals(ROWS.size(), rows.size());
+        for (var i = 0; i < ROWS.size(); i++) {
+            assertEquals(ROWS.get(i).getKey(), rows.get(i).getKey());
+            for (var j = 0; j < SPEC.getNumColumns(); j++) {
+                assertEquals(ROWS.get(i).getCell(j), rows.get(i).getCell(j), "Row " + i + ", column " + j);
+            }
+        }
+        assertTrue(cache.getSpec("other").isEmpty());
+        assertNull(read(cache, "key", new DataTableSpec(new String[]{"s"}, new DataType[]{StringCell.TYPE})),
+            "A result with another spec is not returned");
+    }
+
+    @Test
+    void testDiscard(@TempDir final Path directory) throws Exception {
+        final var cache = new ResultCache(directory, ResultCache.MAX_SIZE);
+        try (final var writer = cache.write(SPEC).orElseThrow()) {
+            writer.add(ROWS.get(0));
+        }
+        assertTrue(cache.getSpec("key").isEmpty(), "A result that was not committed is not cached");
+        try (final var files = Files.list(directory)) {
+            assertEquals(0, files.count(), "The temporary files are removed");
+        }
+    }
+
+    @Test
+    void testEviction(@TempDir final Path directory) throws Exception {
+        put(new ResultCache(directory, ResultCache.MAX_SIZE), "first");
+        final var entrySize = FileUtils.sizeOfDirectory(directory.toFile());
+        Thread.sleep(20);
+        put(new ResultCache(directory, ResultCache.MAX_SIZE), "second");
+        Thread.sleep(20);
+        // reading a result makes it the most recently used one
+        final var cache = new ResultCache(directory, 2 * entrySize);
+        read(cache, "first", SPEC);
+        Thread.sleep(20);
+
+        put(cache, "third");
+        assertTrue(cache.getSpec("first").isPresent());
+        assertFalse(cache.getSpec("second").isPresent(), "The least recently used result is removed");
+        assertTrue(cache.getSpec("third").isPresent());
+    }
+
+    @Test
+    void testLongQuery(@TempDir final Path directory) throws Exception {
+        final var cache = new ResultCache(directory, ResultCache.MAX_SIZE);
+        final var query = "EVALUATE\n    FILTER('table', 'table'[id] IN {" + "1, ".repeat(50_000) + "2});";
+        final var key = ResultCache.key("principal", "workspace", "dataset", "2024-01-01T00:00:00Z", true, query);
+        assertTrue(key.length() > 65_535);
+        put(cache, key);
+
+        assertEquals(SPEC, cache.getSpec(key).orElseThrow(), "Keys of any length are stored");
+        assertTrue(cache.getSpec(key.substring(0, key.length() - 1)).isEmpty());
+    }
+
+    @Test
+    void testKey() {
+        final var query = "EVALUATE\n    'table';";
+        final var key = ResultCache.key("principal", "workspace", "dataset", "2024-01-01T00:00:00Z", true, query);
+        assertEquals(key, ResultCache.key("principal", "workspace", "dataset", "2024-01-01T00:00:00Z", true,
+            "  EVALUATE 'table'  "), "Whitespace and the trailing semicolon are ignored");
+        assertNotEquals(key, ResultCache.key("principal", "workspace", "dataset", "2024-01-01T00:00:00Z", true,
+            "EVALUATE\n    'table '"), "Whitespace in string literals matters");
+        assertNotEquals(key, ResultCache.key("other", "workspace", "dataset", "2024-01-01T00:00:00Z", true, query));
+        assertNotEquals(key, ResultCache.key("principal", "workspace", "dataset", "2024-01-02T00:00:00Z", true, query));
+        assertNotEquals(key,
+            ResultCache.key("principal", "workspace", "dataset", "2024-01-01T00:00:00Z", false, query));
+    }
+
+    @Test
+    void testPrincipal() throws Exception {
+        final var user = ResultCache.principal(() -> token("{\"tid\":\"tenant\",\"oid\":\"user\",\"exp\":1}"));
+        assertEquals(user, ResultCache.principal(() -> token("{\"tid\":\"tenant\",\"oid\":\"user\",\"exp\":2}")),
+            "A renewed token of the same user has the same principal");
+        assertNotEquals(user, ResultCache.principal(() -> token("{\"tid\":\"tenant\",\"oid\":\"other\"}")));
+        assertFalse(user.contains("user"), "The principal is not stored in plain text");
+        assertNotEquals(ResultCache.principal(() -> "opaque-1"), ResultCache.principal(() -> "opaque-2"),
+            "Tokens without claims are principals of their own");
+    }
+
+    private static String token(final String claims) {
+        final var encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".signature";
+    }
+
+    private static void put(final ResultCache cache, final String key) throws Exception {
+        try (final var writer = cache.write(SPEC).orElseThrow()) {
+            for (final var row : ROWS) {
+                writer.add(row);
+            }
+            writer.commit(key);
+        }
+    }
+
+    /** The rows of a cached result, <code>null</code> if it is not cached with the spec */
+    private static List<DataRow> read(final ResultCache cache, final String key, final DataTableSpec spec)
+        throws Exception {
+        final List<DataRow> rows = new ArrayList<>();
+        final var output = new RowOutput() {
+
+            @Override
+            public void push(final DataRow row) {
+                // the cells of the pushed row may be reused
+                final var cells = new DataCell[row.getNumCells()];
+                for (var i = 0; i < cells.length; i++) {
+                    cells[i] = row.getCell(i);
+                }
+                rows.add(new DefaultRow(row.getKey(), cells));
+            }
+
+            @Override
+            public void close() {
+                // nothing to do
+            }
+        };
+        return cache.read(key, spec, output, null) ? rows : null;
+    }
+}
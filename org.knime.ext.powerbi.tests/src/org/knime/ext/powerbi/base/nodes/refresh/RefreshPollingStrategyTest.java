@@ -0,0 +1,135 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.refresh;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the delays of the {@link RefreshPollingStrategy}.
+ */
+class RefreshPollingStrategyTest {
+
+    /** A random source that returns the given fraction, 0 means no jitter */
+    private static Random fixed(final double fraction) {
+        return new Random() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public double nextDouble() {
+                return fraction;
+            }
+        };
+    }
+
+    @Test
+    void testExponentialBackoff() {
+        final var strategy = new RefreshPollingStrategy(null, Duration.ofSeconds(30), fixed(0));
+        var elapsed = Duration.ZERO;
+        for (final var expected : new long[]{1, 2, 4, 8, 16, 30, 30}) {
+            final var delay = strategy.nextDelay(elapsed);
+            assertEquals(Duration.ofSeconds(expected), delay, "Delay after " + elapsed);
+            elapsed = elapsed.plus(delay);
+        }
+    }
+
+    @Test
+    void testExpectedDuration() {
+        final var strategy = new RefreshPollingStrategy(Duration.ofSeconds(60), Duration.ofMinutes(5), fixed(0));
+        assertEquals(Duration.ofSeconds(1), strategy.nextDelay(Duration.ZERO));
+        assertEquals(Duration.ofSeconds(2), strategy.nextDelay(Duration.ofSeconds(1)));
+        assertEquals(Duration.ofSeconds(4), strategy.nextDelay(Duration.ofSeconds(3)));
+        assertEquals(Duration.ofSeconds(8), strategy.nextDelay(Duration.ofSeconds(7)));
+        assertEquals(Duration.ofSeconds(16), strategy.nextDelay(Duration.ofSeconds(15)));
+        assertEquals(Duration.ofMillis(14_500), strategy.nextDelay(Duration.ofSeconds(31)),
+            "At most half of the time until the expected end");
+        assertEquals(Duration.ofMillis(7_250), strategy.nextDelay(Duration.ofMillis(45_500)));
+        assertEquals(Duration.ofSeconds(1), strategy.nextDelay(Duration.ofMillis(59_900)), "At least the minimum");
+        // the refresh takes longer than expected
+        assertEquals(Duration.ofSeconds(1), strategy.nextDelay(Duration.ofSeconds(60)));
+        assertEquals(Duration.ofSeconds(2), strategy.nextDelay(Duration.ofSeconds(61)));
+        assertEquals(Duration.ofSeconds(4), strategy.nextDelay(Duration.ofSeconds(63)));
+    }
+
+    @Test
+    void testLimits() {
+        assertEquals(RefreshPollingStrategy.MIN_DELAY,
+            new RefreshPollingStrategy(null, Duration.ZERO, fixed(0)).nextDelay(Duration.ZERO));
+        final var strategy = new RefreshPollingStrategy(null, Duration.ofHours(1), fixed(0));
+        var delay = Duration.ZERO;
+        for (var i = 0; i < 100; i++) {
+            delay = strategy.nextDelay(Duration.ofHours(i));
+        }
+        assertEquals(Duration.ofHours(1), delay, "The delay does not overflow");
+    }
+
+    @Test
+    void testJitter() {
+        final var strategy = new RefreshPollingStrategy(null, Duration.ofSeconds(30), fixed(1));
+        assertEquals(Duration.ofMillis(750), strategy.nextDelay(Duration.ZERO));
+        assertEquals(Duration.ofMillis(1_500), strategy.nextDelay(Duration.ofSeconds(1)),
+            "The delays are shortened by at most a quarter");
+    }
+
+    @Test
+    void testParseTime() {
+        assertEquals(Optional.of(Instant.parse("2024-01-31T12:34:56.789Z")),
+            RefreshPollingStrategy.parseTime("2024-01-31T12:34:56.789Z"));
+        assertEquals(Optional.of(Instant.parse("2024-01-31T12:34:56.789Z")),
+            RefreshPollingStrategy.parseTime("2024-01-31T12:34:56.789"), "Times without zone are in UTC");
+        assertEquals(Optional.empty(), RefreshPollingStrategy.parseTime("yesterday"));
+        assertEquals(Optional.empty(), RefreshPollingStrategy.parseTime(null));
+    }
+}
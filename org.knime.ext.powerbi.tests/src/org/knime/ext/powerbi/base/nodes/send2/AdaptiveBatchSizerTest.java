@@ -0,0 +1,126 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests how the {@link AdaptiveBatchSizer} adapts the batch size to the latency of the requests.
+ */
+class AdaptiveBatchSizerTest {
+
+    private static final long FAST = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long MEDIUM = TimeUnit.SECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(31);
+
+    private static final int KB = 1024;
+
+    @Test
+    void testGrowsWhenFast() {
+        final var sizer = new AdaptiveBatchSizer(10_000, 1024 * KB, 1536 * KB);
+        assertEquals(10_000, sizer.getRows());
+        assertEquals(1024 * KB, sizer.getBytes());
+
+        sizer.onSuccess(10_000, 512 * KB, FAST);
+        assertEquals(10_000, sizer.getRows(), "Never grows beyond the maximum rows");
+        assertEquals(1280 * KB, sizer.getBytes());
+        sizer.onSuccess(10_000, 1280 * KB, FAST);
+        assertEquals(1536 * KB, sizer.getBytes(), "Never grows beyond the maximum bytes");
+    }
+
+    @Test
+    void testShrinksWhenSlow() {
+        final var sizer = new AdaptiveBatchSizer(10_000, 1024 * KB, 16 * 1024 * KB);
+        sizer.onSuccess(10_000, 800 * KB, SLOW);
+        assertEquals(5_000, sizer.getRows());
+        assertEquals(400 * KB, sizer.getBytes(), "Halves the bytes that were actually sent");
+
+        for (var i = 0; i < 20; i++) {
+            sizer.onSuccess(sizer.getRows(), sizer.getBytes(), SLOW);
+        }
+        assertEquals(100, sizer.getRows(), "Never shrinks below the minimum rows");
+        assertEquals(64 * KB, sizer.getBytes(), "Never shrinks below the minimum bytes");
+    }
+
+    @Test
+    void testUnchanged() {
+        final var sizer = new AdaptiveBatchSizer(10_000, 1024 * KB, 16 * 1024 * KB);
+        sizer.onSuccess(10_000, 800 * KB, SLOW);
+
+        sizer.onSuccess(5_000, 400 * KB, MEDIUM);
+        assertEquals(5_000, sizer.getRows(), "A request that is neither fast nor slow keeps the size");
+        assertEquals(400 * KB, sizer.getBytes());
+
+        sizer.onSuccess(10, 1 * KB, FAST);
+        assertEquals(5_000, sizer.getRows(), "A fast batch that was not full does not grow the size");
+        assertEquals(400 * KB, sizer.getBytes());
+
+        sizer.onSuccess(10, 400 * KB, FAST);
+        assertEquals(6_250, sizer.getRows(), "A fast batch that was limited by its bytes grows the size");
+        assertEquals(500 * KB, sizer.getBytes());
+    }
+
+    @Test
+    void testRejected() {
+        final var sizer = new AdaptiveBatchSizer(10_000, 1024 * KB, 16 * 1024 * KB);
+        sizer.onRejected(512 * KB);
+        assertEquals(256 * KB, sizer.getBytes());
+        sizer.onRejected(2048 * KB);
+        assertEquals(256 * KB, sizer.getBytes(), "A larger rejected payload keeps the lower limit");
+        sizer.onRejected(100 * KB);
+        assertEquals(64 * KB, sizer.getBytes());
+        assertEquals(10_000, sizer.getRows(), "The rows are not limited by a rejected payload");
+    }
+}
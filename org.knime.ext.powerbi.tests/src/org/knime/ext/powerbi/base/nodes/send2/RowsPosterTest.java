@@ -0,0 +1,310 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.Operation;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.TableCheckpoint;
+import org.knime.ext.powerbi.core.JsonOutputBuffer;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Tests how the {@link RowsPoster} splits batches that Power BI rejects and isolates the rejected rows.
+ */
+class RowsPosterTest {
+
+    private static final String TABLE = "table";
+
+    /** The index of the first row of the batches in the input table */
+    private static final long FIRST_ROW = 100;
+
+    @Test
+    void testIsolateRejectedRows() throws Exception {
+        final var batch = new Batch(20, Set.of(3, 11, 12));
+        final var server = new Server(Integer.MAX_VALUE);
+        final var rejected = new CollectedRows();
+        final var checkpoint = checkpoint();
+
+        poster(server, checkpoint, new RejectedRows(rejected)).post(batch, 0, 20);
+
+        assertEquals(List.of(FIRST_ROW + 3, FIRST_ROW + 11, FIRST_ROW + 12), rejected.m_rowIndices);
+        assertEquals(17, server.m_acceptedRows.size());
+        assertFalse(server.m_acceptedRows.stream().anyMatch(row -> row.contains("bad")));
+        assertEquals(FIRST_ROW + 20, checkpoint.getAcknowledgedRows());
+    }
+
+    @Test
+    void testStopAfterConsecutiveRejections() {
+        final var batch = new Batch(150, IntStream.range(0, 150).boxed().collect(Collectors.toSet()));
+        final var rejected = new CollectedRows();
+        final var checkpoint = checkpoint();
+        final var poster = poster(new Server(Integer.MAX_VALUE), checkpoint, new RejectedRows(rejected));
+
+        final var e = assertThrows(IOException.class, () -> poster.post(batch, 0, 150));
+        assertTrue(e.getMessage().contains(RowsPoster.MAX_CONSECUTIVE_REJECTIONS + " rows in a row"), e.getMessage());
+        assertEquals(RowsPoster.MAX_CONSECUTIVE_REJECTIONS - 1, rejected.m_rowIndices.size());
+        assertEquals(FIRST_ROW + RowsPoster.MAX_CONSECUTIVE_REJECTIONS - 1, checkpoint.getAcknowledgedRows(),
+            "The row that stopped the upload is not acknowledged");
+    }
+
+    @Test
+    void testAcceptedRowsResetRejections() throws Exception {
+        final var batch = new Batch(300, IntStream.range(0, 300).filter(i -> i % 2 == 0).boxed()
+            .collect(Collectors.toSet()));
+        final var rejected = new CollectedRows();
+
+        poster(new Server(Integer.MAX_VALUE), checkpoint(), new RejectedRows(rejected)).post(batch, 0, 300);
+
+        assertEquals(150, rejected.m_rowIndices.size(), "Rejections with accepted rows between them do not stop");
+    }
+
+    @Test
+    void testSplitTooLargeInStrictMode() throws Exception {
+        final var server = new Server(4);
+        final var checkpoint = checkpoint();
+
+        poster(server, checkpoint, null).post(new Batch(10, Set.of()), 0, 10);
+
+        assertEquals(10, server.m_acceptedRows.size());
+        assertEquals(List.of(10, 5, 2, 3, 5, 2, 3), server.m_requestRows, "Only too large batches are split");
+        assertEquals(FIRST_ROW + 10, checkpoint.getAcknowledgedRows());
+    }
+
+    @Test
+    void testNoSplitOfBadRequestInStrictMode() {
+        final var server = new Server(Integer.MAX_VALUE);
+        final var checkpoint = checkpoint();
+        final var poster = poster(server, checkpoint, null);
+
+        final var e = assertThrows(PowerBIResponseException.class, () -> poster.post(new Batch(10, Set.of(5)), 0, 10));
+        assertEquals(RowsPoster.HTTP_BAD_REQUEST, e.getStatusCode().orElse(-1));
+        assertEquals(List.of(10), server.m_requestRows, "A rejected batch is not split");
+        assertEquals(FIRST_ROW, checkpoint.getAcknowledgedRows());
+    }
+
+    @Test
+    void testSplitBatchAcknowledgedLikeWholeBatch() throws Exception {
+        final var whole = checkpoint();
+        poster(new Server(Integer.MAX_VALUE), whole, null).post(new Batch(25, Set.of()), 0, 25);
+
+        final var split = checkpoint();
+        final var server = new Server(3);
+        poster(server, split, null).post(new Batch(25, Set.of()), 0, 25);
+        assertTrue(server.m_requestRows.size() > 1);
+        assertEquals(whole.getAcknowledgedRows(), split.getAcknowledgedRows());
+        assertEquals(whole.getRowsChecksum(), split.getRowsChecksum());
+
+        final var isolated = checkpoint();
+        poster(new Server(3), isolated, new RejectedRows(null)).post(new Batch(25, Set.of(0, 7, 24)), 0, 25);
+        final var unsplit = checkpoint();
+        poster(new Server(Integer.MAX_VALUE) {
+            @Override
+            boolean isBad(final String row) {
+                return false;
+            }
+        }, unsplit, null).post(new Batch(25, Set.of(0, 7, 24)), 0, 25);
+        assertEquals(unsplit.getAcknowledgedRows(), isolated.getAcknowledgedRows());
+        assertEquals(unsplit.getRowsChecksum(), isolated.getRowsChecksum(),
+            "Rejected rows are part of the checksum since they are part of the input");
+    }
+
+    private static RowsPoster poster(final Server server, final TableCheckpoint checkpoint,
+        final RejectedRows rejected) {
+        return new RowsPoster(TABLE, server, checkpoint, new AdaptiveBatchSizer(10_000, 1024 * 1024, 2048 * 1024),
+            rejected);
+    }
+
+    private static TableCheckpoint checkpoint() {
+        final var spec = new DataTableSpec(new DataColumnSpecCreator("value", StringCell.TYPE).createSpec());
+        final var upload = UploadCheckpoint.create("workspace", "dataset", "dataset-id", Operation.APPEND_ROWS, true,
+            new String[]{TABLE}, new DataTableSpec[]{spec}, new long[]{FIRST_ROW + 1000});
+        // the rows before the batch were acknowledged by previous batches
+        upload.getTable(0).skipTo(FIRST_ROW);
+        return upload.getTable(0);
+    }
+
+    /** A batch of rows <code>{"value":"i"}</code>, or <code>{"value":"bad"}</code> for the given rows */
+    private static final class Batch implements RowsPoster.Batch {
+
+        private final JsonOutputBuffer m_buffer = new JsonOutputBuffer();
+
+        private final int[] m_rowEnds;
+
+        private Batch(final int rowCount, final Set<Integer> badRows) {
+            m_rowEnds = new int[rowCount];
+            for (var i = 0; i < rowCount; i++) {
+                if (i > 0) {
+                    m_buffer.appendAscii(',');
+                }
+                m_buffer.appendAscii("{\"value\":").appendJsonString(badRows.contains(i) ? "bad" : Integer.toString(i))
+                    .appendAscii('}');
+                m_rowEnds[i] = m_buffer.size();
+            }
+        }
+
+        @Override
+        public int getRowCount() {
+            return m_rowEnds.length;
+        }
+
+        @Override
+        public int offsetOf(final int rowIdx) {
+            if (rowIdx == 0) {
+                return 0;
+            }
+            return rowIdx < m_rowEnds.length ? (m_rowEnds[rowIdx - 1] + 1) : m_buffer.size();
+        }
+
+        @Override
+        public RowKey getRowKey(final int rowIdx) {
+            return RowKey.createRowKey(getRowIndex(rowIdx));
+        }
+
+        @Override
+        public long getRowIndex(final int rowIdx) {
+            return FIRST_ROW + rowIdx;
+        }
+
+        @Override
+        public JsonOutputBuffer getBuffer() {
+            return m_buffer;
+        }
+
+        @Override
+        public void write(final OutputStream output, final int offset, final int length) throws IOException {
+            output.write('[');
+            m_buffer.writeTo(output, offset, length);
+            output.write(']');
+        }
+    }
+
+    /**
+     * Accepts requests like Power BI: requests with more than the given rows are too large, requests with a bad row
+     * are bad requests.
+     */
+    private static class Server implements RowsPoster.PostFunction {
+
+        private final int m_maxRows;
+
+        private final List<Integer> m_requestRows = new ArrayList<>();
+
+        private final List<String> m_acceptedRows = new ArrayList<>();
+
+        Server(final int maxRows) {
+            m_maxRows = maxRows;
+        }
+
+        @Override
+        public Duration post(final StreamingOutput rows, final int rowCount) throws PowerBIResponseException {
+            m_requestRows.add(rowCount);
+            final var body = new ByteArrayOutputStream();
+            try {
+                rows.write(body);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            final var json = body.toString(StandardCharsets.UTF_8);
+            final var values = List.of(json.substring(1, json.length() - 1).split(","));
+            assertEquals(rowCount, values.size());
+            if (rowCount > m_maxRows) {
+                throw new PowerBIResponseException("Request entity too large", RowsPoster.HTTP_PAYLOAD_TOO_LARGE);
+            }
+            if (values.stream().anyMatch(this::isBad)) {
+                throw new PowerBIResponseException("Invalid value", RowsPoster.HTTP_BAD_REQUEST);
+            }
+            m_acceptedRows.addAll(values);
+            return Duration.ofMillis(10);
+        }
+
+        boolean isBad(final String row) {
+            return row.contains("bad");
+        }
+    }
+
+    /** Collects the input indices of the rejected rows */
+    private static final class CollectedRows extends RowOutput {
+
+        private final List<Long> m_rowIndices = new ArrayList<>();
+
+        @Override
+        public void push(final DataRow row) {
+            m_rowIndices.add(((LongValue)row.getCell(2)).getLongValue());
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+}
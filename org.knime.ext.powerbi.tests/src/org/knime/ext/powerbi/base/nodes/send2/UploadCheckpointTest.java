@@ -0,0 +1,207 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.Operation;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.RowsChecksum;
+import org.knime.ext.powerbi.core.JsonOutputBuffer;
+
+/**
+ * Tests that an upload can be continued from the {@link UploadCheckpoint} saved in a {@link CheckpointStore}.
+ */
+class UploadCheckpointTest {
+
+    private static final String NODE = "/workflows/upload\n0:1";
+
+    private static final String WORKSPACE = "workspace";
+
+    private static final String DATASET = "dataset";
+
+    private static final String DATASET_ID = "dataset-id";
+
+    private static final Operation OPERATION = Operation.APPEND_ROWS;
+
+    private static final String[] TABLE_NAMES = {"first", "second"};
+
+    private static final DataTableSpec[] SPECS = {
+        new DataTableSpec(new DataColumnSpecCreator("name", StringCell.TYPE).createSpec()),
+        new DataTableSpec(new DataColumnSpecCreator("value", DoubleCell.TYPE).createSpec())};
+
+    private static final long[] ROW_COUNTS = {4, 3};
+
+    private static final String[] ROWS = {"{\"name\":\"a\"}", "{\"name\":\"b\"}", "{\"name\":\"c\"}",
+        "{\"name\":\"d\"}"};
+
+    @Test
+    void testResumeAfterFailedUpload(@TempDir final Path directory) {
+        final var store = new CheckpointStore(directory, NODE, WORKSPACE, DATASET);
+        final var upload =
+            UploadCheckpoint.create(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES, SPECS, ROW_COUNTS);
+        upload.persistTo(store);
+
+        // the first batch of the first table is acknowledged, then the upload fails
+        final var batch = batch(0, 2);
+        upload.getTable(0).acknowledge(2, batch, 0, batch.size());
+        upload.persist();
+
+        // the next execution, e.g. after a restart, loads the checkpoint
+        final var loaded = new CheckpointStore(directory, NODE, WORKSPACE, DATASET).load().orElseThrow();
+        assertTrue(loaded.matches(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES, SPECS, ROW_COUNTS));
+        assertEquals(2, loaded.getTable(0).getAcknowledgedRows());
+        assertEquals(0, loaded.getTable(1).getAcknowledgedRows());
+        assertEquals(upload.getTable(0).getRowsChecksum(), loaded.getTable(0).getRowsChecksum());
+        assertEquals(5, loaded.getRemainingRows());
+
+        // the continued upload sends the remaining rows and completes
+        loaded.persistTo(store);
+        final var rest = batch(2, 4);
+        loaded.getTable(0).acknowledge(4, rest, 0, rest.size());
+        loaded.getTable(1).skipTo(3);
+        loaded.persist();
+        assertEquals(0, store.load().orElseThrow().getRemainingRows());
+        assertEquals(checksum(batch(0, 4)), store.load().orElseThrow().getTable(0).getRowsChecksum());
+
+        store.delete();
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void testCheckpointOfOtherUpload(@TempDir final Path directory) {
+        final var store = new CheckpointStore(directory, NODE, WORKSPACE, DATASET);
+        UploadCheckpoint.create(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES, SPECS, ROW_COUNTS)
+            .persistTo(store);
+        final var loaded = store.load().orElseThrow();
+
+        assertTrue(new CheckpointStore(directory, NODE, WORKSPACE, "other").load().isEmpty());
+        assertTrue(new CheckpointStore(directory, NODE, null, DATASET).load().isEmpty());
+        assertTrue(new CheckpointStore(directory, "/workflows/upload\n0:2", WORKSPACE, DATASET).load().isEmpty(),
+            "Another node does not continue the upload");
+        assertFalse(loaded.matches(WORKSPACE, DATASET, "other-id", OPERATION, false, TABLE_NAMES, SPECS, ROW_COUNTS));
+        assertFalse(
+            loaded.matches(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES, SPECS, new long[]{4, 4}));
+        assertFalse(loaded.matches(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, new String[]{"first", "other"},
+            SPECS, ROW_COUNTS));
+        assertFalse(loaded.matches(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES,
+            new DataTableSpec[]{SPECS[0], SPECS[0]}, ROW_COUNTS));
+    }
+
+    @Test
+    void testCheckpointWithOtherSettings(@TempDir final Path directory) {
+        final var store = new CheckpointStore(directory, NODE, WORKSPACE, DATASET);
+        UploadCheckpoint.create(WORKSPACE, DATASET, DATASET_ID, OPERATION, false, TABLE_NAMES, SPECS, ROW_COUNTS)
+            .persistTo(store);
+        final var loaded = store.load().orElseThrow();
+
+        assertFalse(loaded.matches(WORKSPACE, DATASET, DATASET_ID, Operation.REPLACE_ROWS, false, TABLE_NAMES, SPECS,
+            ROW_COUNTS), "The rows must be deleted before replacing them");
+        assertFalse(loaded.matches(WORKSPACE, DATASET, DATASET_ID, OPERATION, true, TABLE_NAMES, SPECS, ROW_COUNTS),
+            "The acknowledged rows depend on whether invalid rows are skipped");
+    }
+
+    @Test
+    void testRowsChecksumIndependentOfBatches() {
+        final long whole = checksum(batch(0, 4));
+        long split = RowsChecksum.INITIAL;
+        for (var i = 0; i < ROWS.length; i++) {
+            final var single = batch(i, i + 1);
+            split = RowsChecksum.update(split, single, 0, single.size());
+        }
+        final var first = batch(0, 3);
+        final var last = batch(3, 4);
+        final long uneven =
+            RowsChecksum.update(RowsChecksum.update(RowsChecksum.INITIAL, first, 0, first.size()), last, 0,
+                last.size());
+
+        assertEquals(whole, split);
+        assertEquals(whole, uneven);
+        assertNotEquals(whole, checksum(batch(0, 3)));
+        assertNotEquals(RowsChecksum.INITIAL, whole);
+    }
+
+    @Test
+    void testRowsChecksumOfRange() {
+        // a range of a batch, e.g. a half that was sent separately
+        final var rows = batch(0, 4);
+        final int secondRow = ROWS[0].length() + 1;
+        final int thirdRow = secondRow + ROWS[1].length() + 1;
+        final long halves = RowsChecksum.update(RowsChecksum.update(RowsChecksum.INITIAL, rows, 0, secondRow - 1),
+            rows, secondRow, thirdRow - secondRow - 1);
+
+        assertEquals(checksum(batch(0, 2)), halves);
+    }
+
+    /** The encoded rows <code>from</code> (inclusive) to <code>to</code> (exclusive), separated by commas */
+    private static JsonOutputBuffer batch(final int from, final int to) {
+        final var buffer = new JsonOutputBuffer();
+        for (var i = from; i < to; i++) {
+            if (i > from) {
+                buffer.appendAscii(',');
+            }
+            buffer.appendAscii(ROWS[i]);
+        }
+        return buffer;
+    }
+
+    private static long checksum(final JsonOutputBuffer rows) {
+        return RowsChecksum.update(RowsChecksum.INITIAL, rows, 0, rows.size());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter;
+
+/**
+ * Tests that the {@link UploadPacer} waits for the hourly windows of the {@link PowerBIRateLimiter}.
+ */
+class UploadPacerTest {
+
+    @Test
+    void testEstimateRemaining() {
+        final var pacer = new UploadPacer(UUID.randomUUID().toString());
+        assertEquals(Duration.ZERO, pacer.estimateRemaining(PowerBIRateLimiter.MAX_ROWS_PER_HOUR));
+        final Duration remaining = pacer.estimateRemaining(2L * PowerBIRateLimiter.MAX_ROWS_PER_HOUR + 1);
+        assertTrue(remaining.compareTo(Duration.ofHours(2)) <= 0 && remaining.compareTo(Duration.ofMinutes(119)) > 0,
+            "Unexpected estimate " + remaining);
+    }
+
+    @Test
+    void testSharedWindows() throws Exception {
+        final var datasetId = UUID.randomUUID().toString();
+        final var pacer = new UploadPacer(datasetId);
+        // another upload to the same dataset sends 1M rows, spread over tables that stay small
+        for (var i = 0; i < 100; i++) {
+            PowerBIRateLimiter.acquirePostRows(datasetId, "table" + (i % 5), 10_000, null);
+        }
+        final Duration remaining = pacer.estimateRemaining(1);
+        assertTrue(remaining.compareTo(Duration.ofMinutes(59)) > 0, "Unexpected estimate " + remaining);
+        assertEquals(Duration.ZERO, new UploadPacer(UUID.randomUUID().toString()).estimateRemaining(1),
+            "Other datasets are not affected");
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("59min", UploadPacer.format(Duration.ofMinutes(59)));
+        assertEquals("2min", UploadPacer.format(Duration.ofSeconds(61)), "Rounded up to full minutes");
+        assertEquals("1h 00min", UploadPacer.format(Duration.ofMinutes(60)));
+        assertEquals("2h 05min", UploadPacer.format(Duration.ofMinutes(125)));
+    }
+}
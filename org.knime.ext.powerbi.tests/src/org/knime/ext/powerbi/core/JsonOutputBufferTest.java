@@ -0,0 +1,174 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests that the {@link JsonOutputBuffer} writes the same JSON as {@link Gson} and the <code>toString</code> methods.
+ */
+class JsonOutputBufferTest {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    @Test
+    void testJsonString() throws IOException {
+        final List<String> strings = new ArrayList<>(List.of("", "plain", "\"quoted\"", "back\\slash", "<a href='x'>&",
+            "tab\tnew\nline\rreturn\bback\fform", "\u007f\u0080\u00ff\u0100\u07ff\u0800\uffff",
+            "Z\u00fcrich \u4e2d\u6587", "\ud83d\ude00 and \ud800\udc00", "line\u2028paragraph\u2029"));
+        final var controls = new StringBuilder();
+        for (var c = (char)0; c < 0x20; c++) {
+            controls.append(c);
+        }
+        strings.add(controls.toString());
+        final var random = new Random(42);
+        for (var i = 0; i < 1_000; i++) {
+            strings.add(randomString(random));
+        }
+        for (final var s : strings) {
+            final var json = toString(new JsonOutputBuffer().appendJsonString(s));
+            assertEquals(gson(s), json, "Encoding of " + s);
+            assertEquals(s, JsonParser.parseString(json).getAsString(), "Decoding of " + s);
+        }
+    }
+
+    @Test
+    void testUnpairedSurrogates() throws IOException {
+        for (final var s : List.of("a\ud800b", "\udc00", "end\ud83d", "\ude00\ud83d")) {
+            // like String#getBytes, which replaces them with '?'
+            assertEquals(gson(s), toString(new JsonOutputBuffer().appendJsonString(s)), "Encoding of " + s);
+            assertEquals(new String(s.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
+                toString(new JsonOutputBuffer().appendUtf8(s)));
+        }
+    }
+
+    @Test
+    void testGrowth() throws IOException {
+        final var s = "\u00e9\"".repeat(100_000);
+        final var buffer = new JsonOutputBuffer().appendAscii('[').appendJsonString(s).appendAscii(',')
+            .appendUtf8(s).appendAscii(']');
+        assertEquals("[" + gson(s) + "," + s + "]", toString(buffer));
+    }
+
+    @Test
+    void testUtf8() throws IOException {
+        final var random = new Random(7);
+        for (var i = 0; i < 1_000; i++) {
+            final var s = randomString(random);
+            assertEquals(new String(s.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
+                toString(new JsonOutputBuffer().appendUtf8(s)));
+        }
+    }
+
+    @Test
+    void testNumbers() throws IOException {
+        final var random = new Random(1);
+        final List<Long> longs = new ArrayList<>(List.of(0L, 1L, -1L, 9L, 10L, -10L, Long.MAX_VALUE, Long.MIN_VALUE,
+            Long.MIN_VALUE + 1, (long)Integer.MAX_VALUE, (long)Integer.MIN_VALUE));
+        final List<Double> doubles = new ArrayList<>(List.of(0d, -0d, 1d, -1d, 0.5, 1e7, 1e7 - 1, -1e7 + 1, 1e-3,
+            1e-4, 123456.789, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, 9007199254740993d));
+        for (var i = 0; i < 1_000; i++) {
+            longs.add(random.nextLong() >> random.nextInt(64));
+            doubles.add(Double.longBitsToDouble(random.nextLong()));
+            doubles.add((double)(random.nextInt(20_000_001) - 10_000_000));
+        }
+        for (final var value : longs) {
+            assertEquals(Long.toString(value), toString(new JsonOutputBuffer().appendLong(value)));
+        }
+        for (final var value : doubles) {
+            assertEquals(Double.toString(value), toString(new JsonOutputBuffer().appendDouble(value)));
+        }
+    }
+
+    /** The JSON of Gson without the escaped line and paragraph separators, which are valid in JSON strings */
+    private static String gson(final String s) {
+        return new String(GSON.toJson(s).replace("\\u2028", "\u2028").replace("\\u2029", "\u2029")
+            .getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    /** A string with characters of all UTF-8 lengths and control characters */
+    private static String randomString(final Random random) {
+        final var s = new StringBuilder();
+        final var length = random.nextInt(20);
+        for (var i = 0; i < length; i++) {
+            s.append(switch (random.nextInt(6)) {
+                case 0 -> (char)random.nextInt(0x20);
+                case 1, 2 -> (char)(0x20 + random.nextInt(0x60));
+                case 3 -> (char)(0x80 + random.nextInt(0x780));
+                case 4 -> {
+                    // three bytes, without the surrogates
+                    final var c = 0x800 + random.nextInt(0xF000);
+                    yield (char)(c < 0xD800 ? c : c + 0x800);
+                }
+                default -> new String(Character.toChars(0x10000 + random.nextInt(0x100000)));
+            });
+        }
+        return s.toString();
+    }
+
+    private static String toString(final JsonOutputBuffer buffer) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        buffer.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.localdate.LocalDateCellFactory;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.ext.powerbi.core.PowerBIDataTypeUtils.PowerBIIllegalValueException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests that the {@link PowerBIRowEncoder} writes the same JSON as
+ * {@link PowerBIDataTypeUtils#powerBIValueForKNIMEValue(org.knime.core.data.DataValue)}.
+ */
+class PowerBIRowEncoderTest {
+
+    private static final DataTableSpec SPEC = new DataTableSpec(
+        new String[]{"bool", "double", "int", "unsupported", "long", "date", "date \"time\"", "string"},
+        new DataType[]{BooleanCell.TYPE, DoubleCell.TYPE, IntCell.TYPE, DataType.getType(DataCell.class), LongCell.TYPE,
+            LocalDateCellFactory.TYPE, LocalDateTimeCellFactory.TYPE, StringCell.TYPE});
+
+    @Test
+    void testEncode() throws Exception {
+        final var encoder = PowerBIRowEncoder.compile(SPEC);
+        assertEquals(SPEC.getNumColumns() - 1, encoder.getNumColumns(), "Unsupported columns are skipped");
+        final List<DataRow> rows = new ArrayList<>();
+        rows.add(row(0, BooleanCell.TRUE, DoubleCell.DoubleCellFactory.create(1.5), IntCell.IntCellFactory.create(-7),
+            LongCell.LongCellFactory.create(Long.MIN_VALUE), LocalDateCellFactory.create(LocalDate.of(2024, 2, 29)),
+            LocalDateTimeCellFactory.create(LocalDateTime.of(2024, 2, 29, 23, 59, 59, 120_000_000)),
+            StringCell.StringCellFactory.create("Z\u00fcrich \"quoted\"\n\ud83d\ude00")));
+        rows.add(row(1, BooleanCell.FALSE, DoubleCell.DoubleCellFactory.create(-0d), IntCell.IntCellFactory.create(0),
+            LongCell.LongCellFactory.create(1L << 53), LocalDateCellFactory.create(LocalDate.of(-1, 1, 1)),
+            LocalDateTimeCellFactory.create(LocalDateTime.of(1970, 1, 1, 0, 0)),
+            StringCell.StringCellFactory.create("")));
+        final var missing = DataType.getMissingCell();
+        rows.add(row(2, missing, missing, missing, missing, missing, missing, missing));
+
+        final var buffer = new JsonOutputBuffer();
+        for (final var row : rows) {
+            buffer.reset();
+            encoder.encode(row, buffer);
+            assertEquals(expected(row), toString(buffer));
+        }
+    }
+
+    @Test
+    void testHtmlCharacters() throws Exception {
+        // the legacy encoding escapes HTML characters, which is equivalent JSON
+        final var row = row(0, BooleanCell.TRUE, DoubleCell.DoubleCellFactory.create(1),
+            IntCell.IntCellFactory.create(1), LongCell.LongCellFactory.create(1),
+            LocalDateCellFactory.create(LocalDate.of(2024, 1, 1)),
+            LocalDateTimeCellFactory.create(LocalDateTime.of(2024, 1, 1, 0, 0)),
+            StringCell.StringCellFactory.create("<a href='x'>&amp;=</a>"));
+        final var buffer = new JsonOutputBuffer();
+        PowerBIRowEncoder.compile(SPEC).encode(row, buffer);
+        assertEquals(JsonParser.parseString(expected(row)), JsonParser.parseString(toString(buffer)));
+    }
+
+    @Test
+    void testStringTooLong() {
+        final var row = row(0, BooleanCell.TRUE, DoubleCell.DoubleCellFactory.create(1),
+            IntCell.IntCellFactory.create(1), LongCell.LongCellFactory.create(1),
+            LocalDateCellFactory.create(LocalDate.of(2024, 1, 1)),
+            LocalDateTimeCellFactory.create(LocalDateTime.of(2024, 1, 1, 0, 0)),
+            StringCell.StringCellFactory.create("x".repeat(PowerBIDataTypeUtils.POWERBI_MAX_STRING_LENGTH + 1)));
+        assertThrows(PowerBIIllegalValueException.class,
+            () -> PowerBIRowEncoder.compile(SPEC).encode(row, new JsonOutputBuffer()));
+    }
+
+    /** A row of the spec, the value of the unsupported column is a string */
+    private static DataRow row(final long index, final DataCell bool, final DataCell dbl, final DataCell integer,
+        final DataCell lng, final DataCell date, final DataCell dateTime, final DataCell string) {
+        return new DefaultRow(RowKey.createRowKey(index), bool, dbl, integer,
+            StringCell.StringCellFactory.create("ignored"), lng, date, dateTime, string);
+    }
+
+    /** The row object built from the JSON of the single values like before the encoder existed */
+    private static String expected(final DataRow row) throws PowerBIIllegalValueException {
+        final var gson = new Gson();
+        final var json = new StringBuilder("{");
+        for (var i = 0; i < SPEC.getNumColumns(); i++) {
+            final var value = PowerBIDataTypeUtils.powerBIValueForKNIMEValue(row.getCell(i));
+            if (SPEC.getColumnSpec(i).getName().equals("unsupported") || value.isEmpty()) {
+                continue;
+            }
+            json.append(json.length() == 1 ? "" : ",").append(gson.toJson(SPEC.getColumnSpec(i).getName()))
+                .append(':').append(value.get());
+        }
+        return json.append('}').toString();
+    }
+
+    private static String toString(final JsonOutputBuffer buffer) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        buffer.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link PowerBITemporalEncoder} writes the same text as {@link DateTimeFormatter}.
+ */
+class PowerBITemporalEncoderTest {
+
+    private static final List<LocalDate> DATES = List.of(LocalDate.of(2024, 2, 29), LocalDate.of(1970, 1, 1),
+        LocalDate.of(0, 1, 1), LocalDate.of(9, 9, 9), LocalDate.of(999, 12, 31), LocalDate.of(1000, 1, 1),
+        LocalDate.of(9999, 12, 31), LocalDate.of(10_000, 1, 1), LocalDate.of(-1, 6, 15), LocalDate.MIN, LocalDate.MAX);
+
+    private static final List<LocalTime> TIMES = List.of(LocalTime.MIDNIGHT, LocalTime.MAX, LocalTime.NOON,
+        LocalTime.of(1, 2, 3), LocalTime.of(1, 2), LocalTime.of(23, 59, 59, 100_000_000),
+        LocalTime.of(23, 59, 59, 120_000), LocalTime.of(0, 0, 0, 1), LocalTime.of(12, 30, 0, 10),
+        LocalTime.of(12, 30, 0, 123_456_789));
+
+    @Test
+    void testDates() throws IOException {
+        final var encoder = new PowerBITemporalEncoder();
+        for (final var date : DATES) {
+            assertEquals(quoted(date.format(DateTimeFormatter.ISO_LOCAL_DATE)), encode(encoder, date));
+        }
+    }
+
+    @Test
+    void testDateTimes() throws IOException {
+        final var encoder = new PowerBITemporalEncoder();
+        for (final var date : DATES) {
+            for (final var time : TIMES) {
+                final var dateTime = LocalDateTime.of(date, time);
+                assertEquals(quoted(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)),
+                    encode(encoder, dateTime));
+            }
+        }
+    }
+
+    @Test
+    void testCache() throws IOException {
+        // more distinct dates than cached ones, in an order that revisits evicted and cached dates
+        final var encoder = new PowerBITemporalEncoder();
+        final var random = new Random(3);
+        for (var i = 0; i < 10_000; i++) {
+            final var date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(i % 2 == 0 ? 10 : 1_000));
+            assertEquals(quoted(date.format(DateTimeFormatter.ISO_LOCAL_DATE)), encode(encoder, date));
+            final var dateTime = date.atTime(LocalTime.ofNanoOfDay(random.nextLong(LocalTime.MAX.toNanoOfDay())));
+            assertEquals(quoted(dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)), encode(encoder, dateTime));
+        }
+    }
+
+    private static String quoted(final String s) {
+        return '"' + s + '"';
+    }
+
+    private static String encode(final PowerBITemporalEncoder encoder, final LocalDate date) throws IOException {
+        final var buffer = new JsonOutputBuffer();
+        encoder.appendDate(date, buffer);
+        return toString(buffer);
+    }
+
+    private static String encode(final PowerBITemporalEncoder encoder, final LocalDateTime dateTime)
+        throws IOException {
+        final var buffer = new JsonOutputBuffer();
+        encoder.appendDateTime(dateTime, buffer);
+        return toString(buffer);
+    }
+
+    private static String toString(final JsonOutputBuffer buffer) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        buffer.writeTo(out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter.DatasetBudget;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter.HourlyRows;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter.SlidingWindow;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter.TokenBucket;
+
+/**
+ * Tests the budgets of the {@link PowerBIRateLimiter}.
+ */
+class PowerBIRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    private static final String TABLE = "table";
+
+    @Test
+    void testTokenBucket() {
+        final var bucket = new TokenBucket(120, Duration.ofMinutes(1), 0);
+        for (var i = 0; i < 120; i++) {
+            assertEquals(0, bucket.reserve(1, 0), "A full bucket does not wait");
+        }
+        // refilled with 2 tokens per second
+        assertEquals(SECOND / 2, bucket.reserve(1, 0));
+        assertEquals(SECOND, bucket.reserve(1, 0));
+        // the debt of 2 tokens is refilled after a second, 58 tokens remain after 30 seconds
+        assertEquals(0, bucket.reserve(58, 30 * SECOND));
+        assertEquals(SECOND / 2, bucket.reserve(1, 30 * SECOND));
+        // never refilled beyond the capacity
+        assertEquals(0, bucket.reserve(120, 10 * MINUTE));
+        assertEquals(SECOND / 2, bucket.reserve(1, 10 * MINUTE));
+    }
+
+    @Test
+    void testSlidingWindow() {
+        final var window = new SlidingWindow(Duration.ofHours(1), Duration.ofMinutes(1));
+        window.add(100, 0);
+        window.add(10, 30 * SECOND); // same slot
+        window.add(50, 30 * MINUTE);
+        assertEquals(160, window.sum(59 * MINUTE));
+        assertEquals(50, window.sum(61 * MINUTE));
+        assertEquals(0, window.sum(91 * MINUTE));
+        window.add(5, 91 * MINUTE);
+        assertEquals(5, window.sum(91 * MINUTE));
+    }
+
+    @Test
+    void testHourlyRows() {
+        final var rows = new HourlyRows(1000, Duration.ofHours(1), 0);
+        assertEquals(0, rows.reserve(600, 10 * HOUR));
+        assertEquals(0, rows.reserve(400, 10 * HOUR + MINUTE), "The window is filled exactly");
+        assertEquals(58 * MINUTE, rows.reserve(1, 10 * HOUR + 2 * MINUTE), "The next window starts after an hour");
+        assertEquals(58 * MINUTE, rows.reserve(999, 10 * HOUR + 2 * MINUTE));
+        assertEquals(HOUR + 58 * MINUTE, rows.reserve(1, 10 * HOUR + 2 * MINUTE));
+        // the reserved windows have passed, a new window starts now
+        assertEquals(0, rows.reserve(10, 15 * HOUR));
+        assertEquals(15 * HOUR, rows.getWindowStart());
+    }
+
+    @Test
+    void testHourlyRowsLargeBatch() {
+        final var rows = new HourlyRows(1000, Duration.ofHours(1), 0);
+        assertEquals(0, rows.reserve(5000, 0), "A batch larger than a window is sent in an empty window");
+        assertEquals(HOUR, rows.reserve(1, 0));
+    }
+
+    @Test
+    void testHourlyRowsWait() {
+        final var rows = new HourlyRows(1000, Duration.ofHours(1), 0);
+        assertEquals(0, rows.getWait(1000, 0));
+        assertEquals(2 * HOUR, rows.getWait(2500, 0));
+
+        rows.reserve(600, 0);
+        assertEquals(0, rows.getWait(400, MINUTE));
+        assertEquals(59 * MINUTE, rows.getWait(401, MINUTE));
+        assertEquals(119 * MINUTE, rows.getWait(1401, MINUTE));
+        assertEquals(600, rows.getWindowRows(), "Nothing is reserved");
+        // consistent with the reservation of a batch that does not fit
+        assertEquals(rows.getWait(401, MINUTE), rows.reserve(401, MINUTE));
+        assertEquals(59 * MINUTE, rows.getWait(1, MINUTE), "Waits for the reserved window");
+    }
+
+    @Test
+    void testHourlyRowsRestore() {
+        final var rows = new HourlyRows(1000, Duration.ofHours(1), 0);
+        rows.restore(-30 * MINUTE, 900, 0);
+        assertEquals(30 * MINUTE, rows.getWait(101, 0), "Continues in the saved window");
+
+        final var used = new HourlyRows(1000, Duration.ofHours(1), 0);
+        used.reserve(100, 0);
+        used.restore(-30 * MINUTE, 900, MINUTE);
+        assertEquals(0, used.getWait(900, MINUTE), "The rows sent through this JVM are known already");
+    }
+
+    @Test
+    void testRequestsPerMinute() {
+        final var budget = new DatasetBudget(0);
+        for (var i = 0; i < 120; i++) {
+            // 120,000 rows stay within the rows per hour, 20,000 rows per table are no large tables
+            assertEquals(0, budget.reserve(TABLE + (i % 6), 1000, 0));
+        }
+        assertEquals(SECOND / 2, budget.reserve(TABLE, 1, 0));
+        assertEquals(0, budget.reserve(TABLE, 1, MINUTE));
+    }
+
+    @Test
+    void testRowsPerHour() {
+        final var budget = new DatasetBudget(0);
+        long now = 0;
+        for (var i = 0; i < 100; i++) {
+            // 100 requests within two minutes, 200,000 rows per table are no large tables
+            assertEquals(0, budget.reserve(TABLE + (i % 5), 10_000, now));
+            now += SECOND;
+        }
+        assertEquals(HOUR - now, budget.reserve("other", 1, now), "1M rows per hour are shared by all tables");
+    }
+
+    @Test
+    void testLargeTableRequests() {
+        final var budget = new DatasetBudget(0);
+        final long now = fillTable(budget, 0);
+        assertTrue(waitsForLargeTable(budget, now), "Requests to a large table are limited");
+    }
+
+    @Test
+    void testLargeTableReset() {
+        final var budget = new DatasetBudget(0);
+        final long now = fillTable(budget, 0);
+        budget.resetTable(TABLE);
+        assertFalse(waitsForLargeTable(budget, now), "The table is small after its rows were deleted");
+    }
+
+    @Test
+    void testLargeTableWindow() {
+        final var budget = new DatasetBudget(0);
+        final long now = fillTable(budget, 0);
+        assertFalse(waitsForLargeTable(budget, now + 2 * TimeUnit.HOURS.toNanos(1)),
+            "Only the rows sent during the last hour are counted");
+    }
+
+    @Test
+    void testIdle() {
+        final var budget = new DatasetBudget(0);
+        budget.reserve(TABLE, 1, 10 * MINUTE);
+        assertFalse(budget.isIdle(30 * MINUTE));
+        assertTrue(budget.isIdle(70 * MINUTE));
+    }
+
+    @Test
+    void testIdleWithReservedWindow() {
+        final var budget = new DatasetBudget(0);
+        budget.reserve(TABLE, 10_000, 0);
+        budget.getRows().reserve(PowerBIRateLimiter.MAX_ROWS_PER_HOUR, 0);
+        assertFalse(budget.isIdle(70 * MINUTE), "The rows reserved in the next window are still counted");
+        assertTrue(budget.isIdle(120 * MINUTE));
+    }
+
+    /** Sends 250,000 rows to the table, one request every two seconds, and returns the time afterwards */
+    private static long fillTable(final DatasetBudget budget, final long start) {
+        long now = start;
+        for (var i = 0; i < 25; i++) {
+            assertEquals(0, budget.reserve(TABLE, 10_000, now));
+            now += 2 * SECOND;
+        }
+        return now;
+    }
+
+    /** Sends single rows once per second and returns whether a request had to wait */
+    private static boolean waitsForLargeTable(final DatasetBudget budget, final long start) {
+        long now = start;
+        for (var i = 0; i < 200; i++) {
+            if (budget.reserve(TABLE, 1, now) > 0) {
+                return true;
+            }
+            now += SECOND;
+        }
+        return false;
+    }
+}
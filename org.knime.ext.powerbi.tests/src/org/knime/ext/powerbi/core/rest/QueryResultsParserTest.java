@@ -0,0 +1,205 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the {@link QueryResultsParser} reports the content of "Execute Queries" responses.
+ */
+class QueryResultsParserTest {
+
+    @Test
+    void testRows() throws Exception {
+        assertEquals(List.of("table 0/0", "row", "t[a]=long 1", "t[b]=string x", "end row", //
+            "row", "t[a]=null", "end row", //
+            "row", "t[b]=boolean true", "t[c]=double 1.5", "end row", //
+            "row", "end row", "end table"), parse("""
+                {"results": [{"tables": [{"rows": [
+                    {"t[a]": 1, "t[b]": "x"},
+                    {"t[a]": null},
+                    {"t[b]": true, "t[c]": 1.5},
+                    {}
+                ]}]}]}
+                """), "Columns omitted in a row are not reported");
+    }
+
+    @Test
+    void testNumbers() throws Exception {
+        assertEquals(List.of("table 0/0", "row", //
+            "[max]=long 9223372036854775807", //
+            "[min]=long -9223372036854775808", //
+            "[overflow]=double 9.223372036854776E18", //
+            "[huge]=double " + 1e23, //
+            "[zero]=long 0", //
+            "[fraction]=double 1.0", //
+            "[exponent]=double 1000.0", //
+            "[negative]=double -0.25", //
+            "end row", "end table"), parse("""
+                {"results": [{"tables": [{"rows": [{
+                    "[max]": 9223372036854775807,
+                    "[min]": -9223372036854775808,
+                    "[overflow]": 9223372036854775808,
+                    "[huge]": 100000000000000000000000,
+                    "[zero]": -0,
+                    "[fraction]": 1.0,
+                    "[exponent]": 1e3,
+                    "[negative]": -2.5E-1
+                }]}]}]}
+                """));
+    }
+
+    @Test
+    void testStrings() throws Exception {
+        assertEquals(List.of("table 0/0", "row", "[s]=string Z\u00fcrich \"quoted\"\n\ud83d\ude00",
+            "[empty]=string ", "end row", "end table"), parse("""
+                {"results": [{"tables": [{"rows": [
+                    {"[s]": "Z\\u00fcrich \\"quoted\\"\\n\\ud83d\\ude00", "[empty]": ""}
+                ]}]}]}
+                """));
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        assertEquals(List.of("table 0/0", "row", "[a]=long 1", "end row", "end table", //
+            "error 1 DatasetExecuteQueriesError: Query (1, 1) The syntax is incorrect.", //
+            "error 2 null: null"), parse("""
+                {"results": [
+                    {"tables": [{"rows": [{"[a]": 1}]}]},
+                    {"error": {"code": "DatasetExecuteQueriesError",
+                        "message": "Query (1, 1) The syntax is incorrect.", "details": {"ignored": [1, 2]}}},
+                    {"error": {"code": null}}
+                ]}
+                """));
+    }
+
+    @Test
+    void testTables() throws Exception {
+        assertEquals(List.of("table 0/0", "end table", "table 0/1", "row", "[a]=null", "end row", "end table",
+            "table 1/0", "end table"), parse("""
+                {"informationProtectionLabel": {"name": "General"}, "results": [
+                    {"tables": [{"rows": []}, {"columns": ["ignored"], "rows": [{"[a]": {"nested": true}}]}]},
+                    {"tables": [{}]}
+                ]}
+                """), "Unknown fields are skipped and nested values are missing");
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IOException.class, () -> parse("{\"results\": [{\"tables\": [{\"rows\": [{\"[a]\": 1"));
+        assertThrows(IOException.class, () -> parse("{\"results\": [{\"tables\": [{\"rows\": [{\"[a]\" 1}]}]}]}"));
+    }
+
+    private static List<String> parse(final String response) throws Exception {
+        final List<String> events = new ArrayList<>();
+        QueryResultsParser.parse(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8)),
+            new QueryResultsHandler() {
+
+                @Override
+                public void startTable(final int resultIndex, final int tableIndex) {
+                    events.add("table " + resultIndex + "/" + tableIndex);
+                }
+
+                @Override
+                public void startRow() {
+                    events.add("row");
+                }
+
+                @Override
+                public void nullValue(final String column) {
+                    events.add(column + "=null");
+                }
+
+                @Override
+                public void stringValue(final String column, final String value) {
+                    events.add(column + "=string " + value);
+                }
+
+                @Override
+                public void doubleValue(final String column, final double value) {
+                    events.add(column + "=double " + value);
+                }
+
+                @Override
+                public void longValue(final String column, final long value) {
+                    events.add(column + "=long " + value);
+                }
+
+                @Override
+                public void booleanValue(final String column, final boolean value) {
+                    events.add(column + "=boolean " + value);
+                }
+
+                @Override
+                public void endRow() {
+                    events.add("end row");
+                }
+
+                @Override
+                public void endTable() {
+                    events.add("end table");
+                }
+
+                @Override
+                public void error(final int resultIndex, final String code, final String message) {
+                    events.add("error " + resultIndex + " " + code + ": " + message);
+                }
+            });
+        return events;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.DataType;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.ResultCheck;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.Schema;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+import org.knime.ext.powerbi.core.rest.QueryResultsHandler;
+import org.knime.ext.powerbi.util.ParallelExecutionUtil;
+
+/**
+ * Reads a DAX table expression page by page with <code>TOPNSKIP</code> to circumvent the result size limits of
+ * "Datasets - Execute Queries". The first page determines the spec (with the known column types of the semantic
+ * model); the further pages are fetched concurrently and
+ * concatenated in order. In a streamed execution the pages are read in order and pushed to the output directly.
+ */
+final class PagedQueryExecutor {
+
+    /** The maximum number of rows returned by a single query */
+    static final int MAX_PAGE_SIZE = 100_000;
+
+    static final int MAX_PARALLELISM = 8;
+
+    private final AuthTokenProvider m_auth;
+
+    private final String m_workspace;
+
+    private final String m_dataset;
+
+    private final String m_tableExpression;
+
+    private final String m_orderBy;
+
+    private final int m_pageSize;
+
+    private final int m_parallelism;
+
+    private final Map<String, DataType> m_columnTypes;
+
+    private long m_expectedRowCount;
+
+    PagedQueryExecutor(final AuthTokenProvider auth, final String workspace,
+        final PowerBIReaderNodeSettings settings, final Map<String, DataType> columnTypes) {
+        m_auth = auth;
+        m_workspace = workspace;
+        m_dataset = settings.m_dataset;
+        m_tableExpression = StringUtils.removeEnd(settings.m_tableExpression.strip(), ";");
+        m_orderBy = StringUtils.strip(settings.m_orderBy);
+        m_pageSize = settings.m_pageSize;
+        m_parallelism = settings.m_parallelism;
+        m_columnTypes = columnTypes;
+    }
+
+    /**
+     * Reads all pages of the table expression.
+     *
+     * @param exec the execution context
+     * @param check the check applied to the result of every page
+     * @return the concatenated pages
+     * @throws Exception if a query failed, the check failed, or the execution was canceled
+     */
+    BufferedDataTable execute(final ExecutionContext exec, final ResultCheck check) throws Exception {
+        final var pageCount = countPages(exec);
+
+        exec.setMessage(() -> "Reading page 1 of " + pageCount);
+        final var first = new QueryResultTableWriter(exec, m_columnTypes);
+        readPage(first, 0, exec);
+        check.check(first);
+
+        final var tables = new BufferedDataTable[pageCount];
+        tables[0] = first.getTable();
+        exec.setProgress(1d / pageCount);
+        if (pageCount > 1) {
+            readRemainingPages(first, tables, exec, check);
+        }
+        return exec.createConcatenateTable(exec, Optional.empty(), false, tables);
+    }
+
+    /**
+     * Reads all pages of the table expression and pushes the rows to the output while they are parsed. The pages are
+     * read one after another since the rows are pushed in order and no page is buffered.
+     *
+     * @param exec the execution context
+     * @param check the check applied to the result of every page
+     * @param schema the schema of the pages
+     * @param output the output, not closed by this method
+     * @return the number of rows pushed to the output
+     * @throws Exception if a query failed, the check failed, or the execution was canceled
+     */
+    long stream(final ExecutionContext exec, final ResultCheck check, final Schema schema, final RowOutput output)
+        throws Exception {
+        final var pageCount = countPages(exec);
+        long rowCount = 0;
+        for (var page = 0; page < pageCount; page++) {
+            final var read = page + 1;
+            exec.setMessage(() -> "Reading page " + read + " of " + pageCount);
+            final var writer = new QueryResultTableWriter(exec, schema, output, rowCount);
+            readPage(writer, (long)page * m_pageSize, exec);
+            check.check(writer);
+            rowCount += writer.getRowCount();
+            exec.setProgress((double)read / pageCount);
+        }
+        return rowCount;
+    }
+
+    private int countPages(final ExecutionContext exec) throws Exception {
+        exec.setMessage("Counting rows");
+        m_expectedRowCount = countRows(exec);
+        return Math.toIntExact(Math.max(1, (m_expectedRowCount + m_pageSize - 1) / m_pageSize));
+    }
+
+    /**
+     * @return the number of rows the table expression had before the pages were read
+     */
+    long getExpectedRowCount() {
+        return m_expectedRowCount;
+    }
+
+    private void readRemainingPages(final QueryResultTableWriter first, final BufferedDataTable[] tables,
+        final ExecutionContext exec, final ResultCheck check) throws Exception {
+        final var pool = ParallelExecutionUtil.createExecutor("Power BI Reader page", m_parallelism);
+        final List<Future<QueryResultTableWriter>> futures = new ArrayList<>(tables.length - 1);
+        try {
+            for (var page = 1; page < tables.length; page++) {
+                final long offset = (long)page * m_pageSize;
+                futures.add(pool.submit(() -> {
+                    final var writer = new QueryResultTableWriter(exec, first.getSchema(), offset);
+                    readPage(writer, offset, exec);
+                    return writer;
+                }));
+            }
+            // pages are consumed in order, the pool keeps fetching the following pages meanwhile
+            for (var page = 1; page < tables.length; page++) {
+                final var writer = ParallelExecutionUtil.waitFor(futures.get(page - 1), exec);
+                check.check(writer);
+                tables[page] = writer.getTable();
+                final var read = page + 1;
+                exec.setProgress((double)read / tables.length, () -> "Read page " + read + " of " + tables.length);
+            }
+        } finally {
+            ParallelExecutionUtil.cancelAll(futures, pool);
+        }
+    }
+
+    private void readPage(final QueryResultTableWriter writer, final long offset, final ExecutionContext exec)
+        throws Exception {
+        try {
+            PowerBIRestAPIUtils.executeDAXQuery(m_auth, m_workspace, m_dataset, pageQuery(offset), writer, exec);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String pageQuery(final long offset) {
+        // without an order TOPNSKIP may return overlapping pages, see PowerBIReaderNodeSettings#validate
+        return "EVALUATE\n    TOPNSKIP(" + m_pageSize + ", " + offset + ", " + m_tableExpression + ", " + m_orderBy
+            + ", ASC)\nORDER BY " + m_orderBy + " ASC";
+    }
+
+    private long countRows(final ExecutionContext exec) throws Exception {
+        final var query = "EVALUATE\n    ROW(\"rows\", COUNTROWS(" + m_tableExpression + "))";
+        final var counter = new RowCountHandler();
+        PowerBIRestAPIUtils.executeDAXQuery(m_auth, m_workspace, m_dataset, query, counter, exec);
+        if (counter.m_error != null) {
+            throw new IOException("Could not count the rows of the table expression: " + counter.m_error);
+        }
+        return counter.m_count;
+    }
+
+    /** Receives the single value of the row count query */
+    private static final class RowCountHandler implements QueryResultsHandler {
+
+        private long m_count;
+
+        private String m_error;
+
+        @Override
+        public void startTable(final int resultIndex, final int tableIndex) {
+            // single table expected
+        }
+
+        @Override
+        public void startRow() {
+            // single row expected
+        }
+
+        @Override
+        public void nullValue(final String column) {
+            // COUNTROWS returns blank for an empty table
+            m_count = 0;
+        }
+
+        @Override
+        public void stringValue(final String column, final String value) throws IOException {
+            throw new IOException("Unexpected row count '" + value + "'.");
+        }
+
+        @Override
+        public void doubleValue(final String column, final double value) {
+            m_count = (long)value;
+        }
+
+        @Override
+        public void longValue(final String column, final long value) {
+            m_count = value;
+        }
+
+        @Override
+        public void booleanValue(final String column, final boolean value) throws IOException {
+            throw new IOException("Unexpected row count '" + value + "'.");
+        }
+
+        @Override
+        public void endRow() {
+            // single row expected
+        }
+
+        @Override
+        public void endTable() {
+            // single table expected
+        }
+
+        @Override
+        public void error(final int resultIndex, final String code, final String message) {
+            m_error = message == null ? code : message;
+        }
+    }
+}
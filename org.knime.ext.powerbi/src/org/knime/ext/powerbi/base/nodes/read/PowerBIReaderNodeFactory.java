@@ -80,19 +80,47 @@ public final class PowerBIReaderNodeFactory extends ConfigurableNodeFactory<Powe
     private static final String FULL_DESCRIPTION = """
             <p>Reads data from Power BI using a DAX query.</p>
             <p>
-                Currently the node only supports the basic data types
-                returned by the REST API (Strings, Number (Double), Booleans).
-                The data types can be converted to other data types with nodes like
+                With the advanced setting &quot;Use column types of the semantic model&quot; the types of columns
+                and measures of the semantic model are read from its metadata: whole numbers become Number (Long),
+                decimal numbers and currencies Number (Double), dates Local Date, date/times Local Date Time, and
+                true/false values Booleans. The types of other result columns, e.g. computed in the query, and of
+                all columns if the setting is disabled are determined from the values as Strings, Number (Double),
+                or Booleans. These can be
+                converted to other data types with nodes like
                 <a href="https://hub.knime.com/n/sLTXYsycpYMwt_yW">String to Date&amp;Time</a>.
             </p>
             <p>
                 Power BI limits the amount of data which can be requested in one call.
                 The actual limit depends on the number of values and rows. To access all
-                of the data this node can be used multiple times with the appropriate window
+                of the data the &quot;Paged&quot; extraction mode reads a table expression in pages using
+                <a href="https://learn.microsoft.com/en-us/dax/topnskip-function-dax">TOPNSKIP</a>.
+                The pages are fetched concurrently and concatenated in the order of the configured column.
+                Alternatively this node can be used multiple times with the appropriate window
                 functions like
-                <a href="https://learn.microsoft.com/en-us/dax/topnskip-function-dax">TOPNSKIP</a> or
                 <a href="https://learn.microsoft.com/en-us/dax/window-function-dax">WINDOW</a>.
             </p>
+            <p>
+                Additional DAX queries can be evaluated at the same time. The result of each additional query
+                is provided at its own additional output port. Queries without a DEFINE block are combined into
+                as few requests as possible.
+            </p>
+            <p>
+                The node can be executed in a streaming component and passes the rows on while the results are
+                read. With the advanced setting &quot;Determine output columns during configure&quot; the columns
+                of the results are determined during configuration from a sample of up to 10 rows if the credential
+                is available, so that the downstream nodes of a streaming component can be configured before the
+                execution. This works for the paged extraction
+                mode and for queries that consist of a single EVALUATE statement. Columns without a type in the
+                semantic model that are missing in all rows of the sample become Strings. The outputs are read at
+                the same time and the pages of a paged extraction are read one after another.
+            </p>
+            <p>
+                With the advanced setting &quot;Cache results&quot; the results are stored on the local disk and
+                reused as long as the semantic model has not been refreshed. The end time of the most recent refresh
+                is looked up with every execution, the storage modes of the tables only after a refresh. Results of
+                a semantic model without a completed refresh or with tables that are not imported (e.g. DirectQuery)
+                are not cached. Cached results are only reused for the same user or service principal.
+            </p>
             <p>
                 To ensure that the data is up to date before executing this node the
                 Refresh Power BI Semantic Model node.
@@ -103,6 +131,8 @@ public final class PowerBIReaderNodeFactory extends ConfigurableNodeFactory<Powe
 
     private static final String OUTPUT_PORT_GROUP = "Output Table";
 
+    static final String ADDITIONAL_OUTPUT_PORT_GROUP = "Additional Output Tables";
+
     private static final WebUINodeConfiguration CONFIG = WebUINodeConfiguration.builder()//
         .name("Power BI Model Reader")//
         .icon("./power_bi_reader.png") //
@@ -113,6 +143,8 @@ public final class PowerBIReaderNodeFactory extends ConfigurableNodeFactory<Powe
         .addInputPort(INPUT_PORT_GROUP, CredentialPortObject.TYPE,
             "Microsoft/Azure credential (access token)", false)//
         .addOutputTable(OUTPUT_PORT_GROUP, "Read table") //
+        .addOutputPort(ADDITIONAL_OUTPUT_PORT_GROUP, BufferedDataTable.TYPE,
+            "Results of the additional DAX queries, one table per query", true) //
         .keywords("Microsoft", "Power BI", "Semantic Model", "Dataset").sinceVersion(5, 5, 0).build();
 
     @Override
@@ -135,6 +167,7 @@ protected Optional<PortsConfigurationBuilder> createPortsConfigBuilder() {
         final var b = new PortsConfigurationBuilder();
         b.addFixedInputPortGroup(INPUT_PORT_GROUP, CredentialPortObject.TYPE);
         b.addFixedOutputPortGroup(OUTPUT_PORT_GROUP, BufferedDataTable.TYPE);
+        b.addExtendableOutputPortGroup(ADDITIONAL_OUTPUT_PORT_GROUP, BufferedDataTable.TYPE);
         return Optional.of(b);
     }
 
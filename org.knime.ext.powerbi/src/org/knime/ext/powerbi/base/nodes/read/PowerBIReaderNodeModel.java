@@ -50,37 +50,41 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 
-import org.knime.core.data.DataCell;
-import org.knime.core.data.DataColumnSpec;
-import org.knime.core.data.DataColumnSpecCreator;
-import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.RowKey;
-import org.knime.core.data.def.BooleanCell;
-import org.knime.core.data.def.DefaultRow;
-import org.knime.core.data.def.DoubleCell;
-import org.knime.core.data.def.StringCell;
 import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
-import org.knime.core.util.Pair;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.node.util.CheckUtils;
 import org.knime.core.webui.node.impl.WebUINodeModel;
 import org.knime.credentials.base.CredentialPortObjectSpec;
+import org.knime.credentials.base.NoSuchCredentialException;
+import org.knime.ext.powerbi.base.nodes.read.PowerBIReaderNodeSettings.ExtractionMode;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.ResultCheck;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.Schema;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
-import org.knime.ext.powerbi.core.rest.bindings.QueryResults.Result;
-import org.knime.ext.powerbi.core.rest.bindings.QueryResults.Result.Error;
-import org.knime.ext.powerbi.core.rest.bindings.QueryResults.Result.Table;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+import org.knime.ext.powerbi.util.ParallelExecutionUtil;
 import org.knime.ext.powerbi.util.PowerBICredentialUtil;
 
 /**
@@ -91,11 +95,18 @@
 @SuppressWarnings("restriction") // New Node UI is not yet API
 final class PowerBIReaderNodeModel extends WebUINodeModel<PowerBIReaderNodeSettings> {
 
-    private static final long MAX_ROWS_SCANNED = 10_000; // from CSV reader
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PowerBIReaderNodeModel.class);
+
+    private final int m_additionalOutputs;
+
+    private final ResultSchemaResolver m_schemaResolver = new ResultSchemaResolver();
 
     public PowerBIReaderNodeModel(final PortsConfiguration portsConfig,
         final Class<PowerBIReaderNodeSettings> settings) {
         super(portsConfig.getInputPorts(), portsConfig.getOutputPorts(), settings);
+        m_additionalOutputs = Optional.ofNullable(
+            portsConfig.getOutputPortLocation().get(PowerBIReaderNodeFactory.ADDITIONAL_OUTPUT_PORT_GROUP))
+            .map(ports -> ports.length).orElse(0);
     }
 
     @Override
@@ -103,8 +114,31 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs,
         final PowerBIReaderNodeSettings modelSettings)
         throws InvalidSettingsException {
         modelSettings.validate(inSpecs[0]);
-        // we do not know the result of the query without executing it; oh well...
-        return new PortObjectSpec[1];
+        CheckUtils.checkSetting(modelSettings.m_additionalQueries.length == m_additionalOutputs,
+            "The number of additional queries (%d) does not match the number of additional output ports (%d).",
+            modelSettings.m_additionalQueries.length, m_additionalOutputs);
+        if (!modelSettings.m_determineColumns) {
+            // we do not know the result of the query without executing it; oh well...
+            return new PortObjectSpec[1 + m_additionalOutputs];
+        }
+        // the specs are only known if they can be determined with a sample of the query
+        final var schemas = m_schemaResolver.resolve(configureAuth((CredentialPortObjectSpec)inSpecs[0]),
+            modelSettings);
+        return Arrays.stream(schemas).map(schema -> schema == null ? null : schema.getSpec())
+            .toArray(PortObjectSpec[]::new);
+    }
+
+    /** The authentication for the sample queries, <code>null</code> if the credential is not available yet */
+    private static AuthTokenProvider configureAuth(final CredentialPortObjectSpec cred) {
+        if (!cred.isPresent()) {
+            return null;
+        }
+        try {
+            return PowerBICredentialUtil.toAccessTokenAccessor(cred)::getAccessToken;
+        } catch (IOException | NoSuchCredentialException e) { // NOSONAR the specs are determined during execution
+            LOGGER.debug("Credential not available during configure: " + e.getMessage(), e);
+            return null;
+        }
     }
 
     @Override
@@ -117,146 +151,249 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 
 
         final var workspace = Optional.of(settings.m_workspaceId).filter(Predicate.not(String::isBlank)).orElse(null);
-        exec.setMessage("Executing query");
-        final var result = PowerBIRestAPIUtils.executeDAXQuery(
-            auth, workspace, settings.m_dataset, settings.m_daxQuery, exec);
-
-        handleError(result, settings);
-        checkInput(result);
-
-        exec.setMessage("Parsing spec");
-
-        final var spec = guessSpec(result.tables()[0]);
-
-        exec.setMessage("Writing table");
-
-        return new PortObject[] { createTable(spec.getFirst(), spec.getSecond(), result.tables()[0], exec) };
-    }
-
-    private void handleError(final Result result, final PowerBIReaderNodeSettings settings)
-            throws InvalidSettingsException, IOException {
-        if (result == null) {
-            throw new IOException("No data or unexpected format returned.");
+        final var incomplete = new AtomicBoolean();
+        final ResultCheck check = result -> {
+            handleError(result, settings);
+            if (result.hasError()) {
+                incomplete.set(true);
+            }
+        };
+        final var out = new PortObject[1 + m_additionalOutputs];
+        final var cacheKeys = getCacheKeys(auth, workspace, settings, exec);
+        final var cached = new boolean[out.length];
+        if (cacheKeys != null) {
+            exec.setMessage("Reading cached results");
+            for (var i = 0; i < out.length; i++) {
+                out[i] = ResultCache.getInstance().get(cacheKeys[i], exec).orElse(null);
+                cached[i] = out[i] != null;
+            }
         }
-        if (result.error() != null) {
-            final var error = Optional.ofNullable(result).map(Result::error);
 
-            var message = error.map(Error::message).map(s -> ": " + s).orElse("");
-            message += error.map(Error::code).map(s -> " (Code: " + s + ")").orElse("");
-
-            switch (settings.m_queryErrorHandling) {
-                case FAIL -> throw new InvalidSettingsException("Data may be missing, "
-                    + "not continuing due to user settings" + message);
-                case WARN -> setWarningMessage("Data may be missing" + message);
-                case IGNORE -> { /* do nothing */}
+        final Map<String, DataType> columnTypes = Arrays.stream(out).allMatch(Objects::nonNull) //
+            ? Map.of() //
+            : m_schemaResolver.getColumnTypes(auth, settings);
+        final var queries = new ArrayList<String>();
+        final var queryOutputs = new ArrayList<Integer>();
+        if (out[0] == null && settings.m_extractionMode == ExtractionMode.PAGED) {
+            final var paged = new PagedQueryExecutor(auth, workspace, settings, columnTypes);
+            final var table = paged.execute(exec, check);
+            if (table.size() != paged.getExpectedRowCount()) {
+                setWarningMessage("Expected " + paged.getExpectedRowCount() + " rows but read " + table.size()
+                    + ". The semantic model may have changed while reading.");
+                incomplete.set(true);
+            }
+            out[0] = table;
+        } else if (out[0] == null) {
+            queries.add(settings.m_daxQuery);
+            queryOutputs.add(0);
+        }
+        for (var i = 1; i < out.length; i++) {
+            if (out[i] == null) {
+                queries.add(settings.m_additionalQueries[i - 1].m_daxQuery);
+                queryOutputs.add(i);
             }
         }
-    }
 
-    private static void checkInput(final Result result) {
-        if (result.tables() == null || result.tables().length == 0) {
-            throw new IllegalStateException("No tables in response.");
+        if (!queries.isEmpty()) {
+            final var tables = new QueryBatchExecutor(auth, workspace, settings.m_dataset, columnTypes)
+                .execute(queries, exec, check);
+            for (var i = 0; i < tables.length; i++) {
+                out[queryOutputs.get(i)] = tables[i];
+            }
         }
-        if (result.tables().length > 1) {
-            throw new IllegalStateException("More than one table in response.");
+        if (cacheKeys != null && !incomplete.get()) {
+            exec.setMessage("Caching results");
+            for (var i = 0; i < out.length; i++) {
+                if (!cached[i]) {
+                    ResultCache.getInstance().put(cacheKeys[i], (BufferedDataTable)out[i], exec);
+                }
+            }
         }
+        return out;
     }
 
-    private static Pair<DataTableSpec, List<String>> guessSpec(final Table table) {
-        if (table.rows().isEmpty()) {
-            return Pair.create(new DataTableSpec(), List.of());
+    /**
+     * The keys of the results of all outputs in the result cache, <code>null</code> if the results are not cached.
+     * The cache is not used while the semantic model is being refreshed, if it has not been refreshed yet, or if not
+     * all of its tables are imported.
+     */
+    private String[] getCacheKeys(final AuthTokenProvider auth, final String workspace,
+        final PowerBIReaderNodeSettings settings, final ExecutionContext exec) throws CanceledExecutionException {
+        if (!settings.m_useResultCache) {
+            return null; // NOSONAR null means no caching
         }
+        final Optional<String> refreshTime;
+        try {
+            refreshTime = ResultCache.getLastRefreshTime(auth, workspace, settings.m_dataset, exec);
+        } catch (PowerBIResponseException e) {
+            LOGGER.debug("Could not read the refresh history: " + e.getMessage(), e);
+            setWarningMessage("The results are not cached since the refresh history of the semantic model cannot "
+                + "be read: " + e.getMessage());
+            return null; // NOSONAR null means no caching
+        }
+        if (refreshTime.isEmpty()) {
+            setWarningMessage("The results are not cached since the semantic model is being refreshed or has not "
+                + "been refreshed yet.");
+            return null; // NOSONAR null means no caching
+        }
+        if (!ResultCache.isImported(auth, workspace, settings.m_dataset, refreshTime.get(), exec)) {
+            setWarningMessage("The results are not cached since not all tables of the semantic model are imported "
+                + "(e.g. DirectQuery tables) or their storage mode cannot be read. Their data can change without a "
+                + "refresh.");
+            return null; // NOSONAR null means no caching
+        }
+        final String principal;
+        try {
+            principal = ResultCache.principal(auth);
+        } catch (IOException e) {
+            LOGGER.debug("Could not determine the principal: " + e.getMessage(), e);
+            setWarningMessage("The results are not cached since the access token is not available: " + e.getMessage());
+            return null; // NOSONAR null means no caching
+        }
+        final var keys = new String[1 + m_additionalOutputs];
+        final var query = settings.m_extractionMode == ExtractionMode.PAGED //
+            ? ("TOPNSKIP " + settings.m_tableExpression + " ORDER BY " + settings.m_orderBy) //
+            : settings.m_daxQuery;
+        keys[0] = ResultCache.key(principal, workspace, settings.m_dataset, refreshTime.get(),
+            settings.m_useModelTypes, query);
+        for (var i = 1; i < keys.length; i++) {
+            keys[i] = ResultCache.key(principal, workspace, settings.m_dataset, refreshTime.get(),
+                settings.m_useModelTypes, settings.m_additionalQueries[i - 1].m_daxQuery);
+        }
+        return keys;
+    }
 
-        final var colNr = table.rows().get(0).size();
-
-        final var columns = new LinkedList<DataColumnSpec>();
-        final var colNames = new ArrayList<String>();
-        var rowsScanned = 0;
+    @Override
+    protected void reset() {
+        // the semantic model may have changed, the settings are applied with a reset as well
+        m_schemaResolver.clear();
+    }
 
-        for (final var row : table.rows()) {
-            rowsScanned++;
-            guessRow(columns, colNames, rowsScanned, row);
+    @Override
+    protected StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+        final PortObjectSpec[] inSpecs, final PowerBIReaderNodeSettings modelSettings)
+        throws InvalidSettingsException {
+        return new StreamableOperator() {
 
-            if (columns.size() == colNr) {
-                break;
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                throws Exception {
+                executeStreamed(((PortObjectInput)inputs[0]).getPortObject(), outputs, exec, modelSettings);
             }
-        }
-
-        return Pair.create(new DataTableSpec(columns.toArray(DataColumnSpec[]::new)), colNames);
+        };
     }
 
-    private static void guessRow(final LinkedList<DataColumnSpec> columns, final ArrayList<String> colNames,
-        int rowsScanned, final LinkedHashMap<String, Object> row) {
-        for (final var kv : row.entrySet()) {
-            if (!colNames.contains(kv.getKey())) {
-                final var val = kv.getValue();
-                rowsScanned++;
-                if (val == null && rowsScanned < MAX_ROWS_SCANNED) {
-                    continue; // cannot determine… yet
-                }
+    /**
+     * Pushes the rows of all results to the outputs while the responses are parsed. The outputs are written at the
+     * same time, so that downstream nodes can consume them in any order. The schemas of all results must be known
+     * beforehand.
+     */
+    private void executeStreamed(final PortObject credential, final PortOutput[] outputs, final ExecutionContext exec,
+        final PowerBIReaderNodeSettings settings) throws Exception {
+        settings.validate(credential.getSpec());
 
-                final var type = getDataType(val);
+        final var cred = (CredentialPortObjectSpec)credential.getSpec();
+        final AuthTokenProvider auth = PowerBICredentialUtil.toAccessTokenAccessor(cred)::getAccessToken;
 
-                colNames.add(kv.getKey());
-                columns.add(new DataColumnSpecCreator(parseColumnName(kv.getKey()), type).createSpec());
-            }
+        final var workspace = Optional.of(settings.m_workspaceId).filter(Predicate.not(String::isBlank)).orElse(null);
+        final Schema[] schemas = m_schemaResolver.resolve(auth, settings);
+        for (var i = 0; i < schemas.length; i++) {
+            CheckUtils.checkSetting(schemas[i] != null, "The columns of the result at output port %d cannot be "
+                + "determined before the query is executed, which is required for streaming. Use a query with a "
+                + "single EVALUATE statement, the paged extraction mode, or execute the node without streaming.",
+                i + 1);
         }
-    }
 
-    private static DataType getDataType(final Object val) {
-        if (val == null || val instanceof String) {
-            return StringCell.TYPE;
-        } else if (val instanceof Boolean) {
-            return BooleanCell.TYPE;
-        } else if (val instanceof Double) {
-            return DoubleCell.TYPE;
-        } else {
-            throw new IllegalStateException("Unknown type: " + val.getClass().getSimpleName());
+        final var cacheKeys = getCacheKeys(auth, workspace, settings, exec);
+        final var pool = ParallelExecutionUtil.createExecutor("Power BI Reader", outputs.length);
+        final List<Future<Void>> futures = new ArrayList<>(outputs.length);
+        try {
+            for (var i = 0; i < outputs.length; i++) {
+                final var index = i;
+                final var output = (RowOutput)outputs[i];
+                final var spec = schemas[i].getSpec();
+                final var key = cacheKeys == null ? null : cacheKeys[i];
+                futures.add(pool.submit(() -> {
+                    if (key == null || !ResultCache.getInstance().read(key, spec, output, exec)) {
+                        streamResult(index, auth, workspace, schemas[index], key, output, exec, settings);
+                    }
+                    output.close();
+                    return null;
+                }));
+            }
+            for (final var future : futures) {
+                ParallelExecutionUtil.waitFor(future, exec);
+            }
+        } finally {
+            ParallelExecutionUtil.cancelAll(futures, pool);
         }
     }
 
-    private static String parseColumnName(final String columnName) {
-        // extract name from possible fully qualified name 'table[col]'
-        // or renamed column syntax '[col]'
-        final var indirectIdx = columnName.indexOf('[');
-        if (indirectIdx != -1 && columnName.length() - 1 > indirectIdx) {
-            return columnName.substring(indirectIdx + 1, columnName.length() - 1);
-        } else {
-            return columnName;
+    /**
+     * Pushes the rows of the result of an output while the response is parsed and adds the result to the result cache
+     * if a key is given and the result is complete.
+     */
+    private void streamResult(final int index, final AuthTokenProvider auth, final String workspace,
+        final Schema schema, final String cacheKey, final RowOutput output, final ExecutionContext exec,
+        final PowerBIReaderNodeSettings settings) throws Exception {
+        final var incomplete = new AtomicBoolean();
+        final ResultCheck check = result -> {
+            handleError(result, settings);
+            if (result.hasError()) {
+                incomplete.set(true);
+            }
+        };
+        final var cacheWriter = cacheKey == null //
+            ? Optional.<ResultCache.Writer> empty() //
+            : ResultCache.getInstance().write(schema.getSpec());
+        try {
+            final var target = cacheWriter.map(writer -> writer.tee(output)).orElse(output);
+            if (index == 0 && settings.m_extractionMode == ExtractionMode.PAGED) {
+                final var paged = new PagedQueryExecutor(auth, workspace, settings,
+                    m_schemaResolver.getColumnTypes(auth, settings));
+                final var rowCount = paged.stream(exec, check, schema, target);
+                if (rowCount != paged.getExpectedRowCount()) {
+                    setWarningMessage("Expected " + paged.getExpectedRowCount() + " rows but read " + rowCount
+                        + ". The semantic model may have changed while reading.");
+                    incomplete.set(true);
+                }
+            } else {
+                final var query = index == 0 ? settings.m_daxQuery : settings.m_additionalQueries[index - 1].m_daxQuery;
+                final var writer = new QueryResultTableWriter(exec, schema, target, 0);
+                PowerBIRestAPIUtils.executeDAXQuery(auth, workspace, settings.m_dataset, query, writer, exec);
+                check.check(writer);
+            }
+            if (cacheWriter.isPresent() && !incomplete.get()) {
+                commit(cacheWriter.get(), cacheKey);
+            }
+        } finally {
+            cacheWriter.ifPresent(ResultCache.Writer::close);
         }
     }
 
-    private static BufferedDataTable createTable(final DataTableSpec spec,
-        final List<String> colNames, final Table table, final ExecutionContext exec) {
-        final var out = exec.createDataContainer(spec);
+    private static void commit(final ResultCache.Writer cacheWriter, final String cacheKey) {
         try {
-            var rowKey = 0L;
-            for (final var row : table.rows()) {
-                out.addRowToTable(new DefaultRow(RowKey.createRowKey(rowKey), createRow(colNames, row, spec)));
-                rowKey++;
-            }
-        } finally {
-            out.close();
+            cacheWriter.commit(cacheKey);
+        } catch (IOException e) { // NOSONAR the result is not cached
+            LOGGER.debug("Could not cache result: " + e.getMessage(), e);
         }
-        return out.getTable();
     }
 
-    private static DataCell[] createRow(final List<String> colNames, final Map<String, Object> row,
-        final DataTableSpec spec) {
-        final var result = new DataCell[spec.getNumColumns()];
-        for (var index = 0; index < spec.getNumColumns(); index++) {
-            final var val = row.getOrDefault(colNames.get(index), null);
-            final var type = spec.getColumnSpec(index).getType();
-            if (val == null) {
-                result[index] = DataType.getMissingCell();
-            } else if (type.equals(StringCell.TYPE)) {
-                result[index] = StringCell.StringCellFactory.create((String) val);
-            } else if (type.equals(BooleanCell.TYPE)) {
-                result[index] = BooleanCell.BooleanCellFactory.create((Boolean)val);
-            } else if (type.equals(DoubleCell.TYPE)) {
-                result[index] = DoubleCell.DoubleCellFactory.create((Double)val);
+    private void handleError(final QueryResultTableWriter result, final PowerBIReaderNodeSettings settings)
+            throws InvalidSettingsException, IOException {
+        if (!result.hasResult()) {
+            throw new IOException("No data or unexpected format returned.");
+        }
+        if (result.hasError()) {
+            var message = Optional.ofNullable(result.getErrorMessage()).map(s -> ": " + s).orElse("");
+            message += Optional.ofNullable(result.getErrorCode()).map(s -> " (Code: " + s + ")").orElse("");
+
+            switch (settings.m_queryErrorHandling) {
+                case FAIL -> throw new InvalidSettingsException("Data may be missing, "
+                    + "not continuing due to user settings" + message);
+                case WARN -> setWarningMessage("Data may be missing" + message);
+                case IGNORE -> { /* do nothing */}
             }
         }
-        return result;
     }
 }
@@ -52,19 +52,31 @@
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.CheckUtils;
+import org.knime.node.parameters.Advanced;
 import org.knime.node.parameters.NodeParameters;
+import org.knime.node.parameters.NodeParametersInput;
 import org.knime.credentials.base.CredentialPortObjectSpec;
 import org.knime.ext.powerbi.util.NodeDialogCommon.DatasetChoicesProvider;
 import org.knime.ext.powerbi.util.NodeDialogCommon.DatasetRef;
 import org.knime.ext.powerbi.util.NodeDialogCommon.WorkspaceChoicesProvider;
 import org.knime.ext.powerbi.util.NodeDialogCommon.WorkspaceRef;
 import org.knime.node.parameters.Widget;
+import org.knime.node.parameters.array.ArrayWidget;
 import org.knime.node.parameters.layout.Layout;
 import org.knime.node.parameters.layout.Section;
+import org.knime.node.parameters.migration.LoadDefaultsForAbsentFields;
+import org.knime.node.parameters.updates.Effect;
+import org.knime.node.parameters.updates.Effect.EffectType;
+import org.knime.node.parameters.updates.EffectPredicate;
+import org.knime.node.parameters.updates.EffectPredicateProvider;
+import org.knime.node.parameters.updates.ParameterReference;
 import org.knime.node.parameters.updates.ValueReference;
 import org.knime.node.parameters.widget.choices.ChoicesProvider;
 import org.knime.node.parameters.widget.choices.Label;
 import org.knime.node.parameters.widget.choices.ValueSwitchWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
 import org.knime.node.parameters.widget.text.TextAreaWidget;
 import org.knime.ext.powerbi.util.PowerBICredentialUtil;
 
@@ -74,6 +86,7 @@
  * @author Jannik Löscher, KNIME GmbH, Konstanz, Germany
  */
 @SuppressWarnings("restriction") // New Node UI is not yet API
+@LoadDefaultsForAbsentFields
 public final class PowerBIReaderNodeSettings
     implements NodeParameters {
 
@@ -85,6 +98,10 @@ interface DatasetSection {
     interface QuerySection {
     }
 
+    @Section(title = "Additional Queries")
+    interface AdditionalQueriesSection {
+    }
+
     @Widget(title = "Workspace",
             description = """
                     The workspace which contains the Semantic Models.
@@ -102,6 +119,15 @@ interface QuerySection {
     @Layout(DatasetSection.class)
     String m_dataset;
 
+    @Widget(title = "Extraction mode",
+            description = """
+                Determines how the data is read from the semantic model.
+                """)
+    @ValueSwitchWidget
+    @ValueReference(ExtractionModeRef.class)
+    @Layout(QuerySection.class)
+    ExtractionMode m_extractionMode = ExtractionMode.QUERY;
+
     @Widget(title = "DAX query",
             description = """
                 The <a href="https://learn.microsoft.com/en-us/dax/dax-queries">DAX query</a> to evaluate.
@@ -115,11 +141,53 @@ interface QuerySection {
                 The table name can for example be found in the Power BI (Web) interface.
                 """)
     @TextAreaWidget
+    @Effect(predicate = IsPaged.class, type = EffectType.HIDE)
     @Layout(QuerySection.class)
     String m_daxQuery = """
             EVALUATE
                 'table';""";
 
+    @Widget(title = "Table expression",
+            description = """
+                The DAX table expression to read page by page, e.g. <code>'table_name'</code> or
+                <code>FILTER('table_name', 'table_name'[year] = 2024)</code>.
+                """)
+    @Effect(predicate = IsPaged.class, type = EffectType.SHOW)
+    @Layout(QuerySection.class)
+    String m_tableExpression = "'table'";
+
+    @Widget(title = "Order by",
+            description = """
+                The column that determines the order of the rows and thereby the content of each page, e.g.
+                <code>'table_name'[id]</code>. Use a column with unique values so that every row is read exactly
+                once. Without an order the rows of the pages are up to Power BI and rows may be read twice or
+                not at all, hence the column is required.
+                """)
+    @Effect(predicate = IsPaged.class, type = EffectType.SHOW)
+    @Layout(QuerySection.class)
+    String m_orderBy = "'table'[id]";
+
+    @Widget(title = "Rows per page",
+            description = """
+                The number of rows fetched with one query. Power BI returns at most 100,000 rows or 1,000,000
+                values per query, hence the number of rows times the number of columns should not exceed
+                1,000,000.
+                """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class, maxValidation = MaxPageSize.class)
+    @Effect(predicate = IsPaged.class, type = EffectType.SHOW)
+    @Layout(QuerySection.class)
+    int m_pageSize = 50_000;
+
+    @Widget(title = "Concurrent queries",
+            description = """
+                The number of pages that are fetched at the same time.
+                Power BI limits the number of queries per user to 120 per minute.
+                """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class, maxValidation = MaxParallelism.class)
+    @Effect(predicate = IsPaged.class, type = EffectType.SHOW)
+    @Layout(QuerySection.class)
+    int m_parallelism = 4;
+
     @Widget(title = "If returned data was limited because of result size",
             description = """
                 Power BI limits the result size of DAX queries (see
@@ -131,6 +199,70 @@ Power BI limits the result size of DAX queries (see
     @Layout(QuerySection.class)
     ErrorHandling m_queryErrorHandling = ErrorHandling.FAIL;
 
+    @Widget(title = "Cache results",
+            description = """
+                If enabled, the query results are stored on the local disk and reused by later executions that read
+                the same query from the same semantic model, as long as the semantic model was not refreshed in
+                the meantime. Cached results are only used while the last refresh of the semantic model has
+                completed; semantic models without a refresh history (e.g. push semantic models) and semantic models
+                with tables that are not imported (e.g. DirectQuery), whose data changes without a refresh, are not
+                cached. Results are only reused for the same user or service principal.
+                The cache holds up to 1 GB, the least recently used results are removed first.
+                """)
+    @Advanced
+    @Layout(QuerySection.class)
+    boolean m_useResultCache;
+
+    @Widget(title = "Use column types of the semantic model",
+            description = """
+                If enabled, the types of result columns that are columns or measures of the semantic model are
+                taken from its metadata, e.g. whole numbers become Number (Long) and dates Local Date. Otherwise,
+                and for other result columns, the types are determined from the values: numbers become
+                Number (Double) and dates Strings. Disabled for nodes created before this setting was added.
+                """)
+    @Advanced
+    @Layout(QuerySection.class)
+    boolean m_useModelTypes;
+
+    @Widget(title = "Determine output columns during configure",
+            description = """
+                If enabled, the columns of the results are determined during configure from a sample of up to 10
+                rows of each query, so that downstream nodes can be configured before this node is executed, e.g.
+                inside a streaming component. This works for the paged extraction mode and for queries that consist
+                of a single EVALUATE statement, and sends the sample queries to Power BI whenever the node is
+                configured with changed settings.
+                """)
+    @Advanced
+    @Layout(QuerySection.class)
+    boolean m_determineColumns;
+
+    @Widget(title = "Additional DAX queries",
+            description = """
+                Further DAX queries whose results are provided at the additional output ports, one port per query
+                in the given order. Add an output port for every query. Queries that do not start with
+                <code>DEFINE</code> are combined into as few requests to Power BI as possible.
+                """)
+    @ArrayWidget(elementTitle = "Query", addButtonText = "Add query")
+    @Layout(AdditionalQueriesSection.class)
+    AdditionalQuery[] m_additionalQueries = new AdditionalQuery[0];
+
+    /**
+     * Creates the settings of a loaded node. Settings without the column type setting keep the types determined from
+     * the values.
+     */
+    public PowerBIReaderNodeSettings() {
+        // defaults of existing nodes
+    }
+
+    /**
+     * Creates the settings of a new node.
+     *
+     * @param context the context of the node
+     */
+    public PowerBIReaderNodeSettings(final NodeParametersInput context) { // NOSONAR the context is not needed
+        m_useModelTypes = true;
+    }
+
     enum ErrorHandling {
         @Label(value = "Fail",
                 description = "Fail node execution")
@@ -143,13 +275,72 @@ enum ErrorHandling {
         IGNORE;
     }
 
+    enum ExtractionMode {
+        @Label(value = "Query",
+                description = "Evaluate a single DAX query. The result is limited by the size limits of Power BI.")
+        QUERY,
+        @Label(value = "Paged",
+                description = "Read a table expression in pages of a fixed number of rows. The pages are fetched "
+                    + "concurrently and concatenated in order, which allows reading tables beyond the size limits "
+                    + "of a single query.")
+        PAGED;
+    }
+
+    static final class AdditionalQuery implements NodeParameters {
+        @Widget(title = "DAX query",
+                description = "The DAX query to evaluate. It must result in a single table.")
+        @TextAreaWidget
+        String m_daxQuery = "";
+    }
+
+    static final class ExtractionModeRef implements ParameterReference<ExtractionMode> {
+    }
+
+    static final class IsPaged implements EffectPredicateProvider {
+        @Override
+        public EffectPredicate init(final PredicateInitializer i) {
+            return i.getEnum(ExtractionModeRef.class).isOneOf(ExtractionMode.PAGED);
+        }
+    }
+
+    static final class MaxPageSize extends NumberInputWidgetValidation.MaxValidation {
+
+        @Override
+        protected double getMax() {
+            return PagedQueryExecutor.MAX_PAGE_SIZE;
+        }
+
+    }
+
+    static final class MaxParallelism extends NumberInputWidgetValidation.MaxValidation {
+
+        @Override
+        protected double getMax() {
+            return PagedQueryExecutor.MAX_PARALLELISM;
+        }
+
+    }
 
     void validate(final PortObjectSpec cred) throws InvalidSettingsException {
         PowerBICredentialUtil.validateCredentialOnConfigure((CredentialPortObjectSpec)cred);
 
         CheckUtils.checkSetting(!StringUtils.isEmpty(m_workspaceId), "Please specify a workspace!");
         CheckUtils.checkSetting(!StringUtils.isBlank(m_dataset), "Please specify a semantic model!");
-        CheckUtils.checkSetting(!StringUtils.isBlank(m_daxQuery), "Please specify a DAX query!");
+        if (m_extractionMode == ExtractionMode.PAGED) {
+            CheckUtils.checkSetting(!StringUtils.isBlank(m_tableExpression), "Please specify a table expression!");
+            CheckUtils.checkSetting(m_pageSize > 0 && m_pageSize <= PagedQueryExecutor.MAX_PAGE_SIZE,
+                "The number of rows per page must be between 1 and %d.", PagedQueryExecutor.MAX_PAGE_SIZE);
+            CheckUtils.checkSetting(m_parallelism > 0 && m_parallelism <= PagedQueryExecutor.MAX_PARALLELISM,
+                "The number of concurrent queries must be between 1 and %d.", PagedQueryExecutor.MAX_PARALLELISM);
+            CheckUtils.checkSetting(!StringUtils.isBlank(m_orderBy),
+                "Please specify an order by column to read the pages in a stable order!");
+        } else {
+            CheckUtils.checkSetting(!StringUtils.isBlank(m_daxQuery), "Please specify a DAX query!");
+        }
+        for (var i = 0; i < m_additionalQueries.length; i++) {
+            CheckUtils.checkSetting(!StringUtils.isBlank(m_additionalQueries[i].m_daxQuery),
+                "Please specify additional DAX query %d!", i + 1);
+        }
     }
 
 }
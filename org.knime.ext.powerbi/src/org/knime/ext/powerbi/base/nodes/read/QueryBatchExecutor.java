@@ -0,0 +1,282 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.knime.core.data.DataType;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.ResultCheck;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+import org.knime.ext.powerbi.core.rest.QueryResultsHandler;
+
+/**
+ * Executes several DAX queries with as few calls to "Datasets - Execute Queries" as possible. The API only accepts a
+ * single query per request, but a query may consist of several <code>EVALUATE</code> statements, each resulting in
+ * its own table. Hence queries without a <code>DEFINE</code> block are concatenated into one query. If the combined
+ * result is not complete (e.g. because of the result size limits), the queries of the batch are executed
+ * individually.
+ */
+final class QueryBatchExecutor {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(QueryBatchExecutor.class);
+
+    /** The maximum number of queries combined into one request */
+    private static final int MAX_BATCH_SIZE = 16;
+
+    /** Matches queries that start with a DEFINE block (after optional comments) */
+    private static final Pattern DEFINE = Pattern.compile("^(?:\\s|//[^\\n]*|--[^\\n]*|/\\*.*?\\*/)*DEFINE\\b",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final AuthTokenProvider m_auth;
+
+    private final String m_workspace;
+
+    private final String m_dataset;
+
+    private final Map<String, DataType> m_columnTypes;
+
+    /**
+     * @param auth the authentication
+     * @param workspace the workspace id, <code>null</code> for "My Workspace"
+     * @param dataset the semantic model id
+     * @param columnTypes the known column types of the semantic model, see
+     *            {@link QueryResultTableWriter#QueryResultTableWriter(ExecutionContext, Map)}
+     */
+    QueryBatchExecutor(final AuthTokenProvider auth, final String workspace, final String dataset,
+        final Map<String, DataType> columnTypes) {
+        m_auth = auth;
+        m_workspace = workspace;
+        m_dataset = dataset;
+        m_columnTypes = columnTypes;
+    }
+
+    /**
+     * Executes the queries.
+     *
+     * @param queries the queries, each must result in a single table
+     * @param exec the execution context
+     * @param check the check applied to the result of every individually executed query
+     * @return the result tables in the order of the queries
+     * @throws Exception if a query failed, the check failed, or the execution was canceled
+     */
+    BufferedDataTable[] execute(final List<String> queries, final ExecutionContext exec, final ResultCheck check)
+        throws Exception {
+        final var tables = new BufferedDataTable[queries.size()];
+        final var batch = new ArrayList<Integer>();
+        for (var i = 0; i < queries.size(); i++) {
+            exec.checkCanceled();
+            if (DEFINE.matcher(queries.get(i)).lookingAt()) {
+                tables[i] = executeSingle(queries.get(i), exec, check);
+                continue;
+            }
+            batch.add(i);
+            if (batch.size() == MAX_BATCH_SIZE) {
+                executeBatch(queries, batch, tables, exec, check);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            executeBatch(queries, batch, tables, exec, check);
+        }
+        return tables;
+    }
+
+    private void executeBatch(final List<String> queries, final List<Integer> batch,
+        final BufferedDataTable[] tables, final ExecutionContext exec, final ResultCheck check) throws Exception {
+        if (batch.size() == 1) {
+            tables[batch.get(0)] = executeSingle(queries.get(batch.get(0)), exec, check);
+            return;
+        }
+        exec.setMessage(() -> "Executing " + batch.size() + " queries");
+        final var query = new StringBuilder();
+        for (final int index : batch) {
+            query.append(queries.get(index).strip()).append('\n');
+        }
+        final var writers = new QueryResultTableWriter[batch.size()];
+        for (var i = 0; i < writers.length; i++) {
+            writers[i] = new QueryResultTableWriter(exec, m_columnTypes);
+        }
+        final var dispatcher = new TableDispatcher(writers);
+        var complete = false;
+        try {
+            PowerBIRestAPIUtils.executeDAXQuery(m_auth, m_workspace, m_dataset, query.toString(), dispatcher, exec);
+            complete = dispatcher.m_tableCount == writers.length && !dispatcher.m_hasError;
+        } catch (final PowerBIResponseException e) {
+            // the failing query is identified by executing the queries individually
+            LOGGER.debug("Combined query failed: " + e.getMessage(), e);
+        } finally {
+            for (final var writer : writers) {
+                writer.close();
+            }
+        }
+        if (!complete) {
+            LOGGER.debug("Combined result of " + writers.length + " queries is incomplete (" + dispatcher.m_tableCount
+                + " tables, error: " + dispatcher.m_hasError + "), executing the queries individually.");
+            for (final int index : batch) {
+                tables[index] = executeSingle(queries.get(index), exec, check);
+            }
+            return;
+        }
+        for (var i = 0; i < writers.length; i++) {
+            tables[batch.get(i)] = writers[i].getTable();
+        }
+    }
+
+    private BufferedDataTable executeSingle(final String query, final ExecutionContext exec,
+        final ResultCheck check) throws Exception {
+        exec.setMessage("Executing query");
+        final var writer = new QueryResultTableWriter(exec, m_columnTypes);
+        try {
+            PowerBIRestAPIUtils.executeDAXQuery(m_auth, m_workspace, m_dataset, query, writer, exec);
+        } finally {
+            writer.close();
+        }
+        check.check(writer);
+        return writer.getTable();
+    }
+
+    /** Forwards every table of the combined result to its own writer */
+    private static final class TableDispatcher implements QueryResultsHandler {
+
+        private final QueryResultTableWriter[] m_writers;
+
+        private QueryResultsHandler m_current;
+
+        private int m_tableCount;
+
+        private boolean m_hasError;
+
+        TableDispatcher(final QueryResultTableWriter[] writers) {
+            m_writers = writers;
+        }
+
+        @Override
+        public void startTable(final int resultIndex, final int tableIndex)
+            throws IOException, CanceledExecutionException {
+            m_tableCount++;
+            // surplus tables (e.g. a query with several EVALUATE statements) are skipped, the batch is repeated
+            m_current = tableIndex < m_writers.length ? m_writers[tableIndex] : null;
+            if (m_current != null) {
+                m_current.startTable(0, 0);
+            }
+        }
+
+        @Override
+        public void startRow() throws IOException, CanceledExecutionException {
+            if (m_current != null) {
+                m_current.startRow();
+            }
+        }
+
+        @Override
+        public void nullValue(final String column) throws IOException {
+            if (m_current != null) {
+                m_current.nullValue(column);
+            }
+        }
+
+        @Override
+        public void stringValue(final String column, final String value) throws IOException {
+            if (m_current != null) {
+                m_current.stringValue(column, value);
+            }
+        }
+
+        @Override
+        public void doubleValue(final String column, final double value) throws IOException {
+            if (m_current != null) {
+                m_current.doubleValue(column, value);
+            }
+        }
+
+        @Override
+        public void longValue(final String column, final long value) throws IOException {
+            if (m_current != null) {
+                m_current.longValue(column, value);
+            }
+        }
+
+        @Override
+        public void booleanValue(final String column, final boolean value) throws IOException {
+            if (m_current != null) {
+                m_current.booleanValue(column, value);
+            }
+        }
+
+        @Override
+        public void endRow() throws IOException, CanceledExecutionException {
+            if (m_current != null) {
+                m_current.endRow();
+            }
+        }
+
+        @Override
+        public void endTable() throws IOException, CanceledExecutionException {
+            if (m_current != null) {
+                m_current.endTable();
+            }
+            m_current = null;
+        }
+
+        @Override
+        public void error(final int resultIndex, final String code, final String message) {
+            m_hasError = true;
+        }
+    }
+}
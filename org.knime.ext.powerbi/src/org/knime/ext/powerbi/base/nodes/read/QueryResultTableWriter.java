@@ -0,0 +1,584 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.localdate.LocalDateCellFactory;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.util.UniqueNameGenerator;
+import org.knime.ext.powerbi.core.rest.ColumnarQueryResult;
+import org.knime.ext.powerbi.core.rest.ColumnarQueryResult.Column;
+import org.knime.ext.powerbi.core.rest.ColumnarQueryResult.ColumnType;
+import org.knime.ext.powerbi.core.rest.QueryResultsHandler;
+
+/**
+ * Writes the single table of a DAX query result into a {@link BufferedDataTable} or a streamed {@link RowOutput} while
+ * the response is parsed. Unless a {@link Schema} is given, the columns are determined from the first
+ * {@value #MAX_ROWS_SCANNED} rows, which are buffered in a {@link ColumnarQueryResult} until the spec is known. The
+ * types of columns with a known type in the semantic model are taken from the model if the first rows fit the type,
+ * the types of other columns are guessed from the values. All further rows are written directly to the output.
+ * <p>
+ * Power BI returns integers and numbers as JSON numbers and dates as strings, which are converted to the types of
+ * the columns.
+ */
+final class QueryResultTableWriter implements QueryResultsHandler {
+
+    /** Checks the result of a query, e.g. for a notice that the result was truncated */
+    @FunctionalInterface
+    interface ResultCheck {
+        void check(QueryResultTableWriter result) throws InvalidSettingsException, IOException;
+    }
+
+    static final int MAX_ROWS_SCANNED = 10_000; // from CSV reader
+
+    private static final int PROGRESS_INTERVAL = 1_000;
+
+    private final ExecutionContext m_exec;
+
+    /** Index of the columns by the names returned by Power BI, in the order they appeared */
+    private final Map<String, Integer> m_columnIndex = new HashMap<>();
+
+    private final List<String> m_columnNames = new ArrayList<>();
+
+    /** The type per column once the schema is known */
+    private DataType[] m_types = new DataType[0];
+
+    /** The types of the columns known before the rows are read, by the names returned by Power BI */
+    private final Map<String, DataType> m_columnTypes;
+
+    /** The rows seen before the spec is known */
+    private ColumnarQueryResult m_window = new ColumnarQueryResult();
+
+    /** The schema once it is known, afterwards rows are written to the output directly */
+    private Schema m_schema;
+
+    /** The output the rows are written to, <code>null</code> if the writer only determines the schema */
+    private RowOutput m_output;
+
+    /** The output if the writer creates its own table */
+    private BufferedDataTableRowOutput m_tableOutput;
+
+    private DataCell[] m_cells;
+
+    private long m_rowCount;
+
+    private int m_tableCount;
+
+    private boolean m_hasResult;
+
+    private String m_errorCode;
+
+    private String m_errorMessage;
+
+    private boolean m_hasError;
+
+    private final long m_firstRowIndex;
+
+    /**
+     * Creates a writer that guesses the spec and writes a table.
+     *
+     * @param exec the execution context to create the table with, <code>null</code> if the writer only determines
+     *            the schema, see {@link #getSchema()}
+     */
+    QueryResultTableWriter(final ExecutionContext exec) {
+        this(exec, Map.of());
+    }
+
+    /**
+     * Creates a writer that determines the columns from the rows and writes a table. The types of the given columns
+     * are not guessed.
+     *
+     * @param exec the execution context to create the table with, <code>null</code> if the writer only determines
+     *            the schema, see {@link #getSchema()}
+     * @param columnTypes the types of columns by the names returned by Power BI (e.g. <code>table[column]</code>),
+     *            e.g. from the metadata of the semantic model
+     */
+    QueryResultTableWriter(final ExecutionContext exec, final Map<String, DataType> columnTypes) {
+        m_exec = exec;
+        m_firstRowIndex = 0;
+        m_columnTypes = columnTypes;
+    }
+
+    /**
+     * Creates a writer that does not guess the spec but uses a known schema, e.g. of the first page of a paged
+     * extraction.
+     *
+     * @param exec the execution context to create the table with
+     * @param schema the schema of the result
+     * @param firstRowIndex the index of the first row written, used for the row keys
+     */
+    QueryResultTableWriter(final ExecutionContext exec, final Schema schema, final long firstRowIndex) {
+        this(exec, schema, null, firstRowIndex);
+        m_tableOutput = new BufferedDataTableRowOutput(exec.createDataContainer(schema.getSpec()));
+        m_output = m_tableOutput;
+    }
+
+    /**
+     * Creates a writer that uses a known schema and pushes the rows to the given output while the response is
+     * parsed. The output is not closed by the writer, so several results can be written to the same output.
+     *
+     * @param exec the execution context
+     * @param schema the schema of the result, must be the spec of the output
+     * @param output the output
+     * @param firstRowIndex the index of the first row written, used for the row keys
+     */
+    QueryResultTableWriter(final ExecutionContext exec, final Schema schema, final RowOutput output,
+        final long firstRowIndex) {
+        m_exec = exec;
+        m_firstRowIndex = firstRowIndex;
+        m_rowCount = firstRowIndex;
+        for (final var name : schema.m_columnNames) {
+            m_columnIndex.put(name, m_columnNames.size());
+            m_columnNames.add(name);
+        }
+        m_types = schema.m_types.clone();
+        m_columnTypes = Map.of();
+        m_window = null;
+        m_schema = schema;
+        m_output = output;
+        m_cells = new DataCell[m_types.length];
+    }
+
+    @Override
+    public void startTable(final int resultIndex, final int tableIndex) throws IOException {
+        m_hasResult = true;
+        if (++m_tableCount > 1) {
+            throw new IllegalStateException("More than one table in response.");
+        }
+    }
+
+    @Override
+    public void startRow() {
+        if (m_schema == null) {
+            m_window.startRow();
+        } else {
+            Arrays.fill(m_cells, null);
+        }
+    }
+
+    @Override
+    public void nullValue(final String column) {
+        // missing values are filled in when the row is complete
+        if (m_schema == null) {
+            m_window.nullValue(column);
+        }
+    }
+
+    @Override
+    public void stringValue(final String column, final String value) throws IOException {
+        if (m_schema == null) {
+            m_window.stringValue(column, value);
+            return;
+        }
+        final var index = m_columnIndex.get(column);
+        if (index != null) {
+            m_cells[index] = createCell(index, value);
+        }
+    }
+
+    @Override
+    public void doubleValue(final String column, final double value) throws IOException {
+        if (m_schema == null) {
+            m_window.doubleValue(column, value);
+            return;
+        }
+        final var index = m_columnIndex.get(column);
+        if (index != null) {
+            m_cells[index] = createCell(index, value);
+        }
+    }
+
+    @Override
+    public void longValue(final String column, final long value) throws IOException {
+        if (m_schema == null) {
+            m_window.longValue(column, value);
+            return;
+        }
+        final var index = m_columnIndex.get(column);
+        if (index != null) {
+            m_cells[index] = createCell(index, value);
+        }
+    }
+
+    @Override
+    public void booleanValue(final String column, final boolean value) throws IOException {
+        if (m_schema == null) {
+            m_window.booleanValue(column, value);
+            return;
+        }
+        final var index = m_columnIndex.get(column);
+        if (index != null) {
+            m_cells[index] = createCell(index, value);
+        }
+    }
+
+    @Override
+    public void endRow() throws IOException, CanceledExecutionException {
+        if (m_schema == null) {
+            m_window.endRow();
+            if (m_window.getRowCount() >= MAX_ROWS_SCANNED) {
+                flushWindow();
+            }
+            return;
+        }
+        if (m_output == null) {
+            // only the schema is determined
+            return;
+        }
+        for (var i = 0; i < m_cells.length; i++) {
+            if (m_cells[i] == null) {
+                m_cells[i] = DataType.getMissingCell();
+            }
+        }
+        addRow(m_cells);
+    }
+
+    @Override
+    public void endTable() throws IOException, CanceledExecutionException {
+        if (m_schema == null) {
+            flushWindow();
+        }
+    }
+
+    @Override
+    public void error(final int resultIndex, final String code, final String message) {
+        m_hasResult = true;
+        m_hasError = true;
+        m_errorCode = code;
+        m_errorMessage = message;
+    }
+
+    /**
+     * @return whether the response contained a query result at all
+     */
+    boolean hasResult() {
+        return m_hasResult;
+    }
+
+    /**
+     * @return whether the query result contained an error notice
+     */
+    boolean hasError() {
+        return m_hasError;
+    }
+
+    /**
+     * @return the code of the error notice, may be <code>null</code>
+     */
+    String getErrorCode() {
+        return m_errorCode;
+    }
+
+    /**
+     * @return the message of the error notice, may be <code>null</code>
+     */
+    String getErrorMessage() {
+        return m_errorMessage;
+    }
+
+    /**
+     * @return the number of rows written by this writer
+     */
+    long getRowCount() {
+        return m_rowCount - m_firstRowIndex;
+    }
+
+    /**
+     * @return the schema of the result, <code>null</code> if the response did not contain a table
+     */
+    Schema getSchema() {
+        return m_schema;
+    }
+
+    /**
+     * @return the written table
+     * @throws IllegalStateException if the response did not contain a table or the rows were written to a given
+     *             output
+     */
+    BufferedDataTable getTable() {
+        if (m_tableOutput == null) {
+            throw new IllegalStateException("No tables in response.");
+        }
+        return m_tableOutput.getDataTable();
+    }
+
+    private void flushWindow() throws IOException, CanceledExecutionException {
+        final var columns = m_window.getColumns();
+        m_types = new DataType[columns.size()];
+        for (var i = 0; i < m_types.length; i++) {
+            final var column = columns.get(i);
+            m_columnIndex.put(column.getName(), i);
+            m_columnNames.add(column.getName());
+            final var known = m_columnTypes.get(column.getName());
+            m_types[i] = known != null && fits(known, column, m_window.getRowCount()) ? known
+                : switch (column.getType()) {
+                    case INTEGER, NUMBER -> DoubleCell.TYPE;
+                    case BOOLEAN -> BooleanCell.TYPE;
+                    // mixed values can only be represented as strings
+                    case EMPTY, STRING -> StringCell.TYPE;
+                };
+        }
+        m_schema = new Schema(m_columnNames, m_types);
+        m_cells = new DataCell[m_types.length];
+        if (m_exec == null) {
+            // only the schema is determined
+            m_window = null;
+            return;
+        }
+        m_tableOutput = new BufferedDataTableRowOutput(m_exec.createDataContainer(m_schema.getSpec()));
+        m_output = m_tableOutput;
+        for (var row = 0; row < m_window.getRowCount(); row++) {
+            for (var i = 0; i < m_cells.length; i++) {
+                final var column = columns.get(i);
+                m_cells[i] = column.isMissing(row) ? DataType.getMissingCell() : createCell(i, column, row);
+            }
+            addRow(m_cells);
+        }
+        m_window = null;
+    }
+
+    /**
+     * Whether the values of the first rows can be represented with the type from the semantic model. Measures are
+     * looked up by name only, hence a column that is defined in the query with the name of a measure may have other
+     * values; its type is guessed instead.
+     */
+    private static boolean fits(final DataType type, final Column column, final int rowCount) {
+        final var values = column.getType();
+        if (values == ColumnType.EMPTY || type.equals(StringCell.TYPE)) {
+            return true;
+        } else if (type.equals(DoubleCell.TYPE)) {
+            return values == ColumnType.INTEGER || values == ColumnType.NUMBER;
+        } else if (type.equals(LongCell.TYPE)) {
+            return values == ColumnType.INTEGER || (values == ColumnType.NUMBER && IntStream.range(0, rowCount)
+                .allMatch(row -> column.isMissing(row) || isLong(column.getDouble(row))));
+        } else if (type.equals(BooleanCell.TYPE)) {
+            return values == ColumnType.BOOLEAN;
+        } else if (type.equals(LocalDateCellFactory.TYPE) || type.equals(LocalDateTimeCellFactory.TYPE)) {
+            return values == ColumnType.STRING && IntStream.range(0, rowCount)
+                .allMatch(row -> column.isMissing(row) || isDateTime(column.getString(row)));
+        }
+        return false;
+    }
+
+    private static boolean isLong(final double value) {
+        return value == Math.rint(value) && Math.abs(value) < 0x1p63;
+    }
+
+    private static boolean isDateTime(final String value) {
+        try {
+            LocalDateTime.parse(value);
+            return true;
+        } catch (DateTimeParseException e) { // NOSONAR not a date
+            return false;
+        }
+    }
+
+    private void addRow(final DataCell[] cells) throws CanceledExecutionException {
+        try {
+            m_output.push(new DefaultRow(RowKey.createRowKey(m_rowCount), cells));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException();
+        }
+        m_rowCount++;
+        if (m_rowCount % PROGRESS_INTERVAL == 0) {
+            m_exec.checkCanceled();
+            if (m_firstRowIndex == 0 || m_tableOutput == null) {
+                final var rows = m_rowCount;
+                m_exec.setMessage(() -> "Writing table (" + rows + " rows)");
+            }
+        }
+    }
+
+    /**
+     * Closes the table created by this writer, must be called once after parsing even if parsing failed. A given
+     * output is not closed.
+     */
+    void close() {
+        if (m_tableOutput != null) {
+            m_tableOutput.close();
+        }
+    }
+
+    private DataCell createCell(final int index, final Column column, final int row) throws IOException {
+        return switch (column.getType()) {
+            case INTEGER -> createCell(index, column.getLong(row));
+            case NUMBER -> createCell(index, column.getDouble(row));
+            case BOOLEAN -> createCell(index, column.getBoolean(row));
+            case EMPTY, STRING -> createCell(index, column.getString(row));
+        };
+    }
+
+    private DataCell createCell(final int index, final String value) throws IOException {
+        final var type = m_types[index];
+        try {
+            if (type.equals(StringCell.TYPE)) {
+                return StringCell.StringCellFactory.create(value);
+            } else if (type.equals(LocalDateTimeCellFactory.TYPE)) {
+                return LocalDateTimeCellFactory.create(LocalDateTime.parse(value));
+            } else if (type.equals(LocalDateCellFactory.TYPE)) {
+                // dates are returned with a time of day, e.g. 2020-01-31T00:00:00
+                return LocalDateCellFactory.create(LocalDateTime.parse(value).toLocalDate());
+            }
+        } catch (DateTimeParseException e) { // NOSONAR the value is part of the message
+            throw unexpectedValue(index, value);
+        }
+        throw unexpectedValue(index, value);
+    }
+
+    private DataCell createCell(final int index, final long value) throws IOException {
+        final var type = m_types[index];
+        if (type.equals(LongCell.TYPE)) {
+            return LongCell.LongCellFactory.create(value);
+        }
+        return createCell(index, (double)value);
+    }
+
+    private DataCell createCell(final int index, final double value) throws IOException {
+        final var type = m_types[index];
+        if (type.equals(DoubleCell.TYPE)) {
+            return DoubleCell.DoubleCellFactory.create(value);
+        } else if (type.equals(LongCell.TYPE) && isLong(value)) {
+            // e.g. 1.0E10 in a column of integers
+            return LongCell.LongCellFactory.create((long)value);
+        } else if (type.equals(StringCell.TYPE)) {
+            return StringCell.StringCellFactory.create(Double.toString(value));
+        }
+        throw unexpectedValue(index, value);
+    }
+
+    private DataCell createCell(final int index, final boolean value) throws IOException {
+        final var type = m_types[index];
+        if (type.equals(BooleanCell.TYPE)) {
+            return BooleanCell.BooleanCellFactory.create(value);
+        } else if (type.equals(StringCell.TYPE)) {
+            return StringCell.StringCellFactory.create(Boolean.toString(value));
+        }
+        throw unexpectedValue(index, value);
+    }
+
+    private IOException unexpectedValue(final int index, final Object value) {
+        return new IOException("Unexpected value '" + value + "' in column '" + m_columnNames.get(index)
+            + "' of type " + m_types[index].getName() + ".");
+    }
+
+    /**
+     * The columns of a query result: the names as returned by Power BI and the KNIME types. Determined from the first
+     * rows of a result and used for further results with the same columns.
+     */
+    static final class Schema {
+
+        private final List<String> m_columnNames;
+
+        private final DataType[] m_types;
+
+        private final DataTableSpec m_spec;
+
+        /**
+         * @param columnNames the names of the columns as returned by Power BI (e.g. <code>table[column]</code>)
+         * @param types the types of the columns
+         */
+        Schema(final List<String> columnNames, final DataType[] types) {
+            m_columnNames = List.copyOf(columnNames);
+            m_types = types.clone();
+            final var names = new UniqueNameGenerator(Set.of());
+            final var columns = new DataColumnSpec[m_types.length];
+            for (var i = 0; i < columns.length; i++) {
+                columns[i] = new DataColumnSpecCreator(names.newName(parseColumnName(m_columnNames.get(i))),
+                    m_types[i]).createSpec();
+            }
+            m_spec = new DataTableSpec(columns);
+        }
+
+        /**
+         * @return the spec of the KNIME table
+         */
+        DataTableSpec getSpec() {
+            return m_spec;
+        }
+    }
+
+    private static String parseColumnName(final String columnName) {
+        // extract name from possible fully qualified name 'table[col]'
+        // or renamed column syntax '[col]'
+        final var indirectIdx = columnName.indexOf('[');
+        if (indirectIdx != -1 && columnName.length() - 1 > indirectIdx) {
+            return columnName.substring(indirectIdx + 1, columnName.length() - 1);
+        } else {
+            return columnName;
+        }
+    }
+}
@@ -0,0 +1,807 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.localdate.LocalDateCellFactory;
+import org.knime.core.data.time.localdate.LocalDateValue;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.core.data.time.localdatetime.LocalDateTimeValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.ext.powerbi.core.rest.ColumnarQueryResult;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+import org.knime.ext.powerbi.core.rest.bindings.RefreshHistory;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * A cache of query results on the local disk, shared by all Power BI Reader nodes of the application. A result is
+ * keyed on the principal that read it, the workspace, the semantic model, the end time of its most recent refresh,
+ * and the query text with normalized whitespace. Hence a refresh of the semantic model invalidates all its cached
+ * results, and results are not shared between users, whose row-level security may differ. Only results of semantic
+ * models whose tables are all imported are cached, since the data of other tables (e.g. DirectQuery) changes without
+ * a refresh. The storage modes are kept in memory per semantic model and only read again after a refresh.
+ * <p>
+ * Every result is stored in its own directory: the spec and the number of rows in a meta file and the values of every
+ * column in a compressed file of its own. The cache holds up to {@value #MAX_SIZE} bytes; when a result is added, the
+ * least recently used results are removed until the cache fits.
+ */
+final class ResultCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ResultCache.class);
+
+    /** The maximum size of all cached results in bytes (1 GB) */
+    static final long MAX_SIZE = 1L << 30;
+
+    private static final int MAGIC = 0x50424952; // PBIR
+
+    /** Version 2 stores the key and the column names as length-prefixed UTF-8 bytes */
+    private static final int VERSION = 2;
+
+    private static final String META_FILE = "result.meta";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** Unfinished results of crashed executions are removed after this time */
+    private static final Duration TEMP_MAX_AGE = Duration.ofHours(1);
+
+    private static final int PROGRESS_INTERVAL = 1_000;
+
+    private static final String STORAGE_MODE_QUERY = """
+        EVALUATE
+            SELECTCOLUMNS(INFO.VIEW.TABLES(), "StorageMode", [StorageMode])
+        """;
+
+    private static final byte STRING = 0;
+
+    private static final byte DOUBLE = 1;
+
+    private static final byte LONG = 2;
+
+    private static final byte BOOLEAN = 3;
+
+    private static final byte LOCAL_DATE = 4;
+
+    private static final byte LOCAL_DATE_TIME = 5;
+
+    /** Whether all tables are imported by workspace and semantic model, see {@link #isImported} */
+    private static final Map<String, StorageModes> STORAGE_MODES = new ConcurrentHashMap<>();
+
+    private static final ResultCache INSTANCE =
+        new ResultCache(Path.of(KNIMEConstants.getKNIMEHomeDir(), "powerbi-result-cache"));
+
+    private final Path m_directory;
+
+    private final long m_maxSize;
+
+    private ResultCache(final Path directory) {
+        this(directory, MAX_SIZE);
+    }
+
+    /**
+     * @param directory the directory of the cached results
+     * @param maxSize the maximum size of all cached results in bytes
+     */
+    ResultCache(final Path directory, final long maxSize) {
+        m_directory = directory;
+        m_maxSize = maxSize;
+    }
+
+    /**
+     * @return the cache of the application
+     */
+    static ResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Determines the end time of the most recent refresh of a semantic model, which is part of the cache keys.
+     *
+     * @param auth the authentication
+     * @param workspace the workspace id, <code>null</code> for "My Workspace"
+     * @param dataset the semantic model id
+     * @param exec the execution context
+     * @return the end time, empty if a refresh is running or the semantic model has never been refreshed
+     * @throws PowerBIResponseException if the refresh history cannot be read
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    static Optional<String> getLastRefreshTime(final AuthTokenProvider auth, final String workspace,
+        final String dataset, final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
+        final var history = PowerBIRestAPIUtils.getDatasetRefreshHistory(auth, workspace, dataset, 1, exec);
+        return Stream.of(history.getValue()).findFirst() //
+            .filter(refresh -> !"Unknown".equalsIgnoreCase(refresh.getStatus())) //
+            .map(RefreshHistory.Entry::getEndTime);
+    }
+
+    /**
+     * Determines whether all tables of a semantic model are imported. The data of DirectQuery, Dual, and Direct Lake
+     * tables and of push semantic models changes without a refresh, hence their results must not be cached. The
+     * storage modes are only read again if the semantic model was refreshed since they were read last.
+     *
+     * @param auth the authentication
+     * @param workspace the workspace id, <code>null</code> for "My Workspace"
+     * @param dataset the semantic model id
+     * @param refreshTime the end time of the most recent refresh, see
+     *            {@link #getLastRefreshTime(AuthTokenProvider, String, String, ExecutionContext)}
+     * @param exec the execution context
+     * @return whether all tables are imported, <code>false</code> if the storage modes cannot be read
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    static boolean isImported(final AuthTokenProvider auth, final String workspace, final String dataset,
+        final String refreshTime, final ExecutionContext exec) throws CanceledExecutionException {
+        final var key = workspace + "\n" + dataset;
+        final var known = STORAGE_MODES.get(key);
+        if (known != null && known.refreshTime().equals(refreshTime)) {
+            return known.imported();
+        }
+        final var imported = readImported(auth, workspace, dataset, exec);
+        imported.ifPresent(value -> STORAGE_MODES.put(key, new StorageModes(refreshTime, value)));
+        return imported.orElse(false);
+    }
+
+    /** Reads the storage modes of all tables, empty if they cannot be read */
+    private static Optional<Boolean> readImported(final AuthTokenProvider auth, final String workspace,
+        final String dataset, final ExecutionContext exec) throws CanceledExecutionException {
+        final var tables = new ColumnarQueryResult();
+        try {
+            PowerBIRestAPIUtils.executeDAXQuery(auth, workspace, dataset, STORAGE_MODE_QUERY, tables, exec);
+        } catch (PowerBIResponseException | IOException e) { // NOSONAR the results are not cached
+            LOGGER.debug("Could not read the storage modes of the semantic model: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+        final var modes = tables.getColumn("[StorageMode]");
+        if (tables.hasError() || modes == null || tables.getRowCount() == 0) {
+            return Optional.empty();
+        }
+        for (var row = 0; row < tables.getRowCount(); row++) {
+            if (!"import".equalsIgnoreCase(modes.getString(row))) {
+                return Optional.of(false);
+            }
+        }
+        return Optional.of(true);
+    }
+
+    /**
+     * Determines the principal the results are read for, which is part of the cache keys. The principal is the tenant
+     * and object id of the user or service principal in the claims of the access token. If the token has no such
+     * claims, the token itself identifies the principal and the results are only reused while it is valid.
+     *
+     * @param auth the authentication
+     * @return a hash of the principal, so that it is not stored on the disk
+     * @throws IOException if no access token is available
+     */
+    static String principal(final AuthTokenProvider auth) throws IOException {
+        final var token = auth.getToken();
+        var principal = token;
+        final var parts = token.split("\\.");
+        if (parts.length == 3) {
+            try {
+                final var claims = JsonParser
+                    .parseString(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8))
+                    .getAsJsonObject();
+                if (claims.has("tid") && claims.has("oid")) {
+                    principal = claims.get("tid").getAsString() + "/" + claims.get("oid").getAsString();
+                }
+            } catch (IllegalArgumentException | IllegalStateException | JsonParseException e) { // NOSONAR not a JWT
+                LOGGER.debug("Could not read the claims of the access token: " + e.getMessage(), e);
+            }
+        }
+        return sha256(principal.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param principal the principal, see {@link #principal(AuthTokenProvider)}
+     * @param workspace the workspace id, <code>null</code> for "My Workspace"
+     * @param dataset the semantic model id
+     * @param refreshTime the end time of the most recent refresh, see
+     *            {@link #getLastRefreshTime(AuthTokenProvider, String, String, ExecutionContext)}
+     * @param modelTypes whether the column types are taken from the semantic model
+     * @param query the query text
+     * @return the key of the result
+     */
+    static String key(final String principal, final String workspace, final String dataset,
+        final String refreshTime, final boolean modelTypes, final String query) {
+        return principal + "\n" + workspace + "\n" + dataset + "\n" + refreshTime + "\n" + modelTypes + "\n"
+            + normalize(query);
+    }
+
+    /** Collapses whitespace outside of string literals and removes a trailing semicolon */
+    private static String normalize(final String query) {
+        final var normalized = new StringBuilder(query.length());
+        var inString = false;
+        var pendingSpace = false;
+        for (var i = 0; i < query.length(); i++) {
+            final var c = query.charAt(i);
+            if (!inString && Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            // an escaped quote ("") ends and restarts the literal
+            if (c == '"') {
+                inString = !inString;
+            }
+            normalized.append(c);
+        }
+        if (!inString && normalized.length() > 0 && normalized.charAt(normalized.length() - 1) == ';') {
+            normalized.setLength(normalized.length() - 1);
+        }
+        return normalized.toString().strip();
+    }
+
+    /**
+     * Reads a cached result into a table.
+     *
+     * @param key the key of the result
+     * @param exec the execution context to create the table with
+     * @return the table, empty if the result is not cached or cannot be read
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    Optional<BufferedDataTable> get(final String key, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final var spec = getSpec(key);
+        if (spec.isEmpty()) {
+            return Optional.empty();
+        }
+        final var output = new BufferedDataTableRowOutput(exec.createDataContainer(spec.get()));
+        try {
+            if (read(key, spec.get(), output, exec)) {
+                output.close();
+                return Optional.of(output.getDataTable());
+            }
+        } catch (IOException e) { // NOSONAR the query is executed instead
+            LOGGER.debug("Could not read cached result: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException();
+        }
+        output.close();
+        return Optional.empty();
+    }
+
+    /**
+     * @param key the key of the result
+     * @return the spec of the cached result, empty if the result is not cached
+     */
+    Optional<DataTableSpec> getSpec(final String key) {
+        try {
+            return Optional.ofNullable(openMeta(entry(key), key)).map(Meta::spec);
+        } catch (IOException e) { // NOSONAR treated as not cached
+            LOGGER.debug("Could not read cached result: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Pushes the rows of a cached result to an output. The output is not closed.
+     *
+     * @param key the key of the result
+     * @param spec the expected spec of the result
+     * @param output the output
+     * @param exec the execution context
+     * @return <code>false</code> if the result is not cached with the given spec or cannot be read, no rows were
+     *         pushed then
+     * @throws IOException if the cached result cannot be read after rows were pushed
+     * @throws InterruptedException if pushing a row was interrupted
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    boolean read(final String key, final DataTableSpec spec, final RowOutput output, final ExecutionContext exec)
+        throws IOException, InterruptedException, CanceledExecutionException {
+        final var entry = entry(key);
+        final var meta = openMeta(entry, key);
+        if (meta == null || !meta.spec().equals(spec)) {
+            return false;
+        }
+        final var columns = new DataInputStream[meta.types().length];
+        long row = 0;
+        try {
+            for (var i = 0; i < columns.length; i++) {
+                columns[i] = new DataInputStream(
+                    new BufferedInputStream(new GZIPInputStream(Files.newInputStream(columnFile(entry, i)))));
+            }
+            // the most recently used results are kept when the cache is full
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            final var cells = new DataCell[columns.length];
+            for (; row < meta.rowCount(); row++) {
+                for (var i = 0; i < cells.length; i++) {
+                    cells[i] = readCell(columns[i], meta.types()[i]);
+                }
+                output.push(new DefaultRow(RowKey.createRowKey(row), cells));
+                if ((row + 1) % PROGRESS_INTERVAL == 0) {
+                    exec.checkCanceled();
+                }
+            }
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(entry.toFile());
+            if (row == 0) {
+                LOGGER.debug("Could not read cached result: " + e.getMessage(), e);
+                return false;
+            }
+            throw new IOException("The cached result is damaged and was removed. Execute the node again.", e);
+        } finally {
+            for (final var column : columns) {
+                if (column != null) {
+                    column.close();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a writer that adds a result to the cache.
+     *
+     * @param spec the spec of the result
+     * @return the writer, empty if a column type cannot be cached or the writer cannot be created
+     */
+    Optional<Writer> write(final DataTableSpec spec) {
+        final var types = new byte[spec.getNumColumns()];
+        for (var i = 0; i < types.length; i++) {
+            final var type = typeCode(spec.getColumnSpec(i).getType());
+            if (type < 0) {
+                return Optional.empty();
+            }
+            types[i] = type;
+        }
+        try {
+            return Optional.of(new Writer(spec, types));
+        } catch (IOException e) { // NOSONAR the result is not cached
+            LOGGER.debug("Could not create cache entry: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Adds a table to the cache. Failures are logged, the result is not cached then.
+     *
+     * @param key the key of the result
+     * @param table the table
+     * @param exec the execution context
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void put(final String key, final BufferedDataTable table, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final var writer = write(table.getDataTableSpec());
+        if (writer.isEmpty()) {
+            return;
+        }
+        try (final var w = writer.get(); final var rows = table.iterator()) {
+            long row = 0;
+            while (rows.hasNext()) {
+                w.add(rows.next());
+                if (++row % PROGRESS_INTERVAL == 0) {
+                    exec.checkCanceled();
+                }
+            }
+            w.commit(key);
+        } catch (IOException e) { // NOSONAR the result is not cached
+            LOGGER.debug("Could not cache result: " + e.getMessage(), e);
+        }
+    }
+
+    private Path entry(final String key) {
+        return m_directory.resolve(sha256(key));
+    }
+
+    private static String sha256(final String text) {
+        try {
+            final var hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path columnFile(final Path entry, final int column) {
+        return entry.resolve("column-" + column + ".gz");
+    }
+
+    /** Opens the meta file, <code>null</code> if the entry does not exist or belongs to another key */
+    private static Meta openMeta(final Path entry, final String key) throws IOException {
+        final var file = entry.resolve(META_FILE);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !readString(in).equals(key)) {
+                return null;
+            }
+            final var rowCount = in.readLong();
+            final var columns = new DataColumnSpec[in.readInt()];
+            final var types = new byte[columns.length];
+            for (var i = 0; i < columns.length; i++) {
+                final var name = readString(in);
+                types[i] = in.readByte();
+                columns[i] = new DataColumnSpecCreator(name, dataType(types[i])).createSpec();
+            }
+            return new Meta(new DataTableSpec(columns), types, rowCount);
+        }
+    }
+
+    /**
+     * Writes a string of any length, unlike {@link DataOutputStream#writeUTF(String)} which is limited to 64 KB (the
+     * key contains the query).
+     */
+    private static void writeString(final DataOutputStream out, final String text) throws IOException {
+        final var bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final var length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length + " in meta file.");
+        }
+        final var bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new IOException("Unexpected end of meta file.");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte typeCode(final DataType type) {
+        if (type.equals(StringCell.TYPE)) {
+            return STRING;
+        } else if (type.equals(DoubleCell.TYPE)) {
+            return DOUBLE;
+        } else if (type.equals(LongCell.TYPE)) {
+            return LONG;
+        } else if (type.equals(BooleanCell.TYPE)) {
+            return BOOLEAN;
+        } else if (type.equals(LocalDateCellFactory.TYPE)) {
+            return LOCAL_DATE;
+        } else if (type.equals(LocalDateTimeCellFactory.TYPE)) {
+            return LOCAL_DATE_TIME;
+        }
+        return -1;
+    }
+
+    private static DataType dataType(final byte type) throws IOException {
+        return switch (type) {
+            case STRING -> StringCell.TYPE;
+            case DOUBLE -> DoubleCell.TYPE;
+            case LONG -> LongCell.TYPE;
+            case BOOLEAN -> BooleanCell.TYPE;
+            case LOCAL_DATE -> LocalDateCellFactory.TYPE;
+            case LOCAL_DATE_TIME -> LocalDateTimeCellFactory.TYPE;
+            default -> throw new IOException("Unknown column type " + type + " in cached result.");
+        };
+    }
+
+    private static DataCell readCell(final DataInputStream in, final byte type) throws IOException {
+        if (!in.readBoolean()) {
+            return DataType.getMissingCell();
+        }
+        return switch (type) {
+            case STRING -> {
+                final var bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield StringCell.StringCellFactory.create(new String(bytes, StandardCharsets.UTF_8));
+            }
+            case DOUBLE -> DoubleCell.DoubleCellFactory.create(in.readDouble());
+            case LONG -> LongCell.LongCellFactory.create(in.readLong());
+            case BOOLEAN -> BooleanCell.BooleanCellFactory.create(in.readBoolean());
+            case LOCAL_DATE -> LocalDateCellFactory.create(LocalDate.ofEpochDay(in.readLong()));
+            case LOCAL_DATE_TIME -> LocalDateTimeCellFactory.create(
+                LocalDateTime.of(LocalDate.ofEpochDay(in.readLong()), LocalTime.ofNanoOfDay(in.readLong())));
+            default -> throw new IOException("Unknown column type " + type + " in cached result.");
+        };
+    }
+
+    private static void writeCell(final DataOutputStream out, final byte type, final DataCell cell)
+        throws IOException {
+        out.writeBoolean(!cell.isMissing());
+        if (cell.isMissing()) {
+            return;
+        }
+        switch (type) {
+            case STRING -> {
+                final var bytes = ((StringValue)cell).getStringValue().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case DOUBLE -> out.writeDouble(((DoubleValue)cell).getDoubleValue());
+            case LONG -> out.writeLong(((LongValue)cell).getLongValue());
+            case BOOLEAN -> out.writeBoolean(((BooleanValue)cell).getBooleanValue());
+            case LOCAL_DATE -> out.writeLong(((LocalDateValue)cell).getLocalDate().toEpochDay());
+            case LOCAL_DATE_TIME -> {
+                final var value = ((LocalDateTimeValue)cell).getLocalDateTime();
+                out.writeLong(value.toLocalDate().toEpochDay());
+                out.writeLong(value.toLocalTime().toNanoOfDay());
+            }
+            default -> throw new IOException("Unknown column type " + type + ".");
+        }
+    }
+
+    /** Removes the least recently used results until the cache fits into its maximum size */
+    private synchronized void evict() {
+        final var now = Instant.now();
+        final List<EntryInfo> entries = new ArrayList<>();
+        try (final var files = Files.list(m_directory)) {
+            files.forEach(entry -> {
+                try {
+                    final var modified = Files.getLastModifiedTime(entry).toInstant();
+                    if (entry.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        if (Duration.between(modified, now).compareTo(TEMP_MAX_AGE) > 0) {
+                            FileUtils.deleteQuietly(entry.toFile());
+                        }
+                        return;
+                    }
+                    entries.add(new EntryInfo(entry, modified, FileUtils.sizeOfDirectory(entry.toFile())));
+                } catch (IOException | UncheckedIOException | IllegalArgumentException e) { // NOSONAR
+                    // e.g. removed concurrently
+                    LOGGER.debug("Could not inspect cached result: " + e.getMessage(), e);
+                }
+            });
+        } catch (IOException e) { // NOSONAR the cache is cleaned up when the next result is added
+            LOGGER.debug("Could not list cached results: " + e.getMessage(), e);
+            return;
+        }
+        var size = entries.stream().mapToLong(EntryInfo::size).sum();
+        entries.sort(Comparator.comparing(EntryInfo::lastUsed));
+        for (var i = 0; i < entries.size() && size > m_maxSize; i++) {
+            FileUtils.deleteQuietly(entries.get(i).path().toFile());
+            size -= entries.get(i).size();
+        }
+    }
+
+    private record Meta(DataTableSpec spec, byte[] types, long rowCount) {
+    }
+
+    private record EntryInfo(Path path, Instant lastUsed, long size) {
+    }
+
+    private record StorageModes(String refreshTime, boolean imported) {
+    }
+
+    /**
+     * Writes a result to a temporary directory, which becomes the cache entry when the writer is committed. A writer
+     * that is closed without commit is discarded.
+     */
+    final class Writer implements AutoCloseable {
+
+        private final DataTableSpec m_spec;
+
+        private final byte[] m_types;
+
+        private final Path m_temp;
+
+        private final DataOutputStream[] m_columns;
+
+        private long m_rowCount;
+
+        private boolean m_closed;
+
+        private Writer(final DataTableSpec spec, final byte[] types) throws IOException {
+            m_spec = spec;
+            m_types = types;
+            Files.createDirectories(m_directory);
+            m_temp = m_directory.resolve(UUID.randomUUID() + TEMP_SUFFIX);
+            Files.createDirectory(m_temp);
+            m_columns = new DataOutputStream[types.length];
+            try {
+                for (var i = 0; i < m_columns.length; i++) {
+                    m_columns[i] = new DataOutputStream(
+                        new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(columnFile(m_temp, i)))));
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * @param row the next row of the result
+         * @throws IOException if the row cannot be written
+         */
+        void add(final DataRow row) throws IOException {
+            for (var i = 0; i < m_columns.length; i++) {
+                writeCell(m_columns[i], m_types[i], row.getCell(i));
+            }
+            m_rowCount++;
+        }
+
+        /**
+         * @param output the output the rows are pushed to
+         * @return an output that pushes the rows to the given output and adds them to this writer; if a row cannot be
+         *         added, the writer is discarded and the rows are only pushed to the given output
+         */
+        RowOutput tee(final RowOutput output) {
+            return new RowOutput() {
+
+                @Override
+                public void push(final DataRow row) throws InterruptedException {
+                    output.push(row);
+                    if (!m_closed) {
+                        try {
+                            add(row);
+                        } catch (IOException e) { // NOSONAR the result is not cached
+                            LOGGER.debug("Could not cache result: " + e.getMessage(), e);
+                            Writer.this.close();
+                        }
+                    }
+                }
+
+                @Override
+                public void close() throws InterruptedException {
+                    output.close();
+                }
+            };
+        }
+
+        /**
+         * Adds the written result to the cache, replacing a result with the same key.
+         *
+         * @param key the key of the result
+         * @throws IOException if the result cannot be added
+         */
+        void commit(final String key) throws IOException {
+            if (m_closed) {
+                throw new IOException("The result was discarded.");
+            }
+            closeColumns();
+            try (final var out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(m_temp.resolve(META_FILE))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, key);
+                out.writeLong(m_rowCount);
+                out.writeInt(m_types.length);
+                for (var i = 0; i < m_types.length; i++) {
+                    writeString(out, m_spec.getColumnSpec(i).getName());
+                    out.writeByte(m_types[i]);
+                }
+            }
+            final var entry = entry(key);
+            FileUtils.deleteQuietly(entry.toFile());
+            try {
+                Files.move(m_temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) { // NOSONAR
+                // another execution added the same result in the meantime
+                LOGGER.debug("Result already cached: " + e.getMessage(), e);
+            }
+            m_closed = true;
+            FileUtils.deleteQuietly(m_temp.toFile());
+            evict();
+        }
+
+        private void closeColumns() throws IOException {
+            IOException failure = null;
+            for (final var column : m_columns) {
+                try {
+                    if (column != null) {
+                        column.close();
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (m_closed) {
+                return;
+            }
+            m_closed = true;
+            try {
+                closeColumns();
+            } catch (IOException e) { // NOSONAR the files are deleted anyway
+                LOGGER.debug("Could not close cache entry: " + e.getMessage(), e);
+            }
+            FileUtils.deleteQuietly(m_temp.toFile());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.read;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.localdate.LocalDateCellFactory;
+import org.knime.core.data.time.localdatetime.LocalDateTimeCellFactory;
+import org.knime.core.node.NodeLogger;
+import org.knime.ext.powerbi.base.nodes.read.PowerBIReaderNodeSettings.ExtractionMode;
+import org.knime.ext.powerbi.base.nodes.read.QueryResultTableWriter.Schema;
+import org.knime.ext.powerbi.core.rest.ColumnarQueryResult;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+
+/**
+ * Determines the schemas of the query results before the queries are executed, which is needed for the output
+ * specs during configure (if enabled in the settings) and for a streamed execution. The columns of a schema are
+ * determined from the first {@value #SAMPLE_ROWS} rows of a sample query: the table expression of a paged extraction
+ * or of a query that consists of a single <code>EVALUATE</code> statement, limited with <code>TOPN</code>. The
+ * schemas of other queries are unknown. Resolved schemas are cached per workspace, semantic model, and query until
+ * {@link #clear()}.
+ * <p>
+ * The types of the columns and measures of the semantic model are read from its metadata with
+ * <code>INFO.VIEW.COLUMNS</code> and <code>INFO.VIEW.MEASURES</code>, or from the table definitions of a push semantic
+ * model, and are cached per workspace and semantic model. Only the types of result columns that are not part of the
+ * metadata (e.g. computed with <code>ADDCOLUMNS</code>) are guessed from the values, or of all columns if the types
+ * are not taken from the semantic model (the behavior of nodes created before).
+ */
+final class ResultSchemaResolver {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ResultSchemaResolver.class);
+
+    /** Matches a query with a single EVALUATE statement, group 1 is the table expression */
+    private static final Pattern SINGLE_EVALUATE =
+        Pattern.compile("^\\s*EVALUATE\\b(.*?)(?:\\bORDER\\s+BY\\b.*)?$", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /** The rows of a sample query, the types of columns without metadata are guessed from them */
+    static final int SAMPLE_ROWS = 10;
+
+    private static final Pattern EVALUATE = Pattern.compile("\\bEVALUATE\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final String METADATA_QUERY = """
+        EVALUATE
+            UNION(
+                SELECTCOLUMNS(INFO.VIEW.COLUMNS(), "Table", [Table], "Name", [Name], "DataType", [DataType]),
+                SELECTCOLUMNS(INFO.VIEW.MEASURES(), "Table", BLANK(), "Name", [Name], "DataType", [DataType]))
+        """;
+
+    private Map<String, Schema> m_cache = new HashMap<>();
+
+    private String m_columnTypesKey;
+
+    private Map<String, DataType> m_columnTypes;
+
+    /**
+     * Resolves the schemas of all outputs. Only the schemas of the given settings are kept in the cache.
+     *
+     * @param auth the authentication to run the sample queries with, <code>null</code> if only cached schemas are
+     *            returned
+     * @param settings the settings
+     * @return the schema per output (the main output first, followed by the additional queries), <code>null</code> if
+     *         the schema of an output is unknown
+     */
+    synchronized Schema[] resolve(final AuthTokenProvider auth, final PowerBIReaderNodeSettings settings) {
+        final var workspace = StringUtils.defaultIfBlank(settings.m_workspaceId, null);
+        final var queries = new String[1 + settings.m_additionalQueries.length];
+        queries[0] = settings.m_extractionMode == ExtractionMode.PAGED //
+            ? tableExpressionSample(settings.m_tableExpression) //
+            : querySample(settings.m_daxQuery).orElse(null);
+        for (var i = 1; i < queries.length; i++) {
+            queries[i] = querySample(settings.m_additionalQueries[i - 1].m_daxQuery).orElse(null);
+        }
+
+        final Map<String, Schema> cache = new HashMap<>();
+        final var schemas = new Schema[queries.length];
+        for (var i = 0; i < queries.length; i++) {
+            if (queries[i] == null) {
+                continue;
+            }
+            final var key =
+                workspace + "\n" + settings.m_dataset + "\n" + settings.m_useModelTypes + "\n" + queries[i];
+            schemas[i] = m_cache.get(key);
+            if (schemas[i] == null && auth != null) {
+                schemas[i] = sample(auth, workspace, settings.m_dataset, queries[i], getColumnTypes(auth, settings));
+            }
+            if (schemas[i] != null) {
+                cache.put(key, schemas[i]);
+            }
+        }
+        m_cache = cache;
+        return schemas;
+    }
+
+    /**
+     * Removes all cached schemas and column types, e.g. since the semantic model may have changed.
+     */
+    synchronized void clear() {
+        m_cache = new HashMap<>();
+        m_columnTypesKey = null;
+        m_columnTypes = null;
+    }
+
+    /**
+     * Returns the types of the columns and measures of the semantic model. Only the types of the semantic model of
+     * the given settings are kept in the cache.
+     *
+     * @param auth the authentication to read the metadata with
+     * @param settings the settings
+     * @return the KNIME types by the column names returned by Power BI, i.e. <code>table[column]</code> for columns
+     *         and <code>[measure]</code> for measures, compared ignoring case; empty if the metadata cannot be read
+     *         or the types are not taken from the semantic model
+     */
+    synchronized Map<String, DataType> getColumnTypes(final AuthTokenProvider auth,
+        final PowerBIReaderNodeSettings settings) {
+        if (!settings.m_useModelTypes) {
+            return Map.of();
+        }
+        final var workspace = StringUtils.defaultIfBlank(settings.m_workspaceId, null);
+        final var key = workspace + "\n" + settings.m_dataset;
+        if (!key.equals(m_columnTypesKey)) {
+            m_columnTypes = Collections.unmodifiableMap(readColumnTypes(auth, workspace, settings.m_dataset));
+            m_columnTypesKey = key;
+        }
+        return m_columnTypes;
+    }
+
+    private static Map<String, DataType> readColumnTypes(final AuthTokenProvider auth, final String workspace,
+        final String dataset) {
+        final Map<String, DataType> types = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        try {
+            final var metadata = new ColumnarQueryResult();
+            PowerBIRestAPIUtils.executeDAXQuery(auth, workspace, dataset, METADATA_QUERY, metadata, null);
+            final var tables = metadata.getColumn("[Table]");
+            final var names = metadata.getColumn("[Name]");
+            final var dataTypes = metadata.getColumn("[DataType]");
+            if (!metadata.hasError() && names != null && dataTypes != null) {
+                for (var row = 0; row < metadata.getRowCount(); row++) {
+                    final var table = tables == null ? null : tables.getString(row);
+                    final var type = knimeType(dataTypes.getString(row));
+                    if (!names.isMissing(row) && type != null) {
+                        types.put(StringUtils.defaultString(table) + "[" + names.getString(row) + "]", type);
+                    }
+                }
+                return types;
+            }
+        } catch (final Exception e) { // NOSONAR the types are guessed from the values instead
+            LOGGER.debug("Could not read the metadata of the semantic model: " + e.getMessage(), e);
+        }
+        try {
+            // only available for push semantic models, which do not support the INFO functions
+            for (final var table : PowerBIRestAPIUtils.getTables(auth, workspace, dataset, null).getValue()) {
+                for (final var column : table.getColumns()) {
+                    final var type = knimeType(column.getDataType());
+                    if (type != null) {
+                        types.put(table.getName() + "[" + column.getName() + "]", type);
+                    }
+                }
+            }
+        } catch (final Exception e) { // NOSONAR the types are guessed from the values instead
+            LOGGER.debug("Could not read the tables of the semantic model: " + e.getMessage(), e);
+        }
+        return types;
+    }
+
+    /** The KNIME type for a data type of the semantic model, <code>null</code> if the type has to be guessed */
+    private static DataType knimeType(final String dataType) {
+        if (dataType == null) {
+            return null;
+        }
+        return switch (StringUtils.deleteWhitespace(dataType).toLowerCase(Locale.ROOT)) {
+            case "int64", "integer", "wholenumber" -> LongCell.TYPE;
+            case "double", "decimal", "decimalnumber", "fixeddecimalnumber", "currency" -> DoubleCell.TYPE;
+            case "boolean", "true/false" -> BooleanCell.TYPE;
+            case "date" -> LocalDateCellFactory.TYPE;
+            case "datetime", "date/time", "time" -> LocalDateTimeCellFactory.TYPE;
+            case "string", "text" -> StringCell.TYPE;
+            default -> null;
+        };
+    }
+
+    private static Schema sample(final AuthTokenProvider auth, final String workspace, final String dataset,
+        final String query, final Map<String, DataType> columnTypes) {
+        final var writer = new QueryResultTableWriter(null, columnTypes);
+        try {
+            PowerBIRestAPIUtils.executeDAXQuery(auth, workspace, dataset, query, writer, null);
+        } catch (final Exception e) { // NOSONAR the schema is determined during execution instead
+            LOGGER.debug("Could not determine the columns of the query result: " + e.getMessage(), e);
+            return null;
+        } finally {
+            writer.close();
+        }
+        // an empty sample does not reveal any columns
+        final var schema = writer.getSchema();
+        return schema == null || schema.getSpec().getNumColumns() == 0 ? null : schema;
+    }
+
+    private static String tableExpressionSample(final String tableExpression) {
+        return topN(StringUtils.removeEnd(StringUtils.strip(tableExpression), ";"));
+    }
+
+    /** The sample of a query with a single EVALUATE statement without DEFINE block */
+    private static Optional<String> querySample(final String query) {
+        final var matcher = SINGLE_EVALUATE.matcher(StringUtils.defaultString(query));
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        final var expression = StringUtils.removeEnd(matcher.group(1).strip(), ";").strip();
+        if (expression.isEmpty() || EVALUATE.matcher(expression).find()) {
+            return Optional.empty();
+        }
+        return Optional.of(topN(expression));
+    }
+
+    private static String topN(final String tableExpression) {
+        return "EVALUATE\n    TOPN(" + SAMPLE_ROWS + ", " + tableExpression + ")";
+    }
+}
@@ -52,6 +52,7 @@
 import java.util.Optional;
 
 import org.apache.xmlbeans.XmlException;
+import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ConfigurableNodeFactory;
 import org.knime.core.node.NodeDescription;
 import org.knime.core.node.NodeDialogPane;
@@ -80,7 +81,13 @@
     private static final String FULL_DESCRIPTION = """
             <p>
                 Refresh a Power BI Semantic Model to ensure that its data
-                is up to date. The refresh is always executed as a transaction.
+                is up to date. By default the refresh is executed as a transaction.
+            </p>
+            <p>
+                The advanced refresh settings control how Power BI processes the refresh: the commit mode, the
+                maximum number of threads processing the tables and partitions in parallel, the number of retries,
+                and whether incremental refresh policies are applied. Long lists of tables and partitions can be split
+                into several refreshes of the semantic model which run one after another.
             </p>
             <p>
                 The refreshing capabilities may be <a
@@ -90,10 +97,32 @@
             <p>
                 Canceling this node will also cancel the refresh.
             </p>
+            <p>
+                With the optional semantic models input port, the node refreshes every semantic model listed in the
+                table instead of the configured one. Each row contains a workspace and semantic model ID and
+                optionally a table and partition; the rows of the same semantic model are refreshed together. Up to
+                the configured number of refreshes run at the same time and the others are requested as soon as
+                running refreshes finish. Every refresh has its own timeout. Refreshes that fail or time out do not
+                fail the node but are reported in a warning and in the optional refresh results output table, which
+                contains the status, start, end and duration of each refresh.
+            </p>
+            <p>
+                The optional refresh telemetry output table contains one row per refreshed table or partition with
+                the status reported by Power BI, the start, end and duration of its refresh, the typical duration of
+                the recent refreshes of the semantic model, the number of attempts, and the number of status checks.
+                Power BI reports times only for a whole refresh, so all tables and partitions of a refresh have the
+                same times. A final summary row contains the total wall time and the total number of status checks.
+            </p>
             """;
 
     private static final String INPUT_PORT_GROUP = "Credential";
 
+    static final String MODELS_PORT_GROUP = "Semantic Models";
+
+    static final String RESULTS_PORT_GROUP = "Refresh Results";
+
+    static final String TELEMETRY_PORT_GROUP = "Refresh Telemetry";
+
     private static final WebUINodeConfiguration CONFIG = WebUINodeConfiguration.builder()//
         .name("Power BI Model Refresher")//
         .icon("./power_bi_refresher.png") //
@@ -103,6 +132,12 @@
         .nodeType(NodeType.Sink)//
         .addInputPort(INPUT_PORT_GROUP, CredentialPortObject.TYPE,
             "Microsoft/Azure credential (access token)", false)//
+        .addInputPort(MODELS_PORT_GROUP, BufferedDataTable.TYPE,
+            "Semantic models to refresh, one row per semantic model, table, or partition", true)//
+        .addOutputPort(RESULTS_PORT_GROUP, BufferedDataTable.TYPE,
+            "The status, start, end, and duration of the refresh of each semantic model", true)//
+        .addOutputPort(TELEMETRY_PORT_GROUP, BufferedDataTable.TYPE,
+            "The timing of the refresh of each table and partition and a summary row", true)//
         .keywords("Microsoft", "Power BI", "Semantic Model", "Dataset")
         .sinceVersion(5, 5, 0).build();
 
@@ -126,6 +161,9 @@ protected NodeDialogPane createNodeDialogPane(final NodeCreationConfiguration cr
     protected Optional<PortsConfigurationBuilder> createPortsConfigBuilder() {
         final var b = new PortsConfigurationBuilder();
         b.addFixedInputPortGroup(INPUT_PORT_GROUP, CredentialPortObject.TYPE);
+        b.addOptionalInputPortGroup(MODELS_PORT_GROUP, BufferedDataTable.TYPE);
+        b.addOptionalOutputPortGroup(RESULTS_PORT_GROUP, BufferedDataTable.TYPE);
+        b.addOptionalOutputPortGroup(TELEMETRY_PORT_GROUP, BufferedDataTable.TYPE);
         return Optional.of(b);
     }
 
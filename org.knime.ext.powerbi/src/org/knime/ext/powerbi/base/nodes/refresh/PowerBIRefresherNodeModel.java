@@ -49,24 +49,30 @@
 package org.knime.ext.powerbi.base.nodes.refresh;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 
 import org.apache.commons.lang3.StringUtils;
-import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.StringValue;
+import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
-import org.knime.core.node.NodeLogger;
 import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.webui.node.impl.WebUINodeModel;
 import org.knime.credentials.base.CredentialPortObjectSpec;
-import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.base.nodes.refresh.RefreshOrchestrator.Result;
+import org.knime.ext.powerbi.base.nodes.refresh.RefreshOrchestrator.Target;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
-import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
-import org.knime.ext.powerbi.core.rest.bindings.Refresh;
 import org.knime.ext.powerbi.core.rest.bindings.Refresh.ObjectRefreshDefinition;
 import org.knime.ext.powerbi.util.PowerBICredentialUtil;
 
@@ -78,55 +84,96 @@
 @SuppressWarnings("restriction") // New Node UI is not yet API
 final class PowerBIRefresherNodeModel extends WebUINodeModel<PowerBIRefresherNodeSettings> {
 
-    private static final NodeLogger LOGGER = NodeLogger.getLogger(PowerBIRefresherNodeModel.class);
-
     static final long MAX_TIMEOUT_MINUTES = 24L * 60L;
 
+    static final int MAX_CONCURRENT_REFRESHES = 32;
+
+    /** The index of the semantic models input port, -1 if not added */
+    private final int m_modelsPort;
+
+    /** The index of the refresh results output port, -1 if not added */
+    private final int m_resultsPort;
+
+    /** The index of the refresh telemetry output port, -1 if not added */
+    private final int m_telemetryPort;
+
     public PowerBIRefresherNodeModel(final PortsConfiguration portsConfig,
         final Class<PowerBIRefresherNodeSettings> settings) {
         super(portsConfig.getInputPorts(), portsConfig.getOutputPorts(), settings);
+        m_modelsPort = portIndex(portsConfig.getInputPortLocation().get(PowerBIRefresherNodeFactory.MODELS_PORT_GROUP));
+        m_resultsPort =
+            portIndex(portsConfig.getOutputPortLocation().get(PowerBIRefresherNodeFactory.RESULTS_PORT_GROUP));
+        m_telemetryPort =
+            portIndex(portsConfig.getOutputPortLocation().get(PowerBIRefresherNodeFactory.TELEMETRY_PORT_GROUP));
+    }
+
+    private static int portIndex(final int[] location) {
+        return location == null || location.length == 0 ? -1 : location[0];
     }
 
     @Override
     protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs,
         final PowerBIRefresherNodeSettings modelSettings) throws InvalidSettingsException {
-        modelSettings.validate(inSpecs[0]);
-        return new PortObjectSpec[0];
+        modelSettings.validate(inSpecs[0], m_modelsPort < 0 ? null : (DataTableSpec)inSpecs[m_modelsPort]);
+        final var specs = new PortObjectSpec[getNrOutPorts()];
+        if (m_resultsPort >= 0) {
+            specs[m_resultsPort] = RefreshOrchestrator.SPEC;
+        }
+        if (m_telemetryPort >= 0) {
+            specs[m_telemetryPort] = RefreshTelemetry.SPEC;
+        }
+        return specs;
     }
 
     @Override
     protected PortObject[] execute(final PortObject[] inObjects, final ExecutionContext exec,
         final PowerBIRefresherNodeSettings settings) throws Exception {
-        settings.validate(inObjects[0].getSpec());
+        final var models = m_modelsPort < 0 ? null : (BufferedDataTable)inObjects[m_modelsPort];
+        settings.validate(inObjects[0].getSpec(), models == null ? null : models.getDataTableSpec());
 
         final var cred = (CredentialPortObjectSpec)inObjects[0].getSpec();
         final AuthTokenProvider auth = PowerBICredentialUtil.toAccessTokenAccessor(cred)::getAccessToken;
 
-        exec.setMessage("Requesting refresh");
-        final var workspace = Optional.of(settings.m_workspaceId).filter(Predicate.not(String::isBlank)).orElse(null);
-        final var refresh = createRefresh(settings);
-        final var refreshId =
-            PowerBIRestAPIUtils.refreshDataset(auth, workspace, settings.m_dataset, refresh, exec);
+        final List<Target> targets;
+        if (models == null) {
+            targets = List.of(createTarget(settings));
+            exec.setMessage("Refreshing semantic model");
+        } else {
+            targets = readTargets(models, settings);
+            exec.setMessage(() -> "Refreshing " + targets.size() + " semantic models");
+        }
+        final var refreshes = split(targets, settings.m_objectsPerRefresh);
+        final var orchestrator =
+            new RefreshOrchestrator(auth, settings, models == null ? 1 : settings.m_concurrentRefreshes);
+        final var start = Instant.now();
+        final var results = orchestrator.refresh(refreshes, exec);
+        final var end = Instant.now();
 
-        exec.setMessage("Waiting for refresh to finish");
-        waitRefreshed(auth, exec, settings, workspace, refreshId);
+        if (models == null) {
+            final var incomplete = results.stream().filter(r -> !r.isCompleted()).findFirst();
+            if (incomplete.isPresent()) {
+                throw new IOException(incomplete.get().message());
+            }
+            final var messages = results.stream().map(Result::message).filter(Objects::nonNull).toList();
+            if (!messages.isEmpty()) {
+                setWarningMessage(String.join("\n", messages));
+            }
+        } else {
+            warnIncomplete(results);
+        }
 
-        return new PortObject[0];
+        final var outputs = new PortObject[getNrOutPorts()];
+        if (m_resultsPort >= 0) {
+            outputs[m_resultsPort] = RefreshOrchestrator.createTable(results, exec);
+        }
+        if (m_telemetryPort >= 0) {
+            outputs[m_telemetryPort] = RefreshTelemetry.createTable(results, start, end, exec);
+        }
+        return outputs;
     }
 
-    private static Refresh createRefresh(final PowerBIRefresherNodeSettings settings) { // NOSONAR switch is nicer
-        final var type = switch (settings.m_type) {
-            case AUTOMATIC -> Refresh.Type.Automatic;
-            case CALCULATE -> Refresh.Type.Calculate;
-            case CLEAR_VALUES -> Refresh.Type.ClearValues;
-            case DATA_ONLY -> Refresh.Type.DataOnly;
-            case DEFRAGMENT -> Refresh.Type.Defragment;
-            case FULL -> Refresh.Type.Full;
-
-        };
-
-        final var timeout = String.format("%d:%02d:00", settings.m_timeout / 60, settings.m_timeout % 60);
-
+    private static Target createTarget(final PowerBIRefresherNodeSettings settings) {
+        final var workspace = Optional.of(settings.m_workspaceId).filter(Predicate.not(String::isBlank)).orElse(null);
         final var objects = new LinkedList<ObjectRefreshDefinition>();
 
         // remove every object if both fields are empty
@@ -139,82 +186,93 @@ private static Refresh createRefresh(final PowerBIRefresherNodeSettings settings
         }
 
         // do not add objects if none given
-        return new Refresh(type, timeout, objects.isEmpty() ? null : objects);
+        return new Target(workspace, settings.m_dataset, objects.isEmpty() ? null : objects);
     }
 
-    private static String emptyToNull(final String input) {
-        if (StringUtils.isEmpty(input)) {
-            return null;
-        }
-        return input;
-    }
+    /**
+     * Groups the rows of the semantic models table by semantic model. The tables and partitions of all rows of a model
+     * are refreshed together; a row without table and partition refreshes the whole model.
+     */
+    private static List<Target> readTargets(final BufferedDataTable models,
+        final PowerBIRefresherNodeSettings settings) {
+        final var spec = models.getDataTableSpec();
+        final var workspaceIndex = spec.findColumnIndex(settings.m_workspaceColumn);
+        final var datasetIndex = spec.findColumnIndex(settings.m_datasetColumn);
+        final var tableIndex = StringUtils.isEmpty(settings.m_tableColumn) ? -1
+            : spec.findColumnIndex(settings.m_tableColumn);
+        final var partitionIndex = StringUtils.isEmpty(settings.m_partitionColumn) ? -1
+            : spec.findColumnIndex(settings.m_partitionColumn);
 
-    private void waitRefreshed(final AuthTokenProvider auth, final ExecutionContext exec,
-        final PowerBIRefresherNodeSettings settings, final String workspaceId, final String refreshId)
-        throws IOException, PowerBIResponseException, CanceledExecutionException {
-
-        var end = System.currentTimeMillis() + settings.m_timeout * 60000;
-
-        try {
-            // for the first 10 seconds check more frequently
-            for (var i = 0; i < 10 && System.currentTimeMillis() < end; ++i) {
-                exec.checkCanceled();
-                Thread.sleep(1000);
-                var refresh = PowerBIRestAPIUtils
-                        .getDatasetRefreshStatus(auth, workspaceId, settings.m_dataset, refreshId, exec);
-                if (isRefreshFinished(refresh)) {
-                    handleMessages(refresh).ifPresent(this::setWarningMessage);
-                    return;
+        // the keys are targets without objects, the values are null if the whole model is refreshed
+        final var objects = new LinkedHashMap<Target, List<ObjectRefreshDefinition>>();
+        try (final var rows = models.iterator()) {
+            while (rows.hasNext()) {
+                final var row = rows.next();
+                final var dataset = value(row, datasetIndex);
+                if (dataset == null) {
+                    continue;
                 }
-            }
-
-            // then every 5 seconds
-            while (System.currentTimeMillis() < end) {
-                exec.checkCanceled();
-                Thread.sleep(5000);
-                var refresh = PowerBIRestAPIUtils
-                        .getDatasetRefreshStatus(auth, workspaceId, settings.m_dataset, refreshId, exec);
-                if (isRefreshFinished(refresh)) {
-                    handleMessages(refresh).ifPresent(this::setWarningMessage);
-                    return;
+                final var key = new Target(value(row, workspaceIndex), dataset, null);
+                final var table = value(row, tableIndex);
+                final var partition = value(row, partitionIndex);
+                if (table == null && partition == null) {
+                    objects.put(key, null);
+                } else if (!objects.containsKey(key) || objects.get(key) != null) {
+                    objects.computeIfAbsent(key, k -> new ArrayList<>())
+                        .add(new ObjectRefreshDefinition(table, partition));
                 }
             }
-
-        } catch (CanceledExecutionException | InterruptedException ex) { // NOSONAR content not interesting
-            Thread.currentThread().interrupt();
-            cancelRefresh(auth, exec, settings, workspaceId, refreshId);
-            throw new CanceledExecutionException(ex.getMessage());
         }
-        throw new IOException("Timeout while waiting for refresh to finish");
+        return objects.entrySet().stream() //
+            .map(e -> new Target(e.getKey().workspaceId(), e.getKey().datasetId(), e.getValue())) //
+            .toList();
     }
 
-    private static boolean isRefreshFinished(final Refresh refresh) throws IOException {
-        return switch (refresh.getExtendedStatus()) {
-            case Completed -> true;
-            case InProgress, NotStarted, Unknown -> false;
-            default -> throw new IOException("Refresh " + refresh.getExtendedStatus()
-                    + handleMessages(refresh).map(s -> " (" + s + ")").orElse(""));
-        };
+    /** Splits the tables and partitions of the semantic models into refreshes of at most the given size */
+    private static List<Target> split(final List<Target> targets, final int size) {
+        if (size <= 0) {
+            return targets;
+        }
+        final var refreshes = new ArrayList<Target>(targets.size());
+        for (final var target : targets) {
+            final var objects = target.objects();
+            if (objects == null || objects.size() <= size) {
+                refreshes.add(target);
+                continue;
+            }
+            for (var i = 0; i < objects.size(); i += size) {
+                refreshes.add(new Target(target.workspaceId(), target.datasetId(),
+                    List.copyOf(objects.subList(i, Math.min(i + size, objects.size())))));
+            }
+        }
+        return refreshes;
     }
 
-    private static Optional<String> handleMessages(final Refresh refresh) {
-        final var messages = refresh.getMessages();
-        if (messages == null || messages.isEmpty()) {
-            return Optional.empty();
+    private static String value(final DataRow row, final int index) {
+        if (index < 0) {
+            return null;
         }
-        if (messages.size() == 1) {
-            return Optional.of(messages.get(0).toString());
+        final var cell = row.getCell(index);
+        return cell.isMissing() ? null : emptyToNull(((StringValue)cell).getStringValue().strip());
+    }
+
+    private static String emptyToNull(final String input) {
+        if (StringUtils.isEmpty(input)) {
+            return null;
         }
-        return Optional.of(messages.toString());
+        return input;
     }
 
-    private static void cancelRefresh(final AuthTokenProvider auth, final ExecutionContext exec,
-        final PowerBIRefresherNodeSettings settings, final String workspaceId, final String refreshId) {
-        try {
-            PowerBIRestAPIUtils.cancelDatasetRefresh(auth, workspaceId, settings.m_dataset, refreshId, exec);
-        } catch (PowerBIResponseException | CanceledExecutionException e) {
-            // nothing to do but log
-            LOGGER.error("Could not cancel refresh: " + e.getMessage(), e);
+    private void warnIncomplete(final List<Result> results) {
+        if (results.isEmpty()) {
+            setWarningMessage("The semantic models table does not contain any semantic model.");
+            return;
+        }
+        final var incomplete = results.stream().filter(r -> !r.isCompleted()).toList();
+        if (!incomplete.isEmpty()) {
+            final var first = incomplete.get(0);
+            setWarningMessage(incomplete.size() + " of " + results.size() + " refreshes did not complete, e.g. of "
+                + "semantic model '" + first.target().datasetId() + "': " + first.message());
         }
     }
 
@@ -51,6 +51,8 @@
 import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.StringValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.util.CheckUtils;
@@ -67,6 +69,7 @@
 import org.knime.node.parameters.array.ArrayWidget;
 import org.knime.node.parameters.layout.Layout;
 import org.knime.node.parameters.layout.Section;
+import org.knime.node.parameters.migration.LoadDefaultsForAbsentFields;
 import org.knime.node.parameters.updates.ParameterReference;
 import org.knime.node.parameters.updates.ValueReference;
 import org.knime.node.parameters.widget.choices.ChoicesProvider;
@@ -77,6 +80,7 @@
 import org.knime.node.parameters.widget.number.NumberInputWidget;
 import org.knime.node.parameters.widget.number.NumberInputWidgetValidation;
 import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsNonNegativeValidation;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
 
 /**
  * Settings store managing all configurations required for the node.
@@ -84,6 +88,7 @@
  * @author Jannik Löscher, KNIME GmbH, Konstanz, Germany
  */
 @SuppressWarnings("restriction") // New Node UI is not yet API
+@LoadDefaultsForAbsentFields
 public final class PowerBIRefresherNodeSettings
     implements NodeParameters {
 
@@ -101,6 +106,10 @@ interface RefreshSection {
     interface TimeoutsSection {
     }
 
+    @Section(title = "Semantic Models Table")
+    interface ModelsTableSection {
+    }
+
     @Widget(title = "Workspace",
             description = """
                     The workspace which contains the Semantic Models.
@@ -136,6 +145,42 @@ interface TimeoutsSection {
     @ValueReference(TablesRef.class)
     TableEntry[] m_tables = new TableEntry[] {};
 
+    @Widget(title = "Commit mode",
+            description = "Whether the refreshed tables and partitions are committed together or in batches.")
+    @Layout(RefreshSection.class)
+    CommitMode m_commitMode = CommitMode.TRANSACTIONAL;
+
+    @Widget(title = "Maximum parallelism",
+            description = """
+                    The maximum number of threads Power BI uses to process the tables and partitions of a refresh in
+                    parallel.
+                    """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Layout(RefreshSection.class)
+    int m_maxParallelism = 10;
+
+    @Widget(title = "Retry count",
+            description = "How often Power BI retries a failed refresh before the refresh fails.")
+    @NumberInputWidget(minValidation = IsNonNegativeValidation.class)
+    @Layout(RefreshSection.class)
+    int m_retryCount;
+
+    @Widget(title = "Apply refresh policy",
+            description = "Whether the incremental refresh policies of the tables are applied.")
+    @Layout(RefreshSection.class)
+    boolean m_applyRefreshPolicy = true;
+
+    @Widget(title = "Tables and partitions per refresh",
+            description = """
+                    The maximum number of tables and partitions of a semantic model refreshed by one request. Longer
+                    lists are split into several refreshes. Power BI only accepts one refresh of a semantic model at a
+                    time, so the refreshes of a semantic model run one after another while refreshes of different
+                    semantic models run concurrently. Use 0 to refresh all tables and partitions of a semantic model
+                    with one request.
+                    """)
+    @NumberInputWidget(minValidation = IsNonNegativeValidation.class)
+    @Layout(RefreshSection.class)
+    int m_objectsPerRefresh;
 
     @Widget(title = "Refresh timeout (minutes)",
             description = """
@@ -146,6 +191,61 @@ interface TimeoutsSection {
     @Layout(TimeoutsSection.class)
     long m_timeout = 3L * 60L;
 
+    @Widget(title = "Maximum status check interval (seconds)",
+            description = """
+                    The longest time in seconds between two checks of the refresh status. The status is checked more
+                    often at the beginning and when the refresh is expected to finish, based on the durations of the
+                    recent refreshes of the semantic model.
+                    """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Layout(TimeoutsSection.class)
+    int m_maxPollInterval = 300;
+
+    @Widget(title = "Workspace column",
+            description = """
+                    The column of the semantic models table with the workspace IDs. A missing or empty value refers to
+                    “My Workspace”. Only used if the semantic models input port is added.
+                    """)
+    @Layout(ModelsTableSection.class)
+    String m_workspaceColumn = "Workspace ID";
+
+    @Widget(title = "Semantic model column",
+            description = """
+                    The column of the semantic models table with the IDs of the semantic models to refresh. Rows
+                    without a semantic model are ignored. Only used if the semantic models input port is added.
+                    """)
+    @Layout(ModelsTableSection.class)
+    String m_datasetColumn = "Semantic Model ID";
+
+    @Widget(title = "Table column",
+            description = """
+                    The optional column of the semantic models table with the tables to refresh. The tables and
+                    partitions of all rows of a semantic model are refreshed together. If a row of a semantic model
+                    specifies neither table nor partition, all tables of the model are refreshed. Only used if the
+                    semantic models input port is added.
+                    """)
+    @Layout(ModelsTableSection.class)
+    String m_tableColumn = "";
+
+    @Widget(title = "Partition column",
+            description = """
+                    The optional column of the semantic models table with the partitions to refresh. Only used if the
+                    semantic models input port is added.
+                    """)
+    @Layout(ModelsTableSection.class)
+    String m_partitionColumn = "";
+
+    @Widget(title = "Concurrent refreshes",
+            description = """
+                    The maximum number of semantic models that are refreshed at the same time. Further refreshes are
+                    requested when running ones have finished. Lower this value if the refreshes are rejected or slowed
+                    down by the limits of the capacity. Only used if the semantic models input port is added.
+                    """)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class,
+        maxValidation = MaxConcurrentRefreshes.class)
+    @Layout(ModelsTableSection.class)
+    int m_concurrentRefreshes = 4;
+
 
     enum Type {
         @Label(value = "Automatic", description = "Refresh the data and recalculate dependencies only if needed.")
@@ -163,6 +263,15 @@ enum Type {
         CLEAR_VALUES;
     }
 
+    enum CommitMode {
+        @Label(value = "Transactional",
+               description = "Commit all tables and partitions at once, nothing is committed if the refresh fails.")
+        TRANSACTIONAL,
+        @Label(value = "Partial batch",
+               description = "Commit in batches, the refreshed batches remain committed if the refresh fails.")
+        PARTIAL_BATCH;
+    }
+
     static class TableEntry implements NodeParameters {
         @Widget(title = "Table",
                 description = "Name of the table to refresh.")
@@ -214,18 +323,56 @@ protected double getMax() {
 
     }
 
+    static class MaxConcurrentRefreshes extends NumberInputWidgetValidation.MaxValidation {
+
+        @Override
+        protected double getMax() {
+            return PowerBIRefresherNodeModel.MAX_CONCURRENT_REFRESHES;
+        }
+
+    }
+
     static class TablesRef implements ParameterReference<TableEntry[]> {
     }
 
 
-    void validate(final PortObjectSpec cred) throws InvalidSettingsException {
+    void validate(final PortObjectSpec cred, final DataTableSpec models) throws InvalidSettingsException {
         PowerBICredentialUtil.validateCredentialOnConfigure((CredentialPortObjectSpec) cred);
 
-        CheckUtils.checkSetting(!StringUtils.isEmpty(m_workspaceId), "Please specify a workspace.");
-        CheckUtils.checkSetting(!StringUtils.isBlank(m_dataset), "Please specify a semantic model.");
+        if (models == null) {
+            CheckUtils.checkSetting(!StringUtils.isEmpty(m_workspaceId), "Please specify a workspace.");
+            CheckUtils.checkSetting(!StringUtils.isBlank(m_dataset), "Please specify a semantic model.");
+        } else {
+            checkColumn(models, m_workspaceColumn, "workspace", true);
+            checkColumn(models, m_datasetColumn, "semantic model", true);
+            checkColumn(models, m_tableColumn, "table", false);
+            checkColumn(models, m_partitionColumn, "partition", false);
+            CheckUtils.checkSetting(m_concurrentRefreshes > 0
+                && m_concurrentRefreshes <= PowerBIRefresherNodeModel.MAX_CONCURRENT_REFRESHES,
+                "Please specify between 1 and %d concurrent refreshes.",
+                PowerBIRefresherNodeModel.MAX_CONCURRENT_REFRESHES);
+        }
         CheckUtils.checkSetting(m_timeout >= 0, "Please specify a non-negative timeout.");
         CheckUtils.checkSetting(m_timeout <= PowerBIRefresherNodeModel.MAX_TIMEOUT_MINUTES,
                 "Please specify a timeout of at most 24 hours.");
+        CheckUtils.checkSetting(m_maxPollInterval > 0, "Please specify a positive status check interval.");
+        CheckUtils.checkSetting(m_maxParallelism > 0, "Please specify a positive maximum parallelism.");
+        CheckUtils.checkSetting(m_retryCount >= 0, "Please specify a non-negative retry count.");
+        CheckUtils.checkSetting(m_objectsPerRefresh >= 0,
+            "Please specify a non-negative number of tables and partitions per refresh.");
+    }
+
+    private static void checkColumn(final DataTableSpec spec, final String column, final String name,
+        final boolean required) throws InvalidSettingsException {
+        if (StringUtils.isEmpty(column)) {
+            CheckUtils.checkSetting(!required, "Please specify the %s column.", name);
+            return;
+        }
+        final var columnSpec = spec.getColumnSpec(column);
+        CheckUtils.checkSetting(columnSpec != null, "The %s column '%s' does not exist in the semantic models table.",
+            name, column);
+        CheckUtils.checkSetting(columnSpec.getType().isCompatible(StringValue.class),
+            "The %s column '%s' does not contain strings.", name, column);
     }
 
 }
@@ -0,0 +1,446 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.refresh;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.duration.DurationCellFactory;
+import org.knime.core.data.time.zoneddatetime.ZonedDateTimeCellFactory;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+import org.knime.ext.powerbi.core.rest.RefreshMonitor;
+import org.knime.ext.powerbi.core.rest.RefreshMonitor.Watch;
+import org.knime.ext.powerbi.core.rest.bindings.Refresh;
+import org.knime.ext.powerbi.core.rest.bindings.Refresh.ObjectRefreshDefinition;
+import org.knime.ext.powerbi.core.rest.bindings.Refresh.Status;
+
+/**
+ * Refreshes semantic models with a bounded number of concurrent refreshes. Further refreshes are requested in order
+ * whenever a running refresh has finished; since Power BI accepts only one refresh of a semantic model at a time, a
+ * refresh waits while another refresh of the same semantic model is running. The status of the running refreshes is
+ * checked by the JVM-wide {@link RefreshMonitor}, the delays between the checks of each refresh are determined by its
+ * own {@link RefreshPollingStrategy}. The node only waits until a refresh has finished or reached its timeout.
+ */
+final class RefreshOrchestrator {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(RefreshOrchestrator.class);
+
+    /** The number of recent refreshes the duration of a refresh is estimated from */
+    private static final int HISTORY_SIZE = 10;
+
+    private static final long WAIT_POLL_MS = 200;
+
+    /** The spec of the refresh results output table */
+    static final DataTableSpec SPEC = new DataTableSpec( //
+        new DataColumnSpecCreator("Workspace ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Semantic Model ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Tables and Partitions", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Refresh ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Status", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Start", ZonedDateTimeCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("End", ZonedDateTimeCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Duration", DurationCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Message", StringCell.TYPE).createSpec());
+
+    /**
+     * A semantic model to refresh.
+     *
+     * @param workspaceId the workspace, <code>null</code> for “My Workspace”
+     * @param datasetId the semantic model
+     * @param objects the tables and partitions to refresh, <code>null</code> to refresh all tables
+     */
+    record Target(String workspaceId, String datasetId, List<ObjectRefreshDefinition> objects) {
+
+        boolean isSameModel(final Target other) {
+            return Objects.equals(workspaceId, other.workspaceId) && datasetId.equals(other.datasetId);
+        }
+    }
+
+    /**
+     * The outcome of the refresh of a semantic model.
+     *
+     * @param target the semantic model
+     * @param refreshId the ID of the refresh, <code>null</code> if it could not be requested
+     * @param status the last known status of the refresh
+     * @param start when the refresh started
+     * @param end when the refresh ended or the waiting for it was given up
+     * @param message the messages of the refresh or why it did not complete, <code>null</code> if none
+     * @param details the last refresh details returned by Power BI, <code>null</code> if none
+     * @param expectedDuration the median duration of the recent refreshes, <code>null</code> if unknown
+     * @param statusChecks the number of status checks of the refresh
+     */
+    record Result(Target target, String refreshId, Status status, Instant start, Instant end, String message,
+        Refresh details, Duration expectedDuration, int statusChecks) {
+
+        boolean isCompleted() {
+            return status == Status.Completed;
+        }
+    }
+
+    private final AuthTokenProvider m_auth;
+
+    private final PowerBIRefresherNodeSettings m_settings;
+
+    private final int m_maxConcurrent;
+
+    private final Random m_random = new Random();
+
+    /**
+     * @param auth the authentication
+     * @param settings the settings with the type, timeout and status check interval of the refreshes
+     * @param maxConcurrent the maximum number of refreshes running at the same time
+     */
+    RefreshOrchestrator(final AuthTokenProvider auth, final PowerBIRefresherNodeSettings settings,
+        final int maxConcurrent) {
+        m_auth = auth;
+        m_settings = settings;
+        m_maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Refreshes the semantic models and waits for all refreshes to finish. Refreshes that fail, time out, or cannot
+     * be requested are reported in the results. If the execution is canceled, all running refreshes are canceled.
+     *
+     * @param targets the semantic models to refresh
+     * @param exec the execution context
+     * @return the results in the order of the targets
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    List<Result> refresh(final List<Target> targets, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        final var results = new Result[targets.size()];
+        final var pending = new ArrayDeque<Integer>(targets.size());
+        for (var i = 0; i < targets.size(); i++) {
+            pending.add(i);
+        }
+        final List<Running> running = new ArrayList<>(m_maxConcurrent);
+        var finished = 0;
+        try {
+            while (!pending.isEmpty() || !running.isEmpty()) {
+                OptionalInt next;
+                while (running.size() < m_maxConcurrent
+                    && (next = nextStartable(pending, targets, running)).isPresent()) {
+                    final var index = next.getAsInt();
+                    final var startTime = Instant.now();
+                    try {
+                        running.add(start(index, targets.get(index), startTime, exec));
+                    } catch (PowerBIResponseException e) { // NOSONAR reported in the result
+                        results[index] = new Result(targets.get(index), null, Status.Failed, startTime,
+                            Instant.now(), "Could not request the refresh: " + e.getMessage(), null, null, 0);
+                        progress(++finished, targets.size(), exec);
+                    }
+                }
+                if (running.isEmpty()) {
+                    continue;
+                }
+
+                waitForAny(running, exec);
+                final var now = System.currentTimeMillis();
+                for (final var it = running.iterator(); it.hasNext();) {
+                    final var refresh = it.next();
+                    final var result = check(refresh, now);
+                    if (result.isPresent()) {
+                        results[refresh.m_index] = result.get();
+                        it.remove();
+                        progress(++finished, targets.size(), exec);
+                    }
+                }
+            }
+        } catch (CanceledExecutionException | InterruptedException ex) { // NOSONAR content not interesting
+            running.forEach(refresh -> cancel(refresh, exec));
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new CanceledExecutionException(ex.getMessage());
+        }
+        return Arrays.asList(results);
+    }
+
+    /** The first pending refresh of a semantic model without running refresh */
+    private static OptionalInt nextStartable(final Deque<Integer> pending, final List<Target> targets,
+        final List<Running> running) {
+        for (final var it = pending.iterator(); it.hasNext();) {
+            final int index = it.next();
+            if (running.stream().noneMatch(r -> r.m_target.isSameModel(targets.get(index)))) {
+                it.remove();
+                return OptionalInt.of(index);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private static void progress(final int finished, final int total, final ExecutionContext exec) {
+        exec.setProgress((double)finished / total, () -> finished + " of " + total + " refreshes finished");
+    }
+
+    private Running start(final int index, final Target target, final Instant startTime,
+        final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
+        final var refreshId = PowerBIRestAPIUtils.refreshDataset(m_auth, target.workspaceId(), target.datasetId(),
+            createRefresh(target.objects()), exec);
+        final var expected = estimateDuration(target, exec).orElse(null);
+        final var polling =
+            new RefreshPollingStrategy(expected, Duration.ofSeconds(m_settings.m_maxPollInterval), m_random);
+        final var watch =
+            RefreshMonitor.watch(m_auth, target.workspaceId(), target.datasetId(), refreshId, polling::nextDelay);
+        return new Running(index, target, refreshId, startTime, startTime.toEpochMilli() + m_settings.m_timeout * 60000,
+            expected, watch);
+    }
+
+    private Refresh createRefresh(final List<ObjectRefreshDefinition> objects) { // NOSONAR switch is nicer
+        final var type = switch (m_settings.m_type) {
+            case AUTOMATIC -> Refresh.Type.Automatic;
+            case CALCULATE -> Refresh.Type.Calculate;
+            case CLEAR_VALUES -> Refresh.Type.ClearValues;
+            case DATA_ONLY -> Refresh.Type.DataOnly;
+            case DEFRAGMENT -> Refresh.Type.Defragment;
+            case FULL -> Refresh.Type.Full;
+
+        };
+
+        final var commitMode = switch (m_settings.m_commitMode) {
+            case TRANSACTIONAL -> Refresh.CommitMode.Transactional;
+            case PARTIAL_BATCH -> Refresh.CommitMode.PartialBatch;
+        };
+
+        final var timeout = String.format("%d:%02d:00", m_settings.m_timeout / 60, m_settings.m_timeout % 60);
+        return new Refresh(type, timeout, objects, commitMode, m_settings.m_maxParallelism, m_settings.m_retryCount,
+            m_settings.m_applyRefreshPolicy);
+    }
+
+    /** The median duration of the recent refreshes, the refresh that was just requested is still running */
+    private Optional<Duration> estimateDuration(final Target target, final ExecutionContext exec)
+        throws CanceledExecutionException {
+        try {
+            return RefreshPollingStrategy.estimateDuration(PowerBIRestAPIUtils.getDatasetRefreshHistory(m_auth,
+                target.workspaceId(), target.datasetId(), HISTORY_SIZE, exec));
+        } catch (PowerBIResponseException e) { // NOSONAR the status is checked without estimate
+            LOGGER.debug("Could not read the refresh history: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /** The result of a refresh which has finished or timed out, empty if it is still running */
+    private static Optional<Result> check(final Running running, final long now) {
+        final var watch = running.m_watch;
+        if (!watch.getFuture().isDone()) {
+            if (now < running.m_deadline) {
+                return Optional.empty();
+            }
+            watch.cancel();
+            return Optional.of(running.result(watch.getLastDetails(), Status.TimedOut,
+                "Timeout while waiting for refresh to finish"));
+        }
+
+        final Refresh refresh;
+        try {
+            refresh = watch.getFuture().join();
+        } catch (CompletionException e) { // NOSONAR reported in the result
+            return Optional.of(running.result(watch.getLastDetails(), Status.Unknown,
+                "Could not check the refresh status: " + e.getCause().getMessage()));
+        }
+        final var status = refresh.getExtendedStatus();
+        if (status == Status.Completed) {
+            return Optional.of(running.result(refresh, status, handleMessages(refresh).orElse(null)));
+        }
+        return Optional.of(running.result(refresh, status,
+            "Refresh " + status + handleMessages(refresh).map(s -> " (" + s + ")").orElse("")));
+    }
+
+    private static Optional<String> handleMessages(final Refresh refresh) {
+        final var messages = refresh.getMessages();
+        if (messages == null || messages.isEmpty()) {
+            return Optional.empty();
+        }
+        if (messages.size() == 1) {
+            return Optional.of(messages.get(0).toString());
+        }
+        return Optional.of(messages.toString());
+    }
+
+    private void cancel(final Running running, final ExecutionContext exec) {
+        running.m_watch.cancel();
+        try {
+            PowerBIRestAPIUtils.cancelDatasetRefresh(m_auth, running.m_target.workspaceId(),
+                running.m_target.datasetId(), running.m_refreshId, exec);
+        } catch (PowerBIResponseException | CanceledExecutionException e) {
+            // nothing to do but log
+            LOGGER.error("Could not cancel refresh: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Waits until a refresh has finished or timed out. The status is checked by the {@link RefreshMonitor}, this only
+     * waits in short steps so that a cancellation of the node is noticed immediately.
+     */
+    private static void waitForAny(final List<Running> running, final ExecutionContext exec)
+        throws CanceledExecutionException, InterruptedException {
+        final var any = CompletableFuture
+            .anyOf(running.stream().map(r -> r.m_watch.getFuture()).toArray(CompletableFuture[]::new));
+        final var deadline = running.stream().mapToLong(r -> r.m_deadline).min().orElseThrow();
+        long remaining;
+        while (!any.isDone() && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            exec.checkCanceled();
+            try {
+                any.get(Math.min(WAIT_POLL_MS, remaining), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) { // NOSONAR the futures are checked afterwards
+            }
+        }
+        exec.checkCanceled();
+    }
+
+    /**
+     * Creates the refresh results output table.
+     *
+     * @param results the results of the refreshes
+     * @param exec the execution context
+     * @return the table with one row per result
+     */
+    static BufferedDataTable createTable(final List<Result> results, final ExecutionContext exec) {
+        final var container = exec.createDataContainer(SPEC);
+        try {
+            var index = 0L;
+            for (final var result : results) {
+                container.addRowToTable(new DefaultRow(RowKey.createRowKey(index++), //
+                    stringCell(result.target().workspaceId()), //
+                    stringCell(result.target().datasetId()), //
+                    objectsCell(result.target().objects()), //
+                    stringCell(result.refreshId()), //
+                    stringCell(result.status().name()), //
+                    ZonedDateTimeCellFactory.create(result.start().atZone(ZoneOffset.UTC)), //
+                    ZonedDateTimeCellFactory.create(result.end().atZone(ZoneOffset.UTC)), //
+                    DurationCellFactory.create(Duration.between(result.start(), result.end())), //
+                    stringCell(result.message())));
+            }
+        } finally {
+            container.close();
+        }
+        return container.getTable();
+    }
+
+    private static DataCell objectsCell(final List<ObjectRefreshDefinition> objects) {
+        if (objects == null) {
+            return DataType.getMissingCell();
+        }
+        return new StringCell(objects.stream().map(Object::toString).collect(Collectors.joining(", ")));
+    }
+
+    static DataCell stringCell(final String value) {
+        return value == null ? DataType.getMissingCell() : new StringCell(value);
+    }
+
+    /** A requested refresh whose status is checked */
+    private static final class Running {
+
+        private final int m_index;
+
+        private final Target m_target;
+
+        private final String m_refreshId;
+
+        private final Instant m_start;
+
+        private final long m_deadline;
+
+        private final Duration m_expected;
+
+        private final Watch m_watch;
+
+        Running(final int index, final Target target, final String refreshId, final Instant start, // NOSONAR
+            final long deadline, final Duration expected, final Watch watch) {
+            m_index = index;
+            m_target = target;
+            m_refreshId = refreshId;
+            m_start = start;
+            m_deadline = deadline;
+            m_expected = expected;
+            m_watch = watch;
+        }
+
+        /** The times reported by Power BI are used if available */
+        Result result(final Refresh refresh, final Status status, final String message) {
+            var start = m_start;
+            var end = Instant.now();
+            if (refresh != null) {
+                start = RefreshPollingStrategy.parseTime(refresh.getStartTime()).orElse(start);
+                end = RefreshPollingStrategy.parseTime(refresh.getEndTime()).orElse(end);
+            }
+            return new Result(m_target, m_refreshId, status, start, end.isBefore(start) ? start : end, message,
+                refresh, m_expected, m_watch.getStatusChecks());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.refresh;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.knime.ext.powerbi.core.rest.bindings.RefreshHistory;
+
+/**
+ * Determines the delays between the checks of the status of a refresh. The delays grow exponentially from
+ * {@link #MIN_DELAY} up to the maximum delay, so that short refreshes and refreshes that fail immediately are noticed
+ * quickly while long refreshes are checked rarely. If the duration of the refresh can be estimated from the recent
+ * refreshes of the semantic model, the delay is at most half of the time until the expected end, so that the checks
+ * become more frequent when the refresh is expected to finish. When the expected end has passed, the delays grow
+ * exponentially again. Every delay is shortened by a random fraction of up to {@value #JITTER} so that nodes that
+ * started at the same time do not check in lock-step.
+ */
+final class RefreshPollingStrategy {
+
+    static final Duration MIN_DELAY = Duration.ofSeconds(1);
+
+    private static final double JITTER = 0.25;
+
+    /** The maximum exponent of the exponential backoff, which is far beyond any sensible maximum delay */
+    private static final int MAX_EXPONENT = 30;
+
+    private final Duration m_expectedDuration;
+
+    private final Duration m_maxDelay;
+
+    private final Random m_random;
+
+    private int m_attempt;
+
+    private boolean m_overdue;
+
+    /**
+     * @param expectedDuration the expected duration of the refresh, <code>null</code> if unknown
+     * @param maxDelay the maximum delay between two checks
+     * @param random the source of the jitter
+     */
+    RefreshPollingStrategy(final Duration expectedDuration, final Duration maxDelay, final Random random) {
+        m_expectedDuration = expectedDuration;
+        m_maxDelay = maxDelay.compareTo(MIN_DELAY) < 0 ? MIN_DELAY : maxDelay;
+        m_random = random;
+    }
+
+    /**
+     * @param elapsed the time since the refresh was requested
+     * @return the delay until the next check of the status
+     */
+    Duration nextDelay(final Duration elapsed) {
+        if (m_expectedDuration != null && !m_overdue && elapsed.compareTo(m_expectedDuration) >= 0) {
+            // the estimate was too low, start over with short delays
+            m_overdue = true;
+            m_attempt = 0;
+        }
+        var delay = MIN_DELAY.multipliedBy(1L << Math.min(m_attempt, MAX_EXPONENT));
+        m_attempt++;
+        if (m_expectedDuration != null && !m_overdue) {
+            final var halfRemaining = m_expectedDuration.minus(elapsed).dividedBy(2);
+            if (halfRemaining.compareTo(delay) < 0) {
+                delay = halfRemaining;
+            }
+        }
+        if (delay.compareTo(m_maxDelay) > 0) {
+            delay = m_maxDelay;
+        } else if (delay.compareTo(MIN_DELAY) < 0) {
+            delay = MIN_DELAY;
+        }
+        return Duration.ofMillis(Math.round(delay.toMillis() * (1 - JITTER * m_random.nextDouble())));
+    }
+
+    /**
+     * Estimates the duration of a refresh as the median duration of the completed refreshes of the history.
+     *
+     * @param history the recent refreshes of the semantic model
+     * @return the estimated duration, empty if no refresh of the history has completed
+     */
+    static Optional<Duration> estimateDuration(final RefreshHistory history) {
+        final var durations = Stream.of(history.getValue()) //
+            .filter(refresh -> "Completed".equalsIgnoreCase(refresh.getStatus())) //
+            .map(refresh -> duration(refresh.getStartTime(), refresh.getEndTime())) //
+            .flatMap(Optional::stream) //
+            .sorted() //
+            .toList();
+        if (durations.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(durations.get(durations.size() / 2));
+    }
+
+    private static Optional<Duration> duration(final String start, final String end) {
+        final var startTime = parseTime(start);
+        final var endTime = parseTime(end);
+        if (startTime.isEmpty() || endTime.isEmpty() || endTime.get().isBefore(startTime.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.between(startTime.get(), endTime.get()));
+    }
+
+    /** Parses a timestamp of the REST API, which is in UTC with or without zone designator */
+    static Optional<Instant> parseTime(final String time) {
+        if (time == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Instant.parse(time));
+        } catch (DateTimeParseException e) { // NOSONAR try without zone designator
+            try {
+                return Optional.of(LocalDateTime.parse(time).toInstant(ZoneOffset.UTC));
+            } catch (DateTimeParseException ex) { // NOSONAR the refresh is ignored
+                return Optional.empty();
+            }
+        }
+    }
+}
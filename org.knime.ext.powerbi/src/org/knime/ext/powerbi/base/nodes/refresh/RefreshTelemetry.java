@@ -0,0 +1,171 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.refresh;
+
+import static org.knime.ext.powerbi.base.nodes.refresh.RefreshOrchestrator.stringCell;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.time.duration.DurationCellFactory;
+import org.knime.core.data.time.zoneddatetime.ZonedDateTimeCellFactory;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+import org.knime.ext.powerbi.base.nodes.refresh.RefreshOrchestrator.Result;
+import org.knime.ext.powerbi.core.rest.bindings.Refresh.ObjectRefreshDefinition;
+
+/**
+ * Creates the refresh telemetry output table. The table has one row per refreshed table or partition with the timing
+ * of its refresh and the typical duration of the recent refreshes of the semantic model, so that refreshes which take
+ * longer than usual stand out. A summary row with the wall time of the execution and the total number of status checks
+ * follows. Power BI reports a status for each table and partition but times only for the whole refresh, hence all rows
+ * of a refresh have the same start and end.
+ */
+final class RefreshTelemetry {
+
+    /** The spec of the refresh telemetry output table */
+    static final DataTableSpec SPEC = new DataTableSpec( //
+        new DataColumnSpecCreator("Workspace ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Semantic Model ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Refresh ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Table", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Partition", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Status", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Start", ZonedDateTimeCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("End", ZonedDateTimeCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Duration", DurationCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Typical Duration", DurationCellFactory.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Attempts", IntCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Status Checks", IntCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Message", StringCell.TYPE).createSpec());
+
+    private RefreshTelemetry() {
+        // utility class
+    }
+
+    /**
+     * Creates the refresh telemetry output table.
+     *
+     * @param results the results of the refreshes
+     * @param start when the execution started
+     * @param end when the last refresh finished
+     * @param exec the execution context
+     * @return the table with the rows of all refreshed tables and partitions and the summary row
+     */
+    static BufferedDataTable createTable(final List<Result> results, final Instant start, final Instant end,
+        final ExecutionContext exec) {
+        final var container = exec.createDataContainer(SPEC);
+        try {
+            var index = 0L;
+            for (final var result : results) {
+                for (final var object : objects(result)) {
+                    container.addRowToTable(new DefaultRow(RowKey.createRowKey(index++), cells(result, object)));
+                }
+            }
+            final var completed = results.stream().filter(Result::isCompleted).count();
+            final var statusChecks = results.stream().mapToInt(Result::statusChecks).sum();
+            final var missing = DataType.getMissingCell();
+            container.addRowToTable(new DefaultRow(new RowKey("Summary"), missing, missing, missing, missing, missing,
+                missing, time(start), time(end), DurationCellFactory.create(Duration.between(start, end)), missing,
+                missing, new IntCell(statusChecks),
+                new StringCell(completed + " of " + results.size() + " refreshes completed")));
+        } finally {
+            container.close();
+        }
+        return container.getTable();
+    }
+
+    /** The tables and partitions reported by Power BI, else the requested ones, else <code>null</code> for all */
+    private static List<ObjectRefreshDefinition> objects(final Result result) {
+        final var details = result.details();
+        if (details != null && details.getObjects() != null && !details.getObjects().isEmpty()) {
+            return details.getObjects();
+        }
+        if (result.target().objects() != null) {
+            return result.target().objects();
+        }
+        return Collections.singletonList(null);
+    }
+
+    private static DataCell[] cells(final Result result, final ObjectRefreshDefinition object) {
+        final var details = result.details();
+        final var status = object == null || object.getStatus() == null ? result.status().name() : object.getStatus();
+        return new DataCell[]{ //
+            stringCell(result.target().workspaceId()), //
+            stringCell(result.target().datasetId()), //
+            stringCell(result.refreshId()), //
+            stringCell(object == null ? null : object.getTable()), //
+            stringCell(object == null ? null : object.getPartition()), //
+            new StringCell(status), //
+            time(result.start()), //
+            time(result.end()), //
+            DurationCellFactory.create(Duration.between(result.start(), result.end())), //
+            result.expectedDuration() == null ? DataType.getMissingCell()
+                : DurationCellFactory.create(result.expectedDuration()), //
+            details == null || details.getNumberOfAttempts() == null ? DataType.getMissingCell()
+                : new IntCell(details.getNumberOfAttempts()), //
+            new IntCell(result.statusChecks()), //
+            stringCell(result.message())};
+    }
+
+    private static DataCell time(final Instant instant) {
+        return ZonedDateTimeCellFactory.create(instant.atZone(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Chooses the number of rows and UTF-8 encoded bytes of the batches that are posted to Power BI. The limits are tuned
+ * from the observed latency of the requests, without the time spent waiting for the push limits or for retries: a
+ * slow request halves them and a fast request lets them grow again by a quarter. A payload that Power BI rejected as
+ * too large lowers the byte limit below the size of the rejected payload. The limits are read by the thread that fills
+ * the batches and updated by the thread that posts them.
+ */
+final class AdaptiveBatchSizer {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(AdaptiveBatchSizer.class);
+
+    private static final int MIN_ROWS = 100;
+
+    private static final int MIN_BYTES = 64 * 1024;
+
+    /** Requests that take longer are considered throttled or overloaded */
+    private static final long SLOW_REQUEST_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /** Requests that take less time may grow */
+    private static final long FAST_REQUEST_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final int m_maxRows;
+
+    private final int m_maxBytes;
+
+    private volatile int m_rows;
+
+    private volatile int m_bytes;
+
+    /**
+     * @param maxRows the maximum number of rows per batch, the first batches use this number
+     * @param initialBytes the number of bytes of the first batches
+     * @param maxBytes the maximum number of bytes per batch
+     */
+    AdaptiveBatchSizer(final int maxRows, final int initialBytes, final int maxBytes) {
+        m_maxRows = maxRows;
+        m_maxBytes = maxBytes;
+        m_rows = maxRows;
+        m_bytes = initialBytes;
+    }
+
+    /**
+     * @return the number of rows the next batch may contain
+     */
+    int getRows() {
+        return m_rows;
+    }
+
+    /**
+     * @return the number of bytes the rows of the next batch may take
+     */
+    int getBytes() {
+        return m_bytes;
+    }
+
+    /**
+     * Records a successful request.
+     *
+     * @param rows the number of rows that were sent
+     * @param bytes the number of bytes that were sent
+     * @param nanos the time the request took, without waiting for the push limits or for retries
+     */
+    synchronized void onSuccess(final int rows, final int bytes, final long nanos) {
+        if (nanos > SLOW_REQUEST_NANOS) {
+            m_rows = Math.max(MIN_ROWS, Math.min(m_rows, rows) / 2);
+            m_bytes = Math.max(MIN_BYTES, Math.min(m_bytes, bytes) / 2);
+            LOGGER.debug("Posting " + rows + " rows took " + TimeUnit.NANOSECONDS.toSeconds(nanos)
+                + "s, reducing the batch size to " + m_rows + " rows and " + m_bytes + " bytes.");
+        } else if (nanos < FAST_REQUEST_NANOS && (rows >= m_rows || bytes >= m_bytes)) {
+            // only grow if the batch was limited by the current size
+            m_rows = Math.min(m_maxRows, m_rows + Math.max(1, m_rows / 4));
+            m_bytes = Math.min(m_maxBytes, m_bytes + Math.max(1, m_bytes / 4));
+        }
+    }
+
+    /**
+     * Records a payload that Power BI rejected as too large.
+     *
+     * @param bytes the number of bytes of the rejected payload
+     */
+    synchronized void onRejected(final int bytes) {
+        final int reduced = Math.max(MIN_BYTES, Math.min(m_bytes, bytes / 2));
+        LOGGER.debug("Power BI rejected a payload of " + bytes + " bytes, reducing the batch size to " + reduced
+            + " bytes.");
+        m_bytes = reduced;
+    }
+}
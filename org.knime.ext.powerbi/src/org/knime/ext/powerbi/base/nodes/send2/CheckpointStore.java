@@ -0,0 +1,187 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeSettings;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.node.workflow.contextv2.WorkflowContextV2;
+
+/**
+ * Stores the {@link UploadCheckpoint} of an upload on the local disk, so that the upload can be continued after the
+ * node failed, was canceled, or the application was restarted. The checkpoints are kept in a directory of the KNIME
+ * home with one file per node and dataset, so an upload only continues the uploads of the same node. The node is
+ * identified by the location of its workflow and its id in the workflow.
+ */
+final class CheckpointStore {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(CheckpointStore.class);
+
+    private static final Path DIRECTORY = Path.of(KNIMEConstants.getKNIMEHomeDir(), "powerbi-upload-checkpoints");
+
+    private static final String FILE_SUFFIX = ".xml";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** The file of the checkpoint, <code>null</code> if the checkpoint is not stored */
+    private final Path m_file;
+
+    /** Whether a failure to save was logged already */
+    private boolean m_saveFailed;
+
+    CheckpointStore(final Path directory, final String nodeKey, final String workspaceId, final String datasetName) {
+        m_file = directory.resolve(hash(nodeKey + "\n" + workspaceId + "\n" + datasetName) + FILE_SUFFIX);
+    }
+
+    private CheckpointStore() {
+        m_file = null;
+    }
+
+    /**
+     * Must be called from the thread that executes the node.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @return the store of the checkpoint of the uploads of the current node to the dataset, a store that does not
+     *         keep anything if the workflow of the node has no local location
+     */
+    static CheckpointStore forNode(final String workspaceId, final String datasetName) {
+        final NodeContext context = NodeContext.getContext();
+        final WorkflowContextV2 workflow = context == null ? null : context.getWorkflowManager().getContextV2();
+        if (workflow == null) {
+            LOGGER.debug("The workflow has no location, the progress of the upload is not stored.");
+            return new CheckpointStore();
+        }
+        final String nodeKey = workflow.getExecutorInfo().getLocalWorkflowPath().toAbsolutePath() + "\n"
+            + context.getNodeContainer().getID();
+        return new CheckpointStore(DIRECTORY, nodeKey, workspaceId, datasetName);
+    }
+
+    /**
+     * @return the checkpoint of the last upload of the node to the dataset that did not complete, empty if there is
+     *         none or it cannot be read
+     */
+    synchronized Optional<UploadCheckpoint> load() {
+        if (m_file == null || !Files.isRegularFile(m_file)) {
+            return Optional.empty();
+        }
+        try (final var in = Files.newInputStream(m_file)) {
+            final NodeSettingsRO settings = NodeSettings.loadFromXML(in);
+            return Optional.of(UploadCheckpoint.load(settings));
+        } catch (IOException | InvalidSettingsException e) { // NOSONAR all rows are sent again
+            LOGGER.warn("Could not read the checkpoint of the previous upload: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the checkpoint, replacing the checkpoint of a previous upload. The file is replaced atomically so that a
+     * crash while saving keeps the previous state. A failure is logged but does not fail the upload, which then
+     * cannot be continued.
+     *
+     * @param checkpoint the checkpoint
+     */
+    synchronized void save(final UploadCheckpoint checkpoint) {
+        if (m_file == null) {
+            return;
+        }
+        final var settings = new NodeSettings("upload_checkpoint");
+        checkpoint.save(settings);
+        final var temp = m_file.resolveSibling(m_file.getFileName() + TEMP_SUFFIX);
+        try {
+            Files.createDirectories(m_file.getParent());
+            try (final var out = Files.newOutputStream(temp)) {
+                settings.saveToXML(out);
+            }
+            Files.move(temp, m_file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!m_saveFailed) {
+                m_saveFailed = true;
+                LOGGER.warn("Could not save the upload checkpoint, a failed upload cannot be continued: "
+                    + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Removes the checkpoint, e.g. because the upload completed or the dataset was prepared for a new upload.
+     */
+    synchronized void delete() {
+        if (m_file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(m_file);
+        } catch (IOException e) {
+            LOGGER.debug("Could not remove the upload checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private static String hash(final String key) {
+        try {
+            final var hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
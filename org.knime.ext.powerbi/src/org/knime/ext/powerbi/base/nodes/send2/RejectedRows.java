@@ -0,0 +1,123 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.streamable.RowOutput;
+
+/**
+ * Collects the rows that were not sent to Power BI because a value is not supported or Power BI rejected the row.
+ * Rows can be added concurrently by the threads that upload the tables.
+ */
+final class RejectedRows {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(RejectedRows.class);
+
+    /** The spec of the rejected rows output table */
+    static final DataTableSpec SPEC = new DataTableSpec( //
+        new DataColumnSpecCreator("Table", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Row ID", StringCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Row index", LongCell.TYPE).createSpec(), //
+        new DataColumnSpecCreator("Reason", StringCell.TYPE).createSpec());
+
+    private final RowOutput m_output;
+
+    private long m_count;
+
+    /**
+     * @param output the output the rows are pushed to (a table or the output port of a streamed execution), or
+     *            <code>null</code> if the rows are only counted and logged
+     */
+    RejectedRows(final RowOutput output) {
+        m_output = output;
+    }
+
+    /**
+     * Adds a rejected row.
+     *
+     * @param tableName the name of the Power BI table the row was meant for
+     * @param key the key of the row in the input table
+     * @param rowIndex the index of the row in the input table
+     * @param reason why the row was rejected
+     * @throws InterruptedException if interrupted while a streamed output waits for downstream nodes
+     */
+    synchronized void add(final String tableName, final RowKey key, final long rowIndex, final String reason)
+        throws InterruptedException {
+        LOGGER.debug("Row \"" + key + "\" of table \"" + tableName + "\" was not sent: " + reason);
+        if (m_output != null) {
+            m_output.push(new DefaultRow(RowKey.createRowKey(m_count), new StringCell(tableName),
+                new StringCell(key.getString()), new LongCell(rowIndex), new StringCell(reason)));
+        }
+        m_count++;
+    }
+
+    /**
+     * @return the number of rejected rows
+     */
+    synchronized long getCount() {
+        return m_count;
+    }
+
+    /**
+     * Closes the output. No rows may be added afterwards.
+     *
+     * @throws InterruptedException if interrupted while a streamed output waits for downstream nodes
+     */
+    synchronized void close() throws InterruptedException {
+        if (m_output != null) {
+            m_output.close();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+
+import org.apache.commons.lang3.StringUtils;
+import org.knime.core.data.RowKey;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.TableCheckpoint;
+import org.knime.ext.powerbi.core.JsonOutputBuffer;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Posts the rows of batches to a table and records the acknowledged rows in the checkpoint. A batch that Power BI
+ * rejects as too large is split in halves which are posted separately. If invalid rows are skipped, every batch that
+ * Power BI rejects is split until the single rows that are rejected are found.
+ */
+final class RowsPoster {
+
+    static final int HTTP_PAYLOAD_TOO_LARGE = 413;
+
+    static final int HTTP_BAD_REQUEST = 400;
+
+    /** Rows rejected by Power BI one after another that indicate a general problem, e.g. a changed table schema */
+    static final int MAX_CONSECUTIVE_REJECTIONS = 100;
+
+    /**
+     * Sends rows to the table, usually with <code>PowerBIRestAPIUtils.postRows</code>.
+     */
+    @FunctionalInterface
+    interface PostFunction {
+
+        /**
+         * @param rows writes the request body
+         * @param rowCount the number of rows in the request body
+         * @return the latency of the request
+         * @throws PowerBIResponseException if Power BI did not accept the rows
+         * @throws CanceledExecutionException if the execution was canceled
+         */
+        Duration post(StreamingOutput rows, int rowCount) throws PowerBIResponseException, CanceledExecutionException;
+    }
+
+    /**
+     * A batch of rows encoded as JSON objects that are separated by commas.
+     */
+    interface Batch {
+
+        /**
+         * @return the number of rows of the batch
+         */
+        int getRowCount();
+
+        /**
+         * @param rowIdx the index of the row in the batch
+         * @return the index in the buffer where the row starts, or the end of the buffer for the row count
+         */
+        int offsetOf(int rowIdx);
+
+        /**
+         * @param rowIdx the index of the row in the batch
+         * @return the key of the row in the input table
+         */
+        RowKey getRowKey(int rowIdx);
+
+        /**
+         * @param rowIdx the index of the row in the batch
+         * @return the index of the row in the input table
+         */
+        long getRowIndex(int rowIdx);
+
+        /**
+         * @return the buffer containing the encoded rows
+         */
+        JsonOutputBuffer getBuffer();
+
+        /**
+         * Writes a request body with a range of rows.
+         *
+         * @param output the request body
+         * @param offset the index of the first byte of the rows in the buffer
+         * @param length the number of bytes of the rows, without a trailing comma
+         * @throws IOException if the body cannot be written
+         */
+        void write(OutputStream output, int offset, int length) throws IOException;
+    }
+
+    private final String m_tableName;
+
+    private final PostFunction m_post;
+
+    private final TableCheckpoint m_checkpoint;
+
+    private final AdaptiveBatchSizer m_sizer;
+
+    /** Where rejected rows are collected, <code>null</code> if rejected rows fail the upload */
+    private final RejectedRows m_rejected;
+
+    private int m_consecutiveRejections;
+
+    /**
+     * @param tableName the name of the Power BI table
+     * @param post sends the rows to the table
+     * @param checkpoint where the acknowledged rows are recorded
+     * @param sizer adapts the size of the batches to the latency of the requests
+     * @param rejected where rows that Power BI rejects are collected, <code>null</code> if a rejected batch fails the
+     *            upload
+     */
+    RowsPoster(final String tableName, final PostFunction post, final TableCheckpoint checkpoint,
+        final AdaptiveBatchSizer sizer, final RejectedRows rejected) {
+        m_tableName = tableName;
+        m_post = post;
+        m_checkpoint = checkpoint;
+        m_sizer = sizer;
+        m_rejected = rejected;
+    }
+
+    /**
+     * Posts a range of rows of a batch.
+     *
+     * @param rows the batch
+     * @param from the index of the first row in the batch (inclusive)
+     * @param to the index after the last row in the batch (exclusive)
+     * @throws PowerBIResponseException if Power BI did not accept the rows and they are not split
+     * @throws CanceledExecutionException if the execution was canceled
+     * @throws IOException if too many rows were rejected one after another
+     * @throws InterruptedException if interrupted while a rejected row is added
+     */
+    void post(final Batch rows, final int from, final int to)
+        throws PowerBIResponseException, CanceledExecutionException, IOException, InterruptedException {
+        final int offset = rows.offsetOf(from);
+        final int length = rows.offsetOf(to) - offset - (to < rows.getRowCount() ? 1 : 0);
+        final Duration latency;
+        try {
+            latency = m_post.post(output -> rows.write(output, offset, length), to - from);
+        } catch (final PowerBIResponseException e) {
+            final boolean tooLarge = isPayloadTooLarge(e);
+            final boolean isolate = m_rejected != null && (tooLarge || isBadRequest(e));
+            if (to - from == 1 && isolate) {
+                reject(rows, from, e);
+                m_checkpoint.acknowledge(rows.getRowIndex(from) + 1, rows.getBuffer(), offset, length);
+                return;
+            }
+            if (to - from < 2 || !(tooLarge || isolate)) {
+                throw e;
+            }
+            if (tooLarge) {
+                m_sizer.onRejected(length);
+            }
+            final int middle = (from + to) >>> 1;
+            post(rows, from, middle);
+            post(rows, middle, to);
+            return;
+        }
+        m_consecutiveRejections = 0;
+        // without waiting for the push limits or retries, which do not depend on the batch size
+        m_sizer.onSuccess(to - from, length, latency.toNanos());
+        m_checkpoint.acknowledge(rows.getRowIndex(to - 1) + 1, rows.getBuffer(), offset, length);
+    }
+
+    /** Adds a single row that Power BI rejected, fails if too many rows were rejected one after another */
+    private void reject(final Batch rows, final int rowIdx, final PowerBIResponseException e)
+        throws IOException, InterruptedException {
+        m_consecutiveRejections++;
+        if (m_consecutiveRejections >= MAX_CONSECUTIVE_REJECTIONS) {
+            throw new IOException("Power BI rejected " + m_consecutiveRejections + " rows in a row for table \""
+                + m_tableName + "\". Check that the table in Power BI fits the input table. Last error: "
+                + e.getMessage(), e);
+        }
+        m_rejected.add(m_tableName, rows.getRowKey(rowIdx), rows.getRowIndex(rowIdx), e.getMessage());
+    }
+
+    private static boolean isBadRequest(final PowerBIResponseException e) {
+        return e.getStatusCode().orElse(-1) == HTTP_BAD_REQUEST;
+    }
+
+    /** Whether Power BI rejected the request because of the size of the payload */
+    private static boolean isPayloadTooLarge(final PowerBIResponseException e) {
+        final int status = e.getStatusCode().orElse(-1);
+        return status == HTTP_PAYLOAD_TOO_LARGE
+            || (status == HTTP_BAD_REQUEST && StringUtils.containsIgnoreCase(e.getMessage(), "too large"));
+    }
+}
@@ -91,6 +91,8 @@ public final class SendToPowerBINodeFactory2 extends ConfigurableNodeFactory<Sen
 
     private static final String SHORT_DESCRIPTION = "Sends a table to Microsoft Power BI.";
 
+    static final String REJECTED_ROWS_PORT_GROUP = "rejected";
+
     private static final String FULL_DESCRIPTION = """
         This node sends the input table to Microsoft Power BI.
         <p />
@@ -98,8 +100,15 @@ public final class SendToPowerBINodeFactory2 extends ConfigurableNodeFactory<Sen
         are: <i>String</i>, <i>Number (Integer)</i>, <i>Number (Long Integer)</i>, <i>Number (Float)</i>,
         <i>Boolean</i>, <i>Date</i>, and <i>Date&amp;Time (Local)</i>.
         <p />
-        The node uploads rows in chunks to Microsoft Power BI. If the node is canceled, the already uploaded rows will
-        remain in the Power BI dataset.
+        The node uploads rows in chunks to Microsoft Power BI. If the node fails or is canceled, the already uploaded
+        rows will remain in the Power BI dataset. If <i>Continue a failed upload</i> is enabled, executing the node
+        again with the same input tables and settings continues the upload after these rows instead of sending all
+        rows again, also after the workflow was closed or KNIME was restarted.
+        <p />
+        In a streamed execution the node sends the rows while they arrive from the upstream nodes without storing the
+        input tables. All input tables are sent at the same time and a batch of rows is sent at the latest ten seconds
+        after its first row arrived, even if no further rows arrive. A failed streamed upload cannot be continued and
+        the next execution sends all rows again.
         <p />
         Use the <b>Microsoft Authenticator</b> node to connect to your Microsoft account.<br/>
         The KNIME Analytics Platform Azure Application needs the following permissions for this node:
@@ -123,6 +132,7 @@ protected Optional<PortsConfigurationBuilder> createPortsConfigBuilder() {
         final PortsConfigurationBuilder b = new PortsConfigurationBuilder();
         b.addFixedInputPortGroup("auth", CredentialPortObject.TYPE);
         b.addExtendableInputPortGroup("input", new PortType[]{BufferedDataTable.TYPE}, BufferedDataTable.TYPE);
+        b.addOptionalOutputPortGroup(REJECTED_ROWS_PORT_GROUP, BufferedDataTable.TYPE);
         return Optional.of(b);
     }
 
@@ -163,11 +173,16 @@ protected NodeDescription createNodeDescription() throws SAXException, IOExcepti
             fixedPort("Credential (JWT)", "A JWT credential as provided by the Microsoft Authenticator node."), //
             fixedPort("Table", "Data to be sent to Power BI."), //
             dynamicPort("input", "Additional input table", "Additional data to be sent to your data set."));
+        Collection<PortDescription> outPortDescriptions = List.of(//
+            dynamicPort(REJECTED_ROWS_PORT_GROUP, "Rejected rows", """
+                    The rows that were skipped because they could not be sent, with the name of the Power BI table,
+                    the row ID and index in the input table, and the reason. Only filled if invalid rows are skipped.
+                    """));
 
         return DefaultNodeDescriptionUtil.createNodeDescription("Send to Power BI", //
             "send_to_power_bi.png", //
             inPortDescriptions, //
-            List.of(), //
+            outPortDescriptions, //
             SHORT_DESCRIPTION, //
             FULL_DESCRIPTION, //
             List.of(), // resources
@@ -50,19 +50,27 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.container.CloseableRowIterator;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -75,11 +83,28 @@
 import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.OutputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortObjectInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.node.util.ConvenienceMethods;
 import org.knime.credentials.base.CredentialPortObject;
 import org.knime.credentials.base.CredentialPortObjectSpec;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.Operation;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.RowsChecksum;
+import org.knime.ext.powerbi.base.nodes.send2.UploadCheckpoint.TableCheckpoint;
+import org.knime.ext.powerbi.core.JsonOutputBuffer;
 import org.knime.ext.powerbi.core.PowerBIDataTypeUtils;
 import org.knime.ext.powerbi.core.PowerBIDataTypeUtils.PowerBIIllegalValueException;
+import org.knime.ext.powerbi.core.PowerBIRowEncoder;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
 import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.PowerBIResponseException;
@@ -89,10 +114,9 @@
 import org.knime.ext.powerbi.core.rest.bindings.Relationship;
 import org.knime.ext.powerbi.core.rest.bindings.Table;
 import org.knime.ext.powerbi.core.rest.bindings.Tables;
+import org.knime.ext.powerbi.util.ParallelExecutionUtil;
 import org.knime.ext.powerbi.util.PowerBICredentialUtil;
 
-import com.google.gson.Gson;
-
 /**
  * Send to Power BI node model.
  *
@@ -101,8 +125,6 @@
  */
 final class SendToPowerBINodeModel2 extends NodeModel {
 
-    private static final Gson GSON = new Gson();
-
     private static final double PROGRESS_PREPARE = 0.3;
 
     private static final double PROGRESS_SEND_ROWS = 1 - PROGRESS_PREPARE;
@@ -116,10 +138,21 @@ final class SendToPowerBINodeModel2 extends NodeModel {
     private static final int POWERBI_MAX_ROWS_NONE_RETENTION = 5000000;
 
     /** 10000 rows per request are allowed */
-    private static final int REQUEST_MAX_ROW_COUNT = 10000;
+    private static final int REQUEST_MAX_ROW_COUNT = PowerBIRateLimiter.MAX_ROWS_PER_REQUEST;
+
+    /** Start with around 8MB of UTF-8 encoded JSON (64MB is the limit of the server but this seemed a bit high) */
+    private static final int REQUEST_INITIAL_BODY_LENGTH = 8 * 1024 * 1024;
+
+    /** Batches may grow up to 16MB of UTF-8 encoded JSON if Power BI responds quickly */
+    private static final int REQUEST_MAX_BODY_LENGTH = 16 * 1024 * 1024;
+
+    /** Number of batches that are serialized, waiting, or being sent at the same time per table */
+    private static final int PIPELINE_BATCHES = 3;
+
+    private static final long PIPELINE_POLL_MS = 500;
 
-    /** Limit around 8MB (64MB is the limit of the server but this seemed a bit high) */
-    private static final int REQUEST_MAX_BODY_LENGTH = 8 * 1024 * 1024;
+    /** A batch that is not full is sent 10 seconds after its first row was added (streaming) */
+    private static final long BATCH_MAX_DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
 
     private static final String POWERBI_DATASET_MODE = "Push";
 
@@ -127,9 +160,14 @@ final class SendToPowerBINodeModel2 extends NodeModel {
 
     private final SendToPowerBINodeSettings2 m_settings;
 
+    private final boolean m_hasRejectedRowsPort;
+
     SendToPowerBINodeModel2(final PortsConfiguration portsConfiguration) {
         super(portsConfiguration.getInputPorts(), portsConfiguration.getOutputPorts());
         m_settings = new SendToPowerBINodeSettings2();
+        final int[] rejectedRowsPort = portsConfiguration.getOutputPortLocation()
+            .get(SendToPowerBINodeFactory2.REJECTED_ROWS_PORT_GROUP);
+        m_hasRejectedRowsPort = rejectedRowsPort != null && rejectedRowsPort.length > 0;
     }
 
     @Override
@@ -151,14 +189,14 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
 
         // Check if there is an column with a compatible type in each table
         for (int i = 1; i < inSpecs.length; i++) {
-            final Map<String, Integer> columnIndexMap = getColumnIndexMap((DataTableSpec)inSpecs[i]);
-            if (columnIndexMap.isEmpty()) {
+            final int compatibleColumns = checkCompatibleColumns((DataTableSpec)inSpecs[i]);
+            if (compatibleColumns == 0) {
                 throw new InvalidSettingsException("No column with a compatible datatype is available in table " + i
                     + ". See the node description for the list of supported datatypes.");
             }
             // Check that there are no more than 75 columns
-            if (columnIndexMap.size() > POWERBI_MAX_COLUMNS) {
-                throw new InvalidSettingsException("Table " + i + " contains more columns (" + columnIndexMap.size()
+            if (compatibleColumns > POWERBI_MAX_COLUMNS) {
+                throw new InvalidSettingsException("Table " + i + " contains more columns (" + compatibleColumns
                     + ") than supported by the Power BI API (" + POWERBI_MAX_COLUMNS + "). "
                     + " Please filter out unneeded columns.");
             }
@@ -167,7 +205,7 @@ protected PortObjectSpec[] configure(final PortObjectSpec[] inSpecs) throws Inva
         // throw invalid settings exception if any of those columns does not exist anymore due to a schema change
         m_settings.validateAgainst(inSpecs);
 
-        return new DataTableSpec[0];
+        return m_hasRejectedRowsPort ? new DataTableSpec[]{RejectedRows.SPEC} : new DataTableSpec[0];
     }
 
     @Override
@@ -188,12 +226,173 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
         final String[] tableNames = m_settings.getTableNames();
         final String datasetName = m_settings.getDatasetName();
         final String workspaceId = m_settings.getWorkspace().isEmpty() ? null : m_settings.getWorkspace();
-        final boolean createNewDataset = m_settings.isCreateNewDataset();
-        final boolean allowOverwrite = m_settings.isAllowOverwrite();
-        final boolean appendToExisting = m_settings.isAppendRows();
 
         // Check if the dataset already exists and get its id
         final Dataset dataset = getDataset(auth, workspaceId, datasetName, exec);
+        final String existingDatasetId = dataset == null ? null : dataset.getId();
+
+        // The progress of the last upload of this node to the dataset, kept after a failure to continue the upload
+        final var store = CheckpointStore.forNode(workspaceId, datasetName);
+        final UploadCheckpoint previous = m_settings.isContinueFailedUpload() ? store.load().orElse(null) : null;
+        final Operation operation = getOperation();
+        final boolean skipInvalidRows = m_settings.isSkipInvalidRows();
+        final UploadCheckpoint checkpoint;
+        if (canResume(previous, workspaceId, datasetName, existingDatasetId, operation, skipInvalidRows, tableNames,
+            inData, execPrepare)) {
+            // Continue after the rows that were acknowledged before the last execution failed
+            checkpoint = previous;
+            LOGGER.info("Continuing the previous upload to dataset \"" + datasetName + "\" after "
+                + checkpoint.getAcknowledgedRows() + " rows that were already sent.");
+            setWarningMessage("Continued the previous upload. " + checkpoint.getAcknowledgedRows()
+                + " rows were already sent and are not sent again. Disable \"Continue a failed upload\" to send "
+                + "all rows.");
+        } else {
+            // Also discards the progress of a failed upload that is not continued
+            store.delete();
+            final String preparedDatasetId =
+                prepareDataset(auth, workspaceId, datasetName, dataset, tableNames,
+                    Arrays.stream(inData).map(BufferedDataTable::getDataTableSpec).toArray(DataTableSpec[]::new),
+                    exec);
+            checkpoint = UploadCheckpoint.create(workspaceId, datasetName, preparedDatasetId, operation,
+                skipInvalidRows, tableNames, inData);
+        }
+        checkpoint.persistTo(store);
+
+        // Finish the prepare step
+        execPrepare.setProgress(1);
+
+        // Send the tables
+        final BufferedDataTableRowOutput rejectedOutput = m_hasRejectedRowsPort
+            ? new BufferedDataTableRowOutput(exec.createDataContainer(RejectedRows.SPEC)) : null;
+        final var rejectedRows = new RejectedRows(rejectedOutput);
+        final RowInput[] inputs = Arrays.stream(inData).map(DataTableRowInput::new).toArray(RowInput[]::new);
+        final long[] rowCounts = Arrays.stream(inData).mapToLong(BufferedDataTable::size).toArray();
+        sendTables(inputs, rowCounts, exec, auth, workspaceId, tableNames, checkpoint,
+            Math.min(m_settings.getParallelUploads(), inData.length), rejectedRows);
+
+        // The upload is complete, the next execution sends all rows again
+        store.delete();
+        return m_hasRejectedRowsPort ? new BufferedDataTable[]{rejectedOutput.getDataTable()}
+            : new BufferedDataTable[0];
+    }
+
+    @Override
+    public InputPortRole[] getInputPortRoles() {
+        final var roles = new InputPortRole[getNrInPorts()];
+        Arrays.fill(roles, InputPortRole.NONDISTRIBUTED_STREAMABLE);
+        // The credential
+        roles[0] = InputPortRole.NONDISTRIBUTED_NONSTREAMABLE;
+        return roles;
+    }
+
+    @Override
+    public OutputPortRole[] getOutputPortRoles() {
+        final var roles = new OutputPortRole[getNrOutPorts()];
+        Arrays.fill(roles, OutputPortRole.NONDISTRIBUTED);
+        return roles;
+    }
+
+    @Override
+    public StreamableOperator createStreamableOperator(final PartitionInfo partitionInfo,
+        final PortObjectSpec[] inSpecs) throws InvalidSettingsException {
+        return new StreamableOperator() {
+
+            @Override
+            public void runFinal(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+                throws Exception {
+                executeStreamed(inputs, outputs, exec);
+            }
+        };
+    }
+
+    /**
+     * Sends the rows of streamed input tables while they arrive. The size of the tables is not known and the rows are
+     * not kept, therefore the dataset is always prepared according to the settings and a failed upload cannot be
+     * continued by the next execution.
+     */
+    private void executeStreamed(final PortInput[] inputs, final PortOutput[] outputs, final ExecutionContext exec)
+        throws Exception {
+        exec.setMessage("Checking for existing datasets");
+
+        // Get the credential
+        final var credSpec = ((CredentialPortObject)((PortObjectInput)inputs[0]).getPortObject()).getSpec();
+        final AuthTokenProvider auth = PowerBICredentialUtil.toAccessTokenAccessor(credSpec)::getAccessToken;
+
+        // Get the input rows
+        final RowInput[] rowInputs = Arrays.stream(inputs).skip(1).map(RowInput.class::cast).toArray(RowInput[]::new);
+        final DataTableSpec[] specs =
+            Arrays.stream(rowInputs).map(RowInput::getDataTableSpec).toArray(DataTableSpec[]::new);
+        final long[] rowCounts = new long[rowInputs.length];
+        Arrays.fill(rowCounts, -1);
+
+        // Get the settings
+        final String[] tableNames = m_settings.getTableNames();
+        final String datasetName = m_settings.getDatasetName();
+        final String workspaceId = m_settings.getWorkspace().isEmpty() ? null : m_settings.getWorkspace();
+
+        // The rows cannot be compared with a previous upload, so a streamed upload always starts from the beginning
+        CheckpointStore.forNode(workspaceId, datasetName).delete();
+        final Dataset dataset = getDataset(auth, workspaceId, datasetName, exec);
+        final String datasetId = prepareDataset(auth, workspaceId, datasetName, dataset, tableNames, specs, exec);
+        final UploadCheckpoint checkpoint = UploadCheckpoint.create(workspaceId, datasetName, datasetId,
+            getOperation(), m_settings.isSkipInvalidRows(), tableNames, specs);
+
+        // All inputs are read at the same time: reading them one after another could block the upstream nodes
+        final RowOutput rejectedOutput = m_hasRejectedRowsPort ? (RowOutput)outputs[0] : null;
+        sendTables(rowInputs, rowCounts, exec, auth, workspaceId, tableNames, checkpoint, rowInputs.length,
+            new RejectedRows(rejectedOutput));
+    }
+
+    /**
+     * Sends the rows of all inputs, at most <code>parallelUploads</code> tables at the same time. Closes the rejected
+     * rows and sets a warning if there are any.
+     */
+    private void sendTables(final RowInput[] inputs, final long[] rowCounts, final ExecutionContext exec,
+        final AuthTokenProvider auth, final String workspaceId, final String[] tableNames,
+        final UploadCheckpoint checkpoint, final int parallelUploads, final RejectedRows rejectedRows)
+        throws Exception {
+        final RejectedRows rejected = m_settings.isSkipInvalidRows() ? rejectedRows : null;
+        final String datasetId = checkpoint.getDatasetId();
+        final ExecutionMonitor[] execSendRows = new ExecutionMonitor[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            execSendRows[i] = exec.createSubProgress(PROGRESS_SEND_ROWS / inputs.length);
+        }
+        if (parallelUploads <= 1) {
+            for (int i = 0; i < inputs.length; i++) {
+                sendTable(inputs[i], rowCounts[i], exec, execSendRows[i], auth, workspaceId, datasetId,
+                    tableNames[i], checkpoint, i, rejected);
+            }
+        } else {
+            sendTablesInParallel(inputs, rowCounts, exec, execSendRows, auth, workspaceId, datasetId, tableNames,
+                parallelUploads, checkpoint, rejected);
+        }
+        rejectedRows.close();
+        if (rejectedRows.getCount() > 0) {
+            setWarningMessage(rejectedRows.getCount() + " invalid rows were not sent. "
+                + (m_hasRejectedRowsPort ? "See the rejected rows output for details."
+                    : "Add the rejected rows output port for details."));
+        }
+    }
+
+    /** How {@link #prepareDataset} prepares the dataset according to the settings */
+    private Operation getOperation() {
+        if (m_settings.isCreateNewDataset()) {
+            return m_settings.isAllowOverwrite() ? Operation.RECREATE_DATASET : Operation.CREATE_DATASET;
+        }
+        return m_settings.isAppendRows() ? Operation.APPEND_ROWS : Operation.REPLACE_ROWS;
+    }
+
+    /**
+     * Deletes or creates the dataset, or deletes the rows of its tables, according to the settings.
+     *
+     * @return the id of the dataset to send the rows to
+     */
+    private String prepareDataset(final AuthTokenProvider auth, final String workspaceId, final String datasetName,
+        final Dataset dataset, final String[] tableNames, final DataTableSpec[] specs, final ExecutionContext exec)
+        throws InvalidSettingsException, PowerBIResponseException, CanceledExecutionException {
+        final boolean createNewDataset = m_settings.isCreateNewDataset();
+        final boolean allowOverwrite = m_settings.isAllowOverwrite();
+        final boolean appendToExisting = m_settings.isAppendRows();
         String datasetId = dataset == null ? null : dataset.getId();
 
         // check settings
@@ -214,30 +413,110 @@ protected PortObject[] execute(final PortObject[] inObjects, final ExecutionCont
 
         if (datasetId == null) {
             // Create the dataset
-            final Table[] tables = new Table[inData.length];
-            // tableNames may contain tables from ports that have been removed. These are skipped since inData reflects
+            final Table[] tables = new Table[specs.length];
+            // tableNames may contain tables from ports that have been removed. These are skipped since specs reflects
             // the current number of ports
-            for (int i = 0; i < inData.length; i++) {
-                tables[i] = createTableDef(tableNames[i], inData[i].getDataTableSpec());
+            for (int i = 0; i < specs.length; i++) {
+                tables[i] = createTableDef(tableNames[i], specs[i]);
             }
             // get rid of relationships that refer to tables whose input ports have been removed
-            String[] filterTableNames = Arrays.copyOf(tableNames, inData.length);
+            String[] filterTableNames = Arrays.copyOf(tableNames, specs.length);
             Relationship[] relationships = m_settings.getRelationships(filterTableNames);
             final Dataset pbiDataset = PowerBIRestAPIUtils.postDataset(auth, workspaceId, datasetName,
                 POWERBI_DATASET_MODE, tables, relationships, exec);
             datasetId = pbiDataset.getId();
         }
+        return datasetId;
+    }
 
-        // Finish the prepare step
-        execPrepare.setProgress(1);
-
-        // Send the tables
+    /**
+     * Checks whether the last upload of this node to the dataset failed while sending the same tables with the same
+     * settings. The rows that Power BI acknowledged are encoded again to make sure that they did not change.
+     */
+    private static boolean canResume(final UploadCheckpoint previous, final String workspaceId,
+        final String datasetName, final String datasetId, final Operation operation, final boolean skipInvalidRows,
+        final String[] tableNames, final BufferedDataTable[] inData, final ExecutionMonitor exec)
+        throws CanceledExecutionException {
+        if (previous == null || previous.getAcknowledgedRows() == 0) {
+            return false;
+        }
+        if (!previous.matches(workspaceId, datasetName, datasetId, operation, skipInvalidRows, tableNames, inData)) {
+            LOGGER.info("The input tables or the settings changed since the previous upload failed. "
+                + "All rows are sent again.");
+            return false;
+        }
+        exec.setMessage("Comparing the input with the previous upload");
         for (int i = 0; i < inData.length; i++) {
-            final ExecutionMonitor execSendRows = exec.createSubProgress(PROGRESS_SEND_ROWS / inData.length);
-            sendTable(inData[i], exec, execSendRows, auth, workspaceId, datasetId, tableNames[i]);
+            if (!isAcknowledged(inData[i], previous.getTable(i), exec)) {
+                LOGGER.info("Input table " + (i + 1) + " changed since the previous upload failed. "
+                    + "All rows are sent again.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the acknowledged rows of the table again and compares the checksums. Rows with values that cannot be
+     * encoded are skipped like during the upload.
+     */
+    private static boolean isAcknowledged(final BufferedDataTable table, final TableCheckpoint checkpoint,
+        final ExecutionMonitor exec) throws CanceledExecutionException {
+        final long acknowledgedRows = checkpoint.getAcknowledgedRows();
+        if (acknowledgedRows == 0) {
+            return true;
+        }
+        final var rows = new RowsBuilder(PowerBIRowEncoder.compile(table.getDataTableSpec()), createBatchSizer());
+        long checksum = RowsChecksum.INITIAL;
+        long rowIdx = 0;
+        try (final CloseableRowIterator iterator = table.iterator()) {
+            while (rowIdx < acknowledgedRows && iterator.hasNext()) {
+                if (!rows.acceptsRows()) {
+                    checksum = rows.updateChecksum(checksum);
+                    rows.reset();
+                }
+                try {
+                    rows.addRow(iterator.next(), rowIdx);
+                } catch (final PowerBIIllegalValueException e) { // NOSONAR
+                    // The row was not sent by the upload, or it changed and the checksum differs
+                }
+                rowIdx++;
+                exec.checkCanceled();
+            }
         }
+        checksum = rows.updateChecksum(checksum);
+        return rowIdx == acknowledgedRows && checksum == checkpoint.getRowsChecksum();
+    }
+
+    private static AdaptiveBatchSizer createBatchSizer() {
+        return new AdaptiveBatchSizer(REQUEST_MAX_ROW_COUNT, REQUEST_INITIAL_BODY_LENGTH, REQUEST_MAX_BODY_LENGTH);
+    }
 
-        return new BufferedDataTable[0];
+    /**
+     * Sends the tables on a bounded executor. Waits for all tables and aborts all uploads if one of them fails or the
+     * execution is canceled.
+     */
+    private void sendTablesInParallel(final RowInput[] inputs, final long[] rowCounts, final ExecutionContext exec,
+        final ExecutionMonitor[] execSendRows, final AuthTokenProvider auth, final String workspaceId,
+        final String datasetId, final String[] tableNames, final int parallelUploads,
+        final UploadCheckpoint checkpoint, final RejectedRows rejected) throws Exception {
+        final ExecutorService executor = ParallelExecutionUtil.createExecutor("Send to Power BI", parallelUploads);
+        final var completion = new ExecutorCompletionService<Void>(executor);
+        final List<Future<Void>> uploads = new ArrayList<>(inputs.length);
+        try {
+            for (int i = 0; i < inputs.length; i++) {
+                final int tableIdx = i;
+                uploads.add(completion.submit(() -> {
+                    sendTable(inputs[tableIdx], rowCounts[tableIdx], exec, execSendRows[tableIdx], auth,
+                        workspaceId, datasetId, tableNames[tableIdx], checkpoint, tableIdx, rejected);
+                    return null;
+                }));
+            }
+            // the first failed upload cancels the others
+            ParallelExecutionUtil.waitForAll(completion, uploads.size(), exec);
+        } finally {
+            ParallelExecutionUtil.cancelAll(uploads, executor);
+        }
     }
 
     /**
@@ -266,30 +545,167 @@ private static void checkSettingsForExecute(final String datasetName, final bool
         }
     }
 
-    private void sendTable(final BufferedDataTable table, final ExecutionContext exec, final ExecutionMonitor exem,
-        final AuthTokenProvider auth, final String workspaceId, final String datasetId, final String tableName)
-        throws CanceledExecutionException, PowerBIResponseException, PowerBIIllegalValueException {
-        final RowsBuilder rowBuilder = new RowsBuilder(getColumnIndexMap(table.getDataTableSpec()));
-        long rowIdx = 0;
-        final double rowCount = table.size();
-        exem.setProgress(0);
-        for (final DataRow row : table) {
-            if (!rowBuilder.acceptsRows()) {
-                // Send to Power BI
-                PowerBIRestAPIUtils.postRows(auth, workspaceId, datasetId, tableName, rowBuilder.toString(), exec);
-                rowBuilder.reset();
+    /**
+     * Sends the rows of the input, <code>rowCount</code> is -1 if the input is streamed. The rows are serialized into
+     * batches on the calling thread while a sender thread posts the completed batches in order. At most
+     * {@value #PIPELINE_BATCHES} batches are in memory at once. Rows that were already acknowledged according to the
+     * checkpoint are skipped, every acknowledged batch is recorded. For a paced upload the sender waits for the hourly
+     * window of each batch. The size of the batches adapts to the latency of the requests, a batch that Power BI
+     * rejects as too large is split and sent in halves. A batch that is not full is sent anyway if the rows arrive
+     * slowly: the sender seals the open batch once it is {@link #BATCH_MAX_DELAY_NANOS} old, also while no further
+     * row arrives. If <code>rejected</code> is not <code>null</code>, rows with
+     * unsupported values are not sent and batches that Power BI rejects are split until the invalid rows are found.
+     * These rows are added to <code>rejected</code>.
+     */
+    private void sendTable(final RowInput input, final long rowCount, final ExecutionContext exec,
+        final ExecutionMonitor exem, final AuthTokenProvider auth, final String workspaceId, final String datasetId,
+        final String tableName, final UploadCheckpoint upload, final int tableIdx, final RejectedRows rejected)
+        throws Exception {
+        final DataTableSpec spec = input.getDataTableSpec();
+        checkCompatibleColumns(spec);
+        final TableCheckpoint checkpoint = upload.getTable(tableIdx);
+        final UploadPacer pacer = m_settings.isPacedUpload() ? upload.getPacer() : null;
+        final long skippedRows = checkpoint.getAcknowledgedRows();
+        if (skippedRows > 0 && skippedRows == rowCount) {
+            // Completely sent by the previous execution
+            input.close();
+            exem.setProgress(1);
+            return;
+        }
+        final PowerBIRowEncoder encoder = PowerBIRowEncoder.compile(spec);
+        final AdaptiveBatchSizer sizer = createBatchSizer();
+        final BlockingQueue<RowsBuilder> free = new ArrayBlockingQueue<>(PIPELINE_BATCHES);
+        final BlockingQueue<RowsBuilder> ready = new ArrayBlockingQueue<>(PIPELINE_BATCHES);
+        for (int i = 0; i < PIPELINE_BATCHES; i++) {
+            free.add(new RowsBuilder(encoder, sizer));
+        }
+        final var poster = new RowsPoster(tableName, (rows, count) -> PowerBIRestAPIUtils.postRows(auth,
+            workspaceId, datasetId, tableName, rows, count, exec), checkpoint, sizer, rejected);
+        final var open = new OpenBatch();
+
+        final ExecutorService sender = ParallelExecutionUtil.createExecutor("Send to Power BI rows", 1);
+        final Future<Void> sending = sender.submit(() -> {
+            while (true) {
+                RowsBuilder rows = ready.poll(PIPELINE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (rows == null) {
+                    // Nothing to send, the batch that is being filled is sent if its rows have waited long enough
+                    rows = open.sealIfDue(ready);
+                    if (rows == null) {
+                        continue;
+                    }
+                }
+                if (rows.m_rowCount > 0) {
+                    if (pacer != null) {
+                        pacer.acquire(rows.m_rowCount, exec);
+                    }
+                    poster.post(rows, 0, rows.m_rowCount);
+                }
+                // Also covers rows after the last sent row that were not sent because of unsupported values
+                checkpoint.skipTo(rows.m_endRowIdx);
+                upload.persist();
+                if (rows.m_last) {
+                    return null;
+                }
+                rows.reset();
+                free.add(rows);
+            }
+        });
+        try {
+            long rowIdx = 0;
+            exem.setProgress(0);
+            String remaining = describeRemaining(upload, pacer);
+            DataRow row;
+            while ((row = input.poll()) != null) {
+                if (rowIdx < skippedRows) {
+                    // Acknowledged in a previous execution
+                    rowIdx++;
+                    continue;
+                }
+                final RowsBuilder full = open.detachIfFull();
+                if (full != null) {
+                    // Hand the batch over to the sender and continue with the next one
+                    put(ready, full, sending, exec);
+                    remaining = describeRemaining(upload, pacer);
+                }
+                try {
+                    // The sender may have sealed the open batch meanwhile
+                    while (!open.addRow(row, rowIdx)) {
+                        open.open(take(free, sending, exec));
+                    }
+                } catch (final PowerBIIllegalValueException e) {
+                    if (rejected == null) {
+                        throw e;
+                    }
+                    rejected.add(tableName, row.getKey(), rowIdx, e.getMessage());
+                }
+                if (rowCount > 0) {
+                    exem.setProgress(rowIdx / (double)rowCount,
+                        "Sending row " + rowIdx + " of " + rowCount + remaining);
+                } else {
+                    exem.setMessage("Sending row " + rowIdx + remaining);
+                }
+                rowIdx++;
+                exec.checkCanceled();
+            }
+            // Send the last rows
+            RowsBuilder last = open.detach();
+            if (last == null) {
+                last = take(free, sending, exec);
             }
-            rowBuilder.addRow(row);
-            exem.setProgress(rowIdx / rowCount, "Sending row " + rowIdx + " of " + (long)rowCount);
-            rowIdx++;
-            // TODO can we delete the dataset that is uploaded half way?
-            exec.checkCanceled();
-        }
-        // Send the last rows
-        PowerBIRestAPIUtils.postRows(auth, workspaceId, datasetId, tableName, rowBuilder.toString(), exec);
+            last.m_last = true;
+            put(ready, last, sending, exec);
+            ParallelExecutionUtil.waitFor(sending, exec);
+        } finally {
+            input.close();
+            ParallelExecutionUtil.cancelAll(List.of(sending), sender);
+        }
         exem.setProgress(1);
     }
 
+    /** The estimated remaining time of a paced upload for the progress message */
+    private static String describeRemaining(final UploadCheckpoint upload, final UploadPacer pacer) {
+        if (pacer == null) {
+            return "";
+        }
+        final long remainingRows = upload.getRemainingRows();
+        if (remainingRows < 0) {
+            // The number of rows of a streamed input is not known
+            return " (paced upload)";
+        }
+        final Duration remaining = pacer.estimateRemaining(remainingRows);
+        return remaining.isZero() ? " (paced upload)"
+            : (" (paced upload, about " + UploadPacer.format(remaining) + " remaining)");
+    }
+
+    /** Takes an element from the queue, fails if the sender failed or the execution was canceled meanwhile */
+    private static RowsBuilder take(final BlockingQueue<RowsBuilder> queue, final Future<Void> sending,
+        final ExecutionContext exec) throws Exception {
+        while (true) {
+            final RowsBuilder rows = queue.poll(PIPELINE_POLL_MS, TimeUnit.MILLISECONDS);
+            if (rows != null) {
+                return rows;
+            }
+            checkSender(sending, exec);
+        }
+    }
+
+    /** Puts an element into the queue, fails if the sender failed or the execution was canceled meanwhile */
+    private static void put(final BlockingQueue<RowsBuilder> queue, final RowsBuilder rows,
+        final Future<Void> sending, final ExecutionContext exec) throws Exception {
+        while (!queue.offer(rows, PIPELINE_POLL_MS, TimeUnit.MILLISECONDS)) {
+            checkSender(sending, exec);
+        }
+    }
+
+    private static void checkSender(final Future<Void> sending, final ExecutionContext exec) throws Exception {
+        exec.checkCanceled();
+        if (sending.isDone()) {
+            // rethrows the failure of the sender
+            ParallelExecutionUtil.waitFor(sending, exec);
+            throw new IllegalStateException("Sending the rows stopped unexpectedly.");
+        }
+    }
+
     /** Deletes all rows from the given tables from the given dataset */
     private static void deleteRowsFromTables(final AuthTokenProvider auth, final String workspaceId,
         final String datasetId, final String[] tableNames, final ExecutionContext exec)
@@ -299,7 +715,10 @@ private static void deleteRowsFromTables(final AuthTokenProvider auth, final Str
         }
     }
 
-    /** Checks the size of the given tables. Sets a warning if > 1M rows and throws exception if > 5M rows */
+    /**
+     * Checks the size of the given tables. Sets a warning if > 1M rows (unless the upload is paced) and throws
+     * exception if > 5M rows
+     */
     private void checkTableSize(final BufferedDataTable[] inData) throws InvalidSettingsException {
         // Check the size of the tables
         long totalNumRows = 0;
@@ -311,13 +730,16 @@ private void checkTableSize(final BufferedDataTable[] inData) throws InvalidSett
             }
             totalNumRows += inData[i].size();
         }
-        if (totalNumRows > POWERBI_MAX_ROWS_PER_HOUR) {
+        if (totalNumRows > POWERBI_MAX_ROWS_PER_HOUR && m_settings.isPacedUpload()) {
+            LOGGER.info("The input contains " + totalNumRows + " rows, the paced upload sends at most "
+                + POWERBI_MAX_ROWS_PER_HOUR + " rows per hour to the dataset.");
+        } else if (totalNumRows > POWERBI_MAX_ROWS_PER_HOUR) {
             final String prefix = inData.length == 1 ? "The input table contains " : "The input tables contain ";
             setWarningMessage(prefix + "more rows than can be uploaded to Power BI per hour. See log for details.");
             LOGGER.warn(prefix + totalNumRows
                 + " rows in total which is more than the maximum amount that can be uploaded to Power BI in one hour ("
-                + POWERBI_MAX_ROWS_PER_HOUR + "). " + "The node will probably fail because of this. "
-                + "Consider filtering the rows and sending only " + POWERBI_MAX_ROWS_PER_HOUR + " rows per hour.");
+                + POWERBI_MAX_ROWS_PER_HOUR + "). The upload waits for this limit and takes more than an hour. "
+                + "Enable the paced upload to see the estimated remaining time.");
         }
     }
 
@@ -365,22 +787,19 @@ private static Column[] createColumnsDef(final DataTableSpec tableSpec) {
         return columns.toArray(new Column[0]);
     }
 
-    /** Get a map of compatible columns (as JSON strings) and their index in the input table */
-    private Map<String, Integer> getColumnIndexMap(final DataTableSpec tableSpec) {
-        final Map<String, Integer> columns = new HashMap<>();
+    /** Counts the columns compatible with Power BI and sets a warning if there are incompatible columns */
+    private int checkCompatibleColumns(final DataTableSpec tableSpec) {
+        int compatibleColumns = 0;
         final List<String> incompatibleColumns = new ArrayList<>();
-        boolean hasIncompatibleColumns = false;
         for (int i = 0; i < tableSpec.getNumColumns(); i++) {
             final DataColumnSpec columnSpec = tableSpec.getColumnSpec(i);
             if (PowerBIDataTypeUtils.powerBITypeForKNIMEType(columnSpec.getType()).isPresent()) {
-                final String columnName = GSON.toJson(tableSpec.getColumnNames()[i]);
-                columns.put(columnName, i);
+                compatibleColumns++;
             } else {
-                hasIncompatibleColumns = true;
                 incompatibleColumns.add(columnSpec.getName());
             }
         }
-        if (hasIncompatibleColumns) {
+        if (!incompatibleColumns.isEmpty()) {
             LOGGER.warn(
                 "The table contains " + incompatibleColumns.size() + " incompatible columns which will be ignored. "
                     + "See node description for the list of supported datatypes.");
@@ -389,7 +808,7 @@ private Map<String, Integer> getColumnIndexMap(final DataTableSpec tableSpec) {
             setWarningMessage(message);
         }
 
-        return columns;
+        return compatibleColumns;
     }
 
     @Override
@@ -422,72 +841,196 @@ protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws I
     @Override
     protected void loadInternals(final File nodeInternDir, final ExecutionMonitor exec)
         throws IOException, CanceledExecutionException {
-        // Nothing to do
-
+        // Nothing to do, the internals are only saved for executed nodes but the progress of an upload is only kept
+        // while it is not complete. It is kept in the CheckpointStore instead.
     }
 
     @Override
     protected void saveInternals(final File nodeInternDir, final ExecutionMonitor exec)
         throws IOException, CanceledExecutionException {
-        // Nothing to do
+        // Nothing to do, the progress of a failed upload is saved in the CheckpointStore after every batch, see
+        // loadInternals
     }
 
     @Override
     protected void reset() {
-        // Nothing to do
+        // Nothing to do, the checkpoint of a failed upload is kept in the checkpoint store until the next execution
     }
 
-    /** A builder that takes KNIME rows and adds them to a JSON string */
-    private static final class RowsBuilder {
+    /**
+     * The batch that is being filled. Rows are added by the thread that reads the input; the sender seals the batch if
+     * its first row has waited for {@link #BATCH_MAX_DELAY_NANOS} while nothing else is sent, so slowly arriving rows
+     * are sent even if no further row arrives.
+     */
+    private static final class OpenBatch {
 
-        private static final String ROWS_JSON_START = "{\"rows\":[";
+        /** The open batch, <code>null</code> if none is open. Guarded by this. */
+        private RowsBuilder m_rows;
 
-        private static final String ROWS_JSON_END = "]}";
+        /** Opens the given empty batch */
+        private synchronized void open(final RowsBuilder rows) {
+            m_rows = rows;
+        }
 
-        private final Map<String, Integer> m_columnNameAndIndex;
+        /**
+         * Adds the row to the open batch.
+         *
+         * @return <code>false</code> if no batch is open
+         */
+        private synchronized boolean addRow(final DataRow row, final long rowIdx) throws PowerBIIllegalValueException {
+            if (m_rows == null) {
+                return false;
+            }
+            m_rows.addRow(row, rowIdx);
+            return true;
+        }
+
+        /** Removes and returns the open batch if it does not accept further rows */
+        private synchronized RowsBuilder detachIfFull() {
+            return m_rows == null || m_rows.acceptsRows() ? null : detach();
+        }
+
+        /** Removes and returns the open batch, <code>null</code> if none is open */
+        private synchronized RowsBuilder detach() {
+            final RowsBuilder rows = m_rows;
+            m_rows = null;
+            return rows;
+        }
+
+        /**
+         * Removes and returns the open batch if its rows have waited long enough. Only called by the sender: since
+         * the ready batches were all sent before, the open batch is the next one in order.
+         *
+         * @param ready the batches handed over by the reading thread, the open batch is only sealed if it is empty
+         * @return the sealed batch or <code>null</code>
+         */
+        private synchronized RowsBuilder sealIfDue(final BlockingQueue<RowsBuilder> ready) {
+            if (m_rows == null || m_rows.m_rowCount == 0 || !ready.isEmpty()
+                || System.nanoTime() - m_rows.m_startNanos < BATCH_MAX_DELAY_NANOS) {
+                return null;
+            }
+            return detach();
+        }
+    }
+
+    /**
+     * A builder that takes KNIME rows and adds them to a UTF-8 encoded JSON buffer. Ranges of rows of the buffer are
+     * streamed to the request body (possibly multiple times if the request is retried).
+     */
+    private static final class RowsBuilder implements RowsPoster.Batch {
+
+        private static final byte[] ROWS_JSON_START = "{\"rows\":[".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] ROWS_JSON_END = "]}".getBytes(StandardCharsets.US_ASCII);
+
+        private final PowerBIRowEncoder m_encoder;
+
+        private final AdaptiveBatchSizer m_sizer;
+
+        private final JsonOutputBuffer m_buffer = new JsonOutputBuffer();
+
+        /** The index in the buffer after each row (the index of the separating comma if another row follows) */
+        private final int[] m_rowEnds = new int[REQUEST_MAX_ROW_COUNT];
+
+        /** The keys of the rows of the batch */
+        private final RowKey[] m_rowKeys = new RowKey[REQUEST_MAX_ROW_COUNT];
+
+        /** The indices of the rows of the batch in the input table */
+        private final long[] m_rowIndices = new long[REQUEST_MAX_ROW_COUNT];
+
+        private int m_rowCount;
+
+        /** The index in the input table after the last row that was added, including rows that could not be added */
+        private long m_endRowIdx;
 
-        private StringBuilder m_builder;
+        /** When the first row of the batch was added, see {@link System#nanoTime()} */
+        private long m_startNanos;
 
-        private long m_rowCount;
+        /** Whether this is the last batch of the table */
+        private boolean m_last;
 
-        private RowsBuilder(final Map<String, Integer> columnNameAndIndex) {
-            m_columnNameAndIndex = columnNameAndIndex;
+        private RowsBuilder(final PowerBIRowEncoder encoder, final AdaptiveBatchSizer sizer) {
+            m_encoder = encoder;
+            m_sizer = sizer;
             reset();
         }
 
-        private void addRow(final DataRow row) throws PowerBIIllegalValueException {
-            boolean firstCol = true;
-            m_builder.append(m_rowCount == 0 ? "{" : ",{");
-            for (final Entry<String, Integer> colNameIndex : m_columnNameAndIndex.entrySet()) {
-                final Optional<String> value =
-                    PowerBIDataTypeUtils.powerBIValueForKNIMEValue(row.getCell(colNameIndex.getValue()));
-                if (value.isPresent()) {
-                    if (!firstCol) {
-                        m_builder.append(",");
-                    }
-                    m_builder.append(colNameIndex.getKey() + ":");
-                    m_builder.append(value.get());
-                    firstCol = false;
-                }
+        /**
+         * Adds the row with the given index in the input table. If the row contains an unsupported value the batch is
+         * left unchanged.
+         */
+        private void addRow(final DataRow row, final long rowIdx) throws PowerBIIllegalValueException {
+            m_endRowIdx = rowIdx + 1;
+            final int size = m_buffer.size();
+            if (m_rowCount > 0) {
+                m_buffer.appendAscii(',');
+            }
+            try {
+                m_encoder.encode(row, m_buffer);
+            } catch (final PowerBIIllegalValueException e) {
+                m_buffer.truncate(size);
+                throw e;
             }
-            m_builder.append("}");
+            if (m_rowCount == 0) {
+                m_startNanos = System.nanoTime();
+            }
+            m_rowEnds[m_rowCount] = m_buffer.size();
+            m_rowKeys[m_rowCount] = row.getKey();
+            m_rowIndices[m_rowCount] = rowIdx;
             m_rowCount++;
         }
 
         private boolean acceptsRows() {
-            return m_rowCount < REQUEST_MAX_ROW_COUNT //
-                && m_builder.length() < REQUEST_MAX_BODY_LENGTH - 2;
+            return m_rowCount < Math.min(m_sizer.getRows(), m_rowEnds.length) //
+                && m_buffer.size() < m_sizer.getBytes() - ROWS_JSON_START.length - ROWS_JSON_END.length //
+                && (m_rowCount == 0 || System.nanoTime() - m_startNanos < BATCH_MAX_DELAY_NANOS);
+        }
+
+        @Override
+        public int getRowCount() {
+            return m_rowCount;
+        }
+
+        @Override
+        public int offsetOf(final int rowIdx) {
+            if (rowIdx == 0) {
+                return 0;
+            }
+            return rowIdx < m_rowCount ? (m_rowEnds[rowIdx - 1] + 1) : m_buffer.size();
+        }
+
+        /** Continues the checksum with all rows of the batch */
+        private long updateChecksum(final long checksum) {
+            return m_rowCount == 0 ? checksum : RowsChecksum.update(checksum, m_buffer, 0, m_buffer.size());
         }
 
         private void reset() {
-            m_builder = new StringBuilder();
-            m_builder.append(ROWS_JSON_START);
+            m_buffer.reset();
+            Arrays.fill(m_rowKeys, 0, m_rowCount, null);
             m_rowCount = 0;
+            m_endRowIdx = 0;
+        }
+
+        @Override
+        public RowKey getRowKey(final int rowIdx) {
+            return m_rowKeys[rowIdx];
+        }
+
+        @Override
+        public long getRowIndex(final int rowIdx) {
+            return m_rowIndices[rowIdx];
+        }
+
+        @Override
+        public JsonOutputBuffer getBuffer() {
+            return m_buffer;
         }
 
         @Override
-        public String toString() {
-            return m_builder.append(ROWS_JSON_END).toString();
+        public void write(final OutputStream output, final int offset, final int length) throws IOException {
+            output.write(ROWS_JSON_START);
+            m_buffer.writeTo(output, offset, length);
+            output.write(ROWS_JSON_END);
         }
     }
 }
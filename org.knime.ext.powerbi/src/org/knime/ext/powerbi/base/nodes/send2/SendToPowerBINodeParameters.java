@@ -106,6 +106,9 @@
 import org.knime.node.parameters.widget.choices.ValueSwitchWidget;
 import org.knime.node.parameters.widget.message.TextMessage;
 import org.knime.node.parameters.widget.message.TextMessage.MessageType;
+import org.knime.node.parameters.widget.number.NumberInputWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
 import org.knime.node.parameters.widget.text.TextInputWidget;
 import org.knime.node.parameters.widget.text.TextInputWidgetValidation.PatternValidation;
 
@@ -195,6 +198,44 @@ different input tables and typically share common values (e.g., foreign keys).
     @Effect(predicate = CannotDefineRelationships.class, type = EffectType.HIDE)
     Relationship[] m_relationships = new Relationship[0];
 
+    @Widget(title = "Concurrent table uploads", description = """
+            The number of input tables that are uploaded at the same time. Power BI limits the number of requests
+            per dataset, hence higher values mostly help if the upload time is dominated by the network latency.
+            """, advanced = true)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class, maxValidation = MaxParallelUploads.class)
+    @Persist(configKey = SendToPowerBINodeSettings2.CFG_KEY_PARALLEL_UPLOADS)
+    int m_parallelUploads = 1;
+
+    @Widget(title = "Paced upload", description = """
+            If enabled, the node waits for the next hourly window before a batch that does not fit into the current
+            one and shows the estimated remaining time. Use this option to follow uploads of more than one million
+            rows. In both cases no more rows are sent per hour than Power BI allows, counting the rows that other
+            nodes in this KNIME instance send to the same dataset.
+            """, advanced = true)
+    @Persist(configKey = SendToPowerBINodeSettings2.CFG_KEY_PACED_UPLOAD)
+    boolean m_pacedUpload;
+
+    @Widget(title = "Skip invalid rows", description = """
+            If enabled, rows that cannot be sent are skipped instead of failing the node. This includes rows with
+            values that are not supported by Power BI, e.g. strings with more than 4000 characters, and rows that
+            Power BI rejects. Rejected batches are split until the offending rows are found. The skipped rows and
+            the reason are provided at the optional rejected rows output port.
+            """, advanced = true)
+    @Persist(configKey = SendToPowerBINodeSettings2.CFG_KEY_SKIP_INVALID_ROWS)
+    boolean m_skipInvalidRows;
+
+    @Widget(title = "Continue a failed upload", description = """
+            If enabled and the previous execution of this node failed while uploading, the next execution only
+            sends the rows that Power BI has not acknowledged yet. The upload is only continued if the input tables,
+            the dataset, the table operation, and the handling of invalid rows are the same as before. The dataset
+            is not prepared again, i.e. it is not recreated and the rows of its tables are not deleted. Only enable
+            this option if the tables in Power BI were not changed since the failure. The progress is stored in the
+            KNIME home directory after every batch, also across restarts. If disabled, the next execution discards
+            the stored progress and sends all rows.
+            """, advanced = true)
+    @Persist(configKey = SendToPowerBINodeSettings2.CFG_KEY_CONTINUE_FAILED_UPLOAD)
+    boolean m_continueFailedUpload;
+
     enum DatasetMode {
             @Label("Create new dataset")
             CREATE_NEW,
@@ -922,6 +963,13 @@ public TableName[] computeState(final NodeParametersInput input) {
         }
     }
 
+    static final class MaxParallelUploads extends NumberInputWidgetValidation.MaxValidation {
+        @Override
+        protected double getMax() {
+            return SendToPowerBINodeSettings2.MAX_PARALLEL_UPLOADS;
+        }
+    }
+
     static final class TableOperationPersistor extends EnumBooleanPersistor<TableOperation> {
 
         TableOperationPersistor() {
@@ -101,6 +101,17 @@ final class SendToPowerBINodeSettings2 {
 
     static final String CFG_KEY_APPEND_ROWS = "append_rows";
 
+    static final String CFG_KEY_PARALLEL_UPLOADS = "parallel_uploads";
+
+    /** The maximum number of tables that are uploaded at the same time */
+    static final int MAX_PARALLEL_UPLOADS = 8;
+
+    static final String CFG_KEY_PACED_UPLOAD = "paced_upload";
+
+    static final String CFG_KEY_SKIP_INVALID_ROWS = "skip_invalid_rows";
+
+    static final String CFG_KEY_CONTINUE_FAILED_UPLOAD = "continue_failed_upload";
+
     private String m_workspace = "";
 
     private String m_datasetName = "";
@@ -129,6 +140,14 @@ final class SendToPowerBINodeSettings2 {
 
     private boolean m_appendRows = true;
 
+    private int m_parallelUploads = 1;
+
+    private boolean m_pacedUpload = false;
+
+    private boolean m_skipInvalidRows = false;
+
+    private boolean m_continueFailedUpload = false;
+
     /**
      * @return the workspace
      */
@@ -286,6 +305,65 @@ void setAppendRows(final boolean appendRows) {
         m_appendRows = appendRows;
     }
 
+    /**
+     * @return the number of tables that are uploaded at the same time
+     */
+    int getParallelUploads() {
+        return m_parallelUploads;
+    }
+
+    /**
+     * @param parallelUploads the number of tables that are uploaded at the same time
+     */
+    void setParallelUploads(final int parallelUploads) {
+        m_parallelUploads = parallelUploads;
+    }
+
+    /**
+     * @return whether the node waits for the hourly windows before sending and shows the estimated remaining time
+     */
+    boolean isPacedUpload() {
+        return m_pacedUpload;
+    }
+
+    /**
+     * @param pacedUpload whether the node waits for the hourly windows before sending and shows the estimated
+     *            remaining time
+     */
+    void setPacedUpload(final boolean pacedUpload) {
+        m_pacedUpload = pacedUpload;
+    }
+
+    /**
+     * @return whether rows with unsupported values or rows rejected by Power BI are skipped instead of failing
+     */
+    boolean isSkipInvalidRows() {
+        return m_skipInvalidRows;
+    }
+
+    /**
+     * @param skipInvalidRows whether rows with unsupported values or rows rejected by Power BI are skipped instead of
+     *            failing
+     */
+    void setSkipInvalidRows(final boolean skipInvalidRows) {
+        m_skipInvalidRows = skipInvalidRows;
+    }
+
+    /**
+     * @return whether an upload of this node that failed is continued after the rows that Power BI acknowledged
+     */
+    boolean isContinueFailedUpload() {
+        return m_continueFailedUpload;
+    }
+
+    /**
+     * @param continueFailedUpload whether an upload of this node that failed is continued after the rows that Power
+     *            BI acknowledged
+     */
+    void setContinueFailedUpload(final boolean continueFailedUpload) {
+        m_continueFailedUpload = continueFailedUpload;
+    }
+
     void saveSettingsTo(final NodeSettingsWO settings) throws IOException, InvalidSettingsException {
         settings.addString(CFG_KEY_WORKSPACE, getWorkspace());
         settings.addString(CFG_KEY_DATASET_NAME, getDatasetName());
@@ -302,6 +380,10 @@ void saveSettingsTo(final NodeSettingsWO settings) throws IOException, InvalidSe
         settings.addBoolean(CFG_KEY_CREATE_NEW_DATASET, m_createNewDataset);
         settings.addBoolean(CFG_KEY_ALLOW_OVERWRITE, m_allowOverwrite);
         settings.addBoolean(CFG_KEY_APPEND_ROWS, m_appendRows);
+        settings.addInt(CFG_KEY_PARALLEL_UPLOADS, m_parallelUploads);
+        settings.addBoolean(CFG_KEY_PACED_UPLOAD, m_pacedUpload);
+        settings.addBoolean(CFG_KEY_SKIP_INVALID_ROWS, m_skipInvalidRows);
+        settings.addBoolean(CFG_KEY_CONTINUE_FAILED_UPLOAD, m_continueFailedUpload);
     }
 
     static void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
@@ -323,6 +405,12 @@ static void validateSettings(final NodeSettingsRO settings) throws InvalidSettin
         String[] toTables = settings.getStringArray(CFG_KEY_RELATIONSHIP_TOTABLES);
         String[] toColumns = settings.getStringArray(CFG_KEY_RELATIONSHIP_TOCOLUMNS);
         checkRelationshipsValid(fromTables, fromColumns, toTables, toColumns);
+
+        final int parallelUploads = settings.getInt(CFG_KEY_PARALLEL_UPLOADS, 1);
+        if (parallelUploads < 1 || parallelUploads > MAX_PARALLEL_UPLOADS) {
+            throw new InvalidSettingsException(
+                "The number of concurrent table uploads must be between 1 and " + MAX_PARALLEL_UPLOADS + ".");
+        }
     }
 
     void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException, IOException {
@@ -341,6 +429,10 @@ void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSett
         setCreateNewDataset(settings.getBoolean(CFG_KEY_CREATE_NEW_DATASET));
         setAllowOverwrite(settings.getBoolean(CFG_KEY_ALLOW_OVERWRITE));
         setAppendRows(settings.getBoolean(CFG_KEY_APPEND_ROWS, true));
+        setParallelUploads(settings.getInt(CFG_KEY_PARALLEL_UPLOADS, 1));
+        setPacedUpload(settings.getBoolean(CFG_KEY_PACED_UPLOAD, false));
+        setSkipInvalidRows(settings.getBoolean(CFG_KEY_SKIP_INVALID_ROWS, false));
+        setContinueFailedUpload(settings.getBoolean(CFG_KEY_CONTINUE_FAILED_UPLOAD, false));
     }
 
     /** Checks that no table name are valid. All set and none twice. */
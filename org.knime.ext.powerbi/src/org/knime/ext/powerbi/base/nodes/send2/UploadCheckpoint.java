@@ -0,0 +1,523 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.ext.powerbi.core.JsonOutputBuffer;
+import org.knime.ext.powerbi.core.PowerBIDataTypeUtils;
+
+/**
+ * The progress of an upload of the Send to Power BI node. For every table it records how many rows were processed
+ * and a checksum of the rows that were sent. If an upload fails, a re-execution with the same input and settings can
+ * continue after the last acknowledged row instead of uploading all rows again. The checkpoint is saved to a
+ * {@link CheckpointStore} after every acknowledged batch.
+ */
+final class UploadCheckpoint {
+
+    private static final String CFG_KEY_WORKSPACE = "workspace";
+
+    private static final String CFG_KEY_DATASET_NAME = "dataset_name";
+
+    private static final String CFG_KEY_DATASET_ID = "dataset_id";
+
+    private static final String CFG_KEY_OPERATION = "operation";
+
+    private static final String CFG_KEY_SKIP_INVALID_ROWS = "skip_invalid_rows";
+
+    private static final String CFG_KEY_NUM_TABLES = "num_tables";
+
+    private static final String CFG_KEY_PACER = "pacer";
+
+    private static final String CFG_KEY_TABLE_PREFIX = "table_";
+
+    private static final String CFG_KEY_TABLE_NAME = "name";
+
+    private static final String CFG_KEY_COLUMNS_CHECKSUM = "columns_checksum";
+
+    private static final String CFG_KEY_ROW_COUNT = "row_count";
+
+    private static final String CFG_KEY_ACKNOWLEDGED_ROWS = "acknowledged_rows";
+
+    private static final String CFG_KEY_ROWS_CHECKSUM = "rows_checksum";
+
+    /** The row count of a streamed table which is not known in advance */
+    private static final long UNKNOWN_ROW_COUNT = -1;
+
+    private final String m_workspaceId;
+
+    private final String m_datasetName;
+
+    private final String m_datasetId;
+
+    private final Operation m_operation;
+
+    private final boolean m_skipInvalidRows;
+
+    private final TableCheckpoint[] m_tables;
+
+    private final UploadPacer m_pacer;
+
+    /** Where the checkpoint is saved, <code>null</code> if it is not saved */
+    private CheckpointStore m_store;
+
+    private UploadCheckpoint(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final TableCheckpoint[] tables,
+        final UploadPacer pacer) {
+        m_workspaceId = workspaceId;
+        m_datasetName = datasetName;
+        m_datasetId = datasetId;
+        m_operation = operation;
+        m_skipInvalidRows = skipInvalidRows;
+        m_tables = tables;
+        m_pacer = pacer;
+    }
+
+    /**
+     * Creates a checkpoint for an upload that has not sent any rows yet.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @param datasetId the id of the dataset the rows are sent to
+     * @param operation how the dataset was prepared for the upload
+     * @param skipInvalidRows whether invalid rows are skipped instead of failing the upload
+     * @param tableNames the names of the tables, the first <code>inData.length</code> are used
+     * @param inData the tables that are uploaded
+     * @return the checkpoint
+     */
+    static UploadCheckpoint create(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final String[] tableNames,
+        final BufferedDataTable[] inData) {
+        return create(workspaceId, datasetName, datasetId, operation, skipInvalidRows, tableNames,
+            Arrays.stream(inData).map(BufferedDataTable::getDataTableSpec).toArray(DataTableSpec[]::new),
+            Arrays.stream(inData).mapToLong(BufferedDataTable::size).toArray());
+    }
+
+    /**
+     * Creates a checkpoint for a streamed upload. The number of rows of the tables is not known in advance and the
+     * upload cannot be continued by another execution.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @param datasetId the id of the dataset the rows are sent to
+     * @param operation how the dataset was prepared for the upload
+     * @param skipInvalidRows whether invalid rows are skipped instead of failing the upload
+     * @param tableNames the names of the tables, the first <code>specs.length</code> are used
+     * @param specs the specs of the tables that are uploaded
+     * @return the checkpoint
+     */
+    static UploadCheckpoint create(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final String[] tableNames,
+        final DataTableSpec[] specs) {
+        final long[] rowCounts = new long[specs.length];
+        Arrays.fill(rowCounts, UNKNOWN_ROW_COUNT);
+        return create(workspaceId, datasetName, datasetId, operation, skipInvalidRows, tableNames, specs, rowCounts);
+    }
+
+    /**
+     * Creates a checkpoint for an upload that has not sent any rows yet.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @param datasetId the id of the dataset the rows are sent to
+     * @param operation how the dataset was prepared for the upload
+     * @param skipInvalidRows whether invalid rows are skipped instead of failing the upload
+     * @param tableNames the names of the tables, the first <code>specs.length</code> are used
+     * @param specs the specs of the tables that are uploaded
+     * @param rowCounts the number of rows of the tables
+     * @return the checkpoint
+     */
+    static UploadCheckpoint create(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final String[] tableNames,
+        final DataTableSpec[] specs, final long[] rowCounts) {
+        final var tables = new TableCheckpoint[specs.length];
+        for (int i = 0; i < specs.length; i++) {
+            tables[i] = new TableCheckpoint(tableNames[i], columnsChecksum(specs[i]), rowCounts[i], 0,
+                RowsChecksum.INITIAL);
+        }
+        return new UploadCheckpoint(workspaceId, datasetName, datasetId, operation, skipInvalidRows, tables,
+            new UploadPacer(datasetId));
+    }
+
+    /**
+     * Checks whether the upload of this checkpoint sends the same tables to the same dataset with the same settings.
+     * The acknowledged batches still have to be compared with the input.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @param datasetId the id of the existing dataset with this name or <code>null</code> if there is none
+     * @param operation how the dataset is prepared for the upload
+     * @param skipInvalidRows whether invalid rows are skipped instead of failing the upload
+     * @param tableNames the names of the tables
+     * @param inData the tables to upload
+     * @return if the upload can be continued
+     */
+    boolean matches(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final String[] tableNames,
+        final BufferedDataTable[] inData) {
+        return matches(workspaceId, datasetName, datasetId, operation, skipInvalidRows, tableNames,
+            Arrays.stream(inData).map(BufferedDataTable::getDataTableSpec).toArray(DataTableSpec[]::new),
+            Arrays.stream(inData).mapToLong(BufferedDataTable::size).toArray());
+    }
+
+    /**
+     * Checks whether the upload of this checkpoint sends the same tables to the same dataset with the same settings.
+     * The acknowledged batches still have to be compared with the input.
+     *
+     * @param workspaceId the id of the workspace or <code>null</code> for "My Workspace"
+     * @param datasetName the name of the dataset
+     * @param datasetId the id of the existing dataset with this name or <code>null</code> if there is none
+     * @param operation how the dataset is prepared for the upload
+     * @param skipInvalidRows whether invalid rows are skipped instead of failing the upload
+     * @param tableNames the names of the tables
+     * @param specs the specs of the tables to upload
+     * @param rowCounts the number of rows of the tables to upload
+     * @return if the upload can be continued
+     */
+    boolean matches(final String workspaceId, final String datasetName, final String datasetId,
+        final Operation operation, final boolean skipInvalidRows, final String[] tableNames,
+        final DataTableSpec[] specs, final long[] rowCounts) {
+        if (!Objects.equals(m_workspaceId, workspaceId) || !m_datasetName.equals(datasetName)
+            || !m_datasetId.equals(datasetId) || m_operation != operation || m_skipInvalidRows != skipInvalidRows
+            || m_tables.length != specs.length) {
+            return false;
+        }
+        for (int i = 0; i < specs.length; i++) {
+            final TableCheckpoint table = m_tables[i];
+            if (!table.m_name.equals(tableNames[i]) || table.m_rowCount != rowCounts[i]
+                || table.m_columnsChecksum != columnsChecksum(specs[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the id of the dataset the rows are sent to
+     */
+    String getDatasetId() {
+        return m_datasetId;
+    }
+
+    /**
+     * @param tableIdx the index of the input table
+     * @return the checkpoint of the table
+     */
+    TableCheckpoint getTable(final int tableIdx) {
+        return m_tables[tableIdx];
+    }
+
+    /**
+     * @return the pacer that waits for the hourly windows of a paced upload
+     */
+    UploadPacer getPacer() {
+        return m_pacer;
+    }
+
+    /**
+     * @return the number of rows of all tables that were not acknowledged yet, or -1 if the tables are streamed
+     */
+    long getRemainingRows() {
+        long rows = 0;
+        for (final TableCheckpoint table : m_tables) {
+            if (table.m_rowCount == UNKNOWN_ROW_COUNT) {
+                return -1;
+            }
+            rows += table.m_rowCount - table.getAcknowledgedRows();
+        }
+        return rows;
+    }
+
+    /**
+     * @return the number of rows of all tables that Power BI acknowledged
+     */
+    long getAcknowledgedRows() {
+        long rows = 0;
+        for (final TableCheckpoint table : m_tables) {
+            rows += table.getAcknowledgedRows();
+        }
+        return rows;
+    }
+
+    /**
+     * Saves the checkpoint to the given store now and whenever {@link #persist()} is called.
+     *
+     * @param store the store
+     */
+    void persistTo(final CheckpointStore store) {
+        m_store = store;
+        persist();
+    }
+
+    /**
+     * Saves the current progress to the store set by {@link #persistTo(CheckpointStore)}, if any. Called after every
+     * acknowledged batch.
+     */
+    void persist() {
+        if (m_store != null) {
+            m_store.save(this);
+        }
+    }
+
+    /**
+     * Saves the checkpoint to the given settings.
+     *
+     * @param settings the settings
+     */
+    void save(final NodeSettingsWO settings) {
+        settings.addString(CFG_KEY_WORKSPACE, m_workspaceId);
+        settings.addString(CFG_KEY_DATASET_NAME, m_datasetName);
+        settings.addString(CFG_KEY_DATASET_ID, m_datasetId);
+        settings.addString(CFG_KEY_OPERATION, m_operation.name());
+        settings.addBoolean(CFG_KEY_SKIP_INVALID_ROWS, m_skipInvalidRows);
+        settings.addInt(CFG_KEY_NUM_TABLES, m_tables.length);
+        for (int i = 0; i < m_tables.length; i++) {
+            m_tables[i].save(settings.addNodeSettings(CFG_KEY_TABLE_PREFIX + i));
+        }
+        m_pacer.save(settings.addNodeSettings(CFG_KEY_PACER));
+    }
+
+    /**
+     * Loads a checkpoint from the given settings.
+     *
+     * @param settings the settings
+     * @return the checkpoint
+     * @throws InvalidSettingsException if the settings are incomplete
+     */
+    static UploadCheckpoint load(final NodeSettingsRO settings) throws InvalidSettingsException {
+        final var tables = new TableCheckpoint[settings.getInt(CFG_KEY_NUM_TABLES)];
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = TableCheckpoint.load(settings.getNodeSettings(CFG_KEY_TABLE_PREFIX + i));
+        }
+        final String datasetId = settings.getString(CFG_KEY_DATASET_ID);
+        final Operation operation;
+        try {
+            operation = Operation.valueOf(settings.getString(CFG_KEY_OPERATION));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSettingsException("Unknown operation: " + e.getMessage(), e);
+        }
+        return new UploadCheckpoint(settings.getString(CFG_KEY_WORKSPACE), settings.getString(CFG_KEY_DATASET_NAME),
+            datasetId, operation, settings.getBoolean(CFG_KEY_SKIP_INVALID_ROWS), tables,
+            UploadPacer.load(datasetId, settings.getNodeSettings(CFG_KEY_PACER)));
+    }
+
+    /** A checksum of the column names and Power BI types that are sent */
+    private static long columnsChecksum(final DataTableSpec spec) {
+        final var crc = new CRC32C();
+        for (final DataColumnSpec columnSpec : spec) {
+            final Optional<String> type = PowerBIDataTypeUtils.powerBITypeForKNIMEType(columnSpec.getType());
+            if (type.isPresent()) {
+                crc.update((columnSpec.getName() + '\0' + type.get() + '\0').getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * How the dataset is prepared before the rows are sent. A continued upload skips the preparation, so it must have
+     * been the same for the failed upload.
+     */
+    enum Operation {
+            /** A new dataset is created, the node fails if it exists */
+            CREATE_DATASET,
+            /** An existing dataset is deleted and created again */
+            RECREATE_DATASET,
+            /** The rows are appended to the tables of an existing dataset */
+            APPEND_ROWS,
+            /** The rows of the tables of an existing dataset are deleted first */
+            REPLACE_ROWS
+    }
+
+    /**
+     * The progress of a single table. Updated by the thread that posts the rows.
+     */
+    static final class TableCheckpoint {
+
+        private final String m_name;
+
+        private final long m_columnsChecksum;
+
+        private final long m_rowCount;
+
+        private long m_acknowledgedRows;
+
+        private long m_rowsChecksum;
+
+        private TableCheckpoint(final String name, final long columnsChecksum, final long rowCount,
+            final long acknowledgedRows, final long rowsChecksum) {
+            m_name = name;
+            m_columnsChecksum = columnsChecksum;
+            m_rowCount = rowCount;
+            m_acknowledgedRows = acknowledgedRows;
+            m_rowsChecksum = rowsChecksum;
+        }
+
+        /**
+         * @return the number of input rows that were processed, i.e. sent and acknowledged by Power BI or rejected
+         */
+        synchronized long getAcknowledgedRows() {
+            return m_acknowledgedRows;
+        }
+
+        /**
+         * @return the checksum of the acknowledged rows, see {@link RowsChecksum}
+         */
+        synchronized long getRowsChecksum() {
+            return m_rowsChecksum;
+        }
+
+        /**
+         * Records rows that Power BI acknowledged or rejected.
+         *
+         * @param processedRows the number of input rows that are processed, including the rows that were rejected
+         *            before
+         * @param rows the buffer containing the encoded rows
+         * @param offset the index of the first byte of the rows in the buffer
+         * @param length the number of bytes of the rows, without a trailing comma
+         */
+        synchronized void acknowledge(final long processedRows, final JsonOutputBuffer rows, final int offset,
+            final int length) {
+            m_acknowledgedRows = processedRows;
+            m_rowsChecksum = RowsChecksum.update(m_rowsChecksum, rows, offset, length);
+        }
+
+        /**
+         * Records input rows that were processed without sending them, e.g. because they contain unsupported values.
+         *
+         * @param processedRows the number of input rows that are processed
+         */
+        synchronized void skipTo(final long processedRows) {
+            m_acknowledgedRows = Math.max(m_acknowledgedRows, processedRows);
+        }
+
+        private synchronized void save(final NodeSettingsWO settings) {
+            settings.addString(CFG_KEY_TABLE_NAME, m_name);
+            settings.addLong(CFG_KEY_COLUMNS_CHECKSUM, m_columnsChecksum);
+            settings.addLong(CFG_KEY_ROW_COUNT, m_rowCount);
+            settings.addLong(CFG_KEY_ACKNOWLEDGED_ROWS, m_acknowledgedRows);
+            settings.addLong(CFG_KEY_ROWS_CHECKSUM, m_rowsChecksum);
+        }
+
+        private static TableCheckpoint load(final NodeSettingsRO settings) throws InvalidSettingsException {
+            return new TableCheckpoint(settings.getString(CFG_KEY_TABLE_NAME),
+                settings.getLong(CFG_KEY_COLUMNS_CHECKSUM), settings.getLong(CFG_KEY_ROW_COUNT),
+                settings.getLong(CFG_KEY_ACKNOWLEDGED_ROWS), settings.getLong(CFG_KEY_ROWS_CHECKSUM));
+        }
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the encoded rows of a table, each followed by a comma. Since the state is the hash
+     * itself, it can be continued from a saved value, and since the rows of a batch are already separated by commas,
+     * the hash does not depend on how the rows were split into batches.
+     */
+    static final class RowsChecksum implements Checksum {
+
+        /** The checksum of no rows */
+        static final long INITIAL = 0xcbf29ce484222325L;
+
+        private static final long PRIME = 0x100000001b3L;
+
+        private long m_hash;
+
+        private RowsChecksum(final long hash) {
+            m_hash = hash;
+        }
+
+        /**
+         * Continues a checksum with encoded rows.
+         *
+         * @param checksum the checksum of the preceding rows
+         * @param rows the buffer containing the encoded rows
+         * @param offset the index of the first byte of the rows in the buffer
+         * @param length the number of bytes of the rows, without a trailing comma
+         * @return the checksum including the rows
+         */
+        static long update(final long checksum, final JsonOutputBuffer rows, final int offset, final int length) {
+            final var hash = new RowsChecksum(checksum);
+            rows.updateChecksum(hash, offset, length);
+            hash.update(',');
+            return hash.getValue();
+        }
+
+        @Override
+        public void update(final int b) {
+            m_hash = (m_hash ^ (b & 0xFF)) * PRIME;
+        }
+
+        @Override
+        public void update(final byte[] b, final int off, final int len) {
+            var hash = m_hash;
+            for (var i = off; i < off + len; i++) {
+                hash = (hash ^ (b[i] & 0xFF)) * PRIME;
+            }
+            m_hash = hash;
+        }
+
+        @Override
+        public long getValue() {
+            return m_hash;
+        }
+
+        @Override
+        public void reset() {
+            m_hash = INITIAL;
+        }
+    }
+}
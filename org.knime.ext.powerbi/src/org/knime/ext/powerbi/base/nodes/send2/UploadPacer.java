@@ -0,0 +1,143 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.base.nodes.send2;
+
+import java.time.Duration;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter;
+import org.knime.ext.powerbi.core.rest.PowerBIRateLimiter.RowsWindow;
+
+/**
+ * Spreads the batches of a paced upload over the hourly windows of the {@link PowerBIRateLimiter}. The windows are
+ * shared with all other uploads to the same dataset in this JVM, so the rows of other nodes are taken into account.
+ * Before a batch is sent, the pacer waits for the window that has room for it and reports the waiting period. The
+ * rows are reserved when the batch is posted. The current window of the dataset is saved with the
+ * {@link UploadCheckpoint} after every batch, so a continued upload, also after a restart, does not start with a full
+ * window.
+ */
+final class UploadPacer {
+
+    private static final long WAIT_POLL_MS = 500;
+
+    private static final String CFG_KEY_WINDOW_START = "window_start";
+
+    private static final String CFG_KEY_WINDOW_ROWS = "window_rows";
+
+    private final String m_datasetId;
+
+    /**
+     * @param datasetId the id of the dataset the rows are sent to
+     */
+    UploadPacer(final String datasetId) {
+        m_datasetId = datasetId;
+    }
+
+    /**
+     * Waits until the hourly window that has room for the rows has started.
+     *
+     * @param rows the number of rows that are sent next
+     * @param exec the monitor to report the waiting period to and to check for cancellation
+     * @throws CanceledExecutionException if the execution was canceled while waiting
+     */
+    void acquire(final long rows, final ExecutionMonitor exec) throws CanceledExecutionException {
+        Duration remaining;
+        // Asked again while waiting because other uploads to the dataset use the same windows
+        while (!(remaining = PowerBIRateLimiter.getRowsWait(m_datasetId, rows)).isZero()) {
+            exec.checkCanceled();
+            exec.setMessage("Waiting for the next hourly Power BI quota window (starts in " + format(remaining) + ")");
+            try {
+                Thread.sleep(Math.min(WAIT_POLL_MS, remaining.toMillis() + 1));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CanceledExecutionException();
+            }
+        }
+    }
+
+    /**
+     * Estimates how long it takes until the window in which the last of the given rows can be sent has started. The
+     * time needed to send the rows themselves is not included.
+     *
+     * @param remainingRows the number of rows that still have to be sent
+     * @return the estimated time
+     */
+    Duration estimateRemaining(final long remainingRows) {
+        return PowerBIRateLimiter.getRowsWait(m_datasetId, remainingRows);
+    }
+
+    /**
+     * Formats a duration as hours and minutes for progress messages.
+     *
+     * @param duration the duration
+     * @return e.g. <code>2h 05min</code>
+     */
+    static String format(final Duration duration) {
+        final long minutes = duration.toMinutes() + (duration.toSecondsPart() > 0 ? 1 : 0);
+        return minutes < 60 ? (minutes + "min") : String.format("%dh %02dmin", minutes / 60, minutes % 60);
+    }
+
+    /** Saves the current window of the dataset */
+    void save(final NodeSettingsWO settings) {
+        final RowsWindow window = PowerBIRateLimiter.getRowsWindow(m_datasetId);
+        settings.addLong(CFG_KEY_WINDOW_START, window.start());
+        settings.addLong(CFG_KEY_WINDOW_ROWS, window.rows());
+    }
+
+    /** Loads a pacer that continues in the saved window unless rows were sent to the dataset meanwhile */
+    static UploadPacer load(final String datasetId, final NodeSettingsRO settings) throws InvalidSettingsException {
+        PowerBIRateLimiter.restoreRowsWindow(datasetId,
+            new RowsWindow(settings.getLong(CFG_KEY_WINDOW_START), settings.getLong(CFG_KEY_WINDOW_ROWS)));
+        return new UploadPacer(datasetId);
+    }
+}
@@ -21,6 +21,7 @@
  */
 package org.knime.ext.powerbi.core;
 
+import org.knime.ext.powerbi.core.rest.WebClientPool;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 
@@ -43,6 +44,6 @@ public void start(final BundleContext context) throws Exception {
      */
     @Override
     public void stop(final BundleContext context) throws Exception {
-        // nothing to do
+        WebClientPool.getInstance().close();
     }
 }
@@ -0,0 +1,368 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.Checksum;
+
+/**
+ * A growable buffer that holds UTF-8 encoded JSON. Strings are encoded directly into the buffer, so a JSON document
+ * only exists once in memory and in its compact UTF-8 form. The buffer can be written to an {@link OutputStream} any
+ * number of times (e.g. when a request is retried).
+ */
+public final class JsonOutputBuffer {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    /** Length of the longest long including the sign */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    /** Double#toString uses the computerized scientific notation starting at this value */
+    private static final double PLAIN_NOTATION_LIMIT = 1e7;
+
+    private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0d);
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] m_bytes;
+
+    private int m_size;
+
+    /**
+     * Creates an empty buffer.
+     */
+    public JsonOutputBuffer() {
+        m_bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends a single ASCII character.
+     *
+     * @param c the character, must be smaller than 0x80
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendAscii(final char c) {
+        ensureCapacity(1);
+        m_bytes[m_size++] = (byte)c;
+        return this;
+    }
+
+    /**
+     * Appends a string which consists only of ASCII characters (e.g. JSON syntax or a number).
+     *
+     * @param s the string, all characters must be smaller than 0x80
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendAscii(final String s) {
+        final var length = s.length();
+        ensureCapacity(length);
+        for (var i = 0; i < length; i++) {
+            m_bytes[m_size++] = (byte)s.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the UTF-8 encoding of the given string. The string is not escaped.
+     *
+     * @param s the string
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendUtf8(final String s) {
+        final var length = s.length();
+        // at most 3 bytes per UTF-16 char (surrogate pairs take 4 bytes for 2 chars)
+        ensureCapacity(3 * length);
+        for (var i = 0; i < length; i++) {
+            i = encodeUtf8(s, i);
+        }
+        return this;
+    }
+
+    /**
+     * Appends the given string as a quoted and escaped JSON string in UTF-8. Runs of characters that need no escaping
+     * are copied directly; quotes, backslashes, and control characters are escaped.
+     *
+     * @param s the string
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendJsonString(final String s) {
+        final var length = s.length();
+        // at most 6 bytes per UTF-16 char (a unicode escape of a control character) plus the quotes
+        ensureCapacity(6 * length + 2);
+        final var bytes = m_bytes;
+        var pos = m_size;
+        bytes[pos++] = '"';
+        var i = 0;
+        while (i < length) {
+            // fast path: copy the run of printable ASCII characters that need no escaping
+            var c = s.charAt(i);
+            while (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                bytes[pos++] = (byte)c;
+                if (++i == length) {
+                    break;
+                }
+                c = s.charAt(i);
+            }
+            if (i == length) {
+                break;
+            }
+            if (c >= 0x80) {
+                m_size = pos;
+                i = encodeUtf8(s, i) + 1;
+                pos = m_size;
+            } else {
+                pos = escapeAscii(c, bytes, pos);
+                i++;
+            }
+        }
+        bytes[pos++] = '"';
+        m_size = pos;
+        return this;
+    }
+
+    /** Writes the JSON escape sequence of a quote, backslash, or control character, returns the new position */
+    private static int escapeAscii(final char c, final byte[] bytes, final int pos) {
+        var p = pos;
+        bytes[p++] = '\\';
+        switch (c) {
+            case '"' -> bytes[p++] = '"';
+            case '\\' -> bytes[p++] = '\\';
+            case '\n' -> bytes[p++] = 'n';
+            case '\r' -> bytes[p++] = 'r';
+            case '\t' -> bytes[p++] = 't';
+            case '\b' -> bytes[p++] = 'b';
+            case '\f' -> bytes[p++] = 'f';
+            default -> {
+                bytes[p++] = 'u';
+                bytes[p++] = '0';
+                bytes[p++] = '0';
+                bytes[p++] = HEX_DIGITS[c >> 4];
+                bytes[p++] = HEX_DIGITS[c & 0xF];
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Encodes the char at the given index (and the following low surrogate if it forms a pair) as UTF-8. The capacity
+     * must have been ensured by the caller.
+     *
+     * @return the index of the last char that was encoded
+     */
+    private int encodeUtf8(final String s, final int index) {
+        var i = index;
+        final var c = s.charAt(i);
+        if (c < 0x80) {
+            m_bytes[m_size++] = (byte)c;
+        } else if (c < 0x800) {
+            m_bytes[m_size++] = (byte)(0xC0 | (c >> 6));
+            m_bytes[m_size++] = (byte)(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            final var cp = Character.toCodePoint(c, s.charAt(++i));
+            m_bytes[m_size++] = (byte)(0xF0 | (cp >> 18));
+            m_bytes[m_size++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+            m_bytes[m_size++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+            m_bytes[m_size++] = (byte)(0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            // unpaired surrogate: replace like String#getBytes does
+            m_bytes[m_size++] = (byte)'?';
+        } else {
+            m_bytes[m_size++] = (byte)(0xE0 | (c >> 12));
+            m_bytes[m_size++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+            m_bytes[m_size++] = (byte)(0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    /**
+     * Appends bytes that are already UTF-8 encoded (e.g. a pre-encoded property name).
+     *
+     * @param bytes the bytes
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendBytes(final byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, m_bytes, m_size, bytes.length);
+        m_size += bytes.length;
+        return this;
+    }
+
+    /**
+     * Appends a range of bytes that are already UTF-8 encoded.
+     *
+     * @param bytes the bytes
+     * @param offset the index of the first byte to append
+     * @param length the number of bytes to append
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendBytes(final byte[] bytes, final int offset, final int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, m_bytes, m_size, length);
+        m_size += length;
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of the given value like {@link Long#toString(long)}.
+     *
+     * @param value the value
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendLong(final long value) {
+        if (value == Long.MIN_VALUE) {
+            // cannot be negated
+            return appendAscii(Long.toString(value));
+        }
+        ensureCapacity(MAX_LONG_LENGTH);
+        var v = value;
+        if (v < 0) {
+            m_bytes[m_size++] = '-';
+            v = -v;
+        }
+        final var start = m_size;
+        do {
+            m_bytes[m_size++] = (byte)('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // the digits were written in reverse order
+        for (int i = start, j = m_size - 1; i < j; i++, j--) {
+            final var tmp = m_bytes[i];
+            m_bytes[i] = m_bytes[j];
+            m_bytes[j] = tmp;
+        }
+        return this;
+    }
+
+    /**
+     * Appends the representation of the given value like {@link Double#toString(double)}.
+     *
+     * @param value the value
+     * @return this buffer
+     */
+    public JsonOutputBuffer appendDouble(final double value) {
+        // integral values in the range in which Double#toString uses the plain notation are written without a String
+        if (value == Math.rint(value) && Math.abs(value) < PLAIN_NOTATION_LIMIT
+            && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO_BITS) {
+            return appendLong((long)value).appendAscii(".0");
+        }
+        return appendAscii(Double.toString(value));
+    }
+
+    /**
+     * @return the number of bytes in this buffer
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Removes all content. The allocated memory is kept for reuse.
+     */
+    public void reset() {
+        m_size = 0;
+    }
+
+    /**
+     * Discards the content after the given size, e.g. a partially appended value.
+     *
+     * @param size the new size, at most the current size
+     */
+    public void truncate(final int size) {
+        if (size < 0 || size > m_size) {
+            throw new IndexOutOfBoundsException("Cannot truncate " + m_size + " bytes to " + size + " bytes.");
+        }
+        m_size = size;
+    }
+
+    /**
+     * Writes the content of this buffer to the given stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        out.write(m_bytes, 0, m_size);
+    }
+
+    /**
+     * Writes a range of the content of this buffer to the given stream.
+     *
+     * @param out the stream to write to
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(final OutputStream out, final int offset, final int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, m_size);
+        out.write(m_bytes, offset, length);
+    }
+
+    /**
+     * Updates the given checksum with a range of the content of this buffer.
+     *
+     * @param checksum the checksum
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     */
+    public void updateChecksum(final Checksum checksum, final int offset, final int length) {
+        Objects.checkFromIndexSize(offset, length, m_size);
+        checksum.update(m_bytes, offset, length);
+    }
+
+    private void ensureCapacity(final int additional) {
+        final var required = m_size + additional;
+        if (required > m_bytes.length) {
+            m_bytes = Arrays.copyOf(m_bytes, Math.max(required, m_bytes.length * 2));
+        }
+    }
+}
@@ -75,7 +75,7 @@
  */
 public class PowerBIDataTypeUtils {
 
-    private static final int POWERBI_MAX_STRING_LENGTH = 4000;
+    static final int POWERBI_MAX_STRING_LENGTH = 4000;
 
     private static final Gson GSON = new Gson();
 
@@ -160,7 +160,7 @@ public static final class PowerBIIllegalValueException extends Exception {
 
         private static final long serialVersionUID = 1L;
 
-        private PowerBIIllegalValueException(final String message) {
+        PowerBIIllegalValueException(final String message) {
             super(message);
         }
     }
@@ -0,0 +1,188 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.BooleanValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.time.localdate.LocalDateValue;
+import org.knime.core.data.time.localdatetime.LocalDateTimeValue;
+import org.knime.ext.powerbi.core.PowerBIDataTypeUtils.PowerBIIllegalValueException;
+
+import com.google.gson.Gson;
+
+/**
+ * Encodes KNIME rows as Power BI JSON row objects. The encoder is compiled once per {@link DataTableSpec}: every
+ * column that is supported by Power BI gets a writer for its type and the pre-encoded property name, so encoding a
+ * row appends the values directly to a {@link JsonOutputBuffer}. The JSON representation of the values is equivalent
+ * to {@link PowerBIDataTypeUtils#powerBIValueForKNIMEValue(org.knime.core.data.DataValue)}, only strings are escaped
+ * without the HTML-safe escaping of {@link Gson}. Since the writers of date columns cache encoded values, an encoder
+ * must only be used by one thread at a time.
+ */
+public final class PowerBIRowEncoder {
+
+    private static final Gson GSON = new Gson();
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final int[] m_columnIndices;
+
+    /** The UTF-8 encoded <code>"name":</code> per column, with a leading comma for all but the first column */
+    private final byte[][] m_prefixes;
+
+    private final ValueWriter[] m_writers;
+
+    private PowerBIRowEncoder(final int[] columnIndices, final byte[][] prefixes, final ValueWriter[] writers) {
+        m_columnIndices = columnIndices;
+        m_prefixes = prefixes;
+        m_writers = writers;
+    }
+
+    /**
+     * Creates an encoder for rows of the given spec. Columns of types that are not supported by Power BI (see
+     * {@link PowerBIDataTypeUtils#powerBITypeForKNIMEType(DataType)}) are skipped.
+     *
+     * @param spec the spec of the rows
+     * @return the encoder
+     */
+    public static PowerBIRowEncoder compile(final DataTableSpec spec) {
+        final List<Integer> indices = new ArrayList<>();
+        final List<ValueWriter> writers = new ArrayList<>();
+        for (var i = 0; i < spec.getNumColumns(); i++) {
+            final var writer = writerForType(spec.getColumnSpec(i).getType());
+            if (writer != null) {
+                indices.add(i);
+                writers.add(writer);
+            }
+        }
+        final var prefixes = new byte[indices.size()][];
+        for (var i = 0; i < prefixes.length; i++) {
+            final var name = GSON.toJson(spec.getColumnSpec(indices.get(i)).getName());
+            prefixes[i] = ((i == 0 ? "" : ",") + name + ":").getBytes(StandardCharsets.UTF_8);
+        }
+        return new PowerBIRowEncoder(indices.stream().mapToInt(Integer::intValue).toArray(), prefixes,
+            writers.toArray(ValueWriter[]::new));
+    }
+
+    /**
+     * @return the number of columns that are encoded
+     */
+    public int getNumColumns() {
+        return m_columnIndices.length;
+    }
+
+    /**
+     * Appends the JSON object for the given row.
+     *
+     * @param row the row, must fit the spec the encoder was compiled for
+     * @param out the buffer to append to
+     * @throws PowerBIIllegalValueException if a value is not allowed by Power BI
+     */
+    public void encode(final DataRow row, final JsonOutputBuffer out) throws PowerBIIllegalValueException {
+        out.appendAscii('{');
+        for (var i = 0; i < m_columnIndices.length; i++) {
+            out.appendBytes(m_prefixes[i]);
+            final var cell = row.getCell(m_columnIndices[i]);
+            if (cell.isMissing()) {
+                out.appendBytes(NULL);
+            } else {
+                m_writers[i].write(cell, out);
+            }
+        }
+        out.appendAscii('}');
+    }
+
+    /** Same order of checks as PowerBIDataTypeUtils#powerBITypeForKNIMEType */
+    private static ValueWriter writerForType(final DataType type) {
+        if (type.isCompatible(BooleanValue.class)) {
+            return (cell, out) -> out.appendAscii(((BooleanValue)cell).getBooleanValue() ? "true" : "false");
+        } else if (type.isCompatible(DoubleValue.class)) {
+            return (cell, out) -> out.appendDouble(((DoubleValue)cell).getDoubleValue());
+        } else if (type.isCompatible(IntValue.class)) {
+            return (cell, out) -> out.appendLong(((IntValue)cell).getIntValue());
+        } else if (type.isCompatible(LongValue.class)) {
+            return (cell, out) -> out.appendLong(((LongValue)cell).getLongValue());
+        } else if (type.isCompatible(LocalDateValue.class)) {
+            final var encoder = new PowerBITemporalEncoder();
+            return (cell, out) -> encoder.appendDate(((LocalDateValue)cell).getLocalDate(), out);
+        } else if (type.isCompatible(LocalDateTimeValue.class)) {
+            final var encoder = new PowerBITemporalEncoder();
+            return (cell, out) -> encoder.appendDateTime(((LocalDateTimeValue)cell).getLocalDateTime(), out);
+        } else if (type.isCompatible(StringValue.class)) {
+            return PowerBIRowEncoder::writeString;
+        }
+        return null;
+    }
+
+    private static void writeString(final DataCell cell, final JsonOutputBuffer out)
+        throws PowerBIIllegalValueException {
+        final var v = ((StringValue)cell).getStringValue();
+        if (v.length() > PowerBIDataTypeUtils.POWERBI_MAX_STRING_LENGTH) {
+            throw new PowerBIIllegalValueException(
+                "The string value contains " + v.length() + " characters which is more than the allowed length of "
+                    + PowerBIDataTypeUtils.POWERBI_MAX_STRING_LENGTH + " characters.");
+        }
+        out.appendJsonString(v);
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(DataCell cell, JsonOutputBuffer out) throws PowerBIIllegalValueException;
+    }
+}
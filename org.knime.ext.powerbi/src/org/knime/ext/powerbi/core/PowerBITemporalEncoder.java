@@ -0,0 +1,181 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Writes {@link LocalDate} and {@link LocalDateTime} values as quoted ISO-8601 JSON strings, producing the same text
+ * as {@link DateTimeFormatter#ISO_LOCAL_DATE} and {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}. The digits are written
+ * directly instead of going through a formatter, and the encoded dates are kept in a small direct-mapped cache, since
+ * the date columns of a table usually repeat a few distinct values many times. One instance is meant to be used for a
+ * single column and is not thread-safe.
+ */
+final class PowerBITemporalEncoder {
+
+    /** Number of cached dates, must be a power of two */
+    private static final int CACHE_SIZE = 64;
+
+    private static final int MAX_FAST_YEAR = 9999;
+
+    /** Length of <code>"yyyy-MM-dd</code> including the opening quote */
+    private static final int DATE_LENGTH = 11;
+
+    /** Maximum length of <code>THH:mm:ss.nnnnnnnnn"</code> including the closing quote */
+    private static final int MAX_TIME_LENGTH = 20;
+
+    private static final int NANO_DIGITS = 9;
+
+    private final long[] m_keys = new long[CACHE_SIZE];
+
+    /** The encoded dates, starting with the opening quote but without the closing one */
+    private final byte[][] m_dates = new byte[CACHE_SIZE][];
+
+    private final byte[] m_time = new byte[MAX_TIME_LENGTH];
+
+    PowerBITemporalEncoder() {
+        // no key can be negative, so this marks all slots as empty
+        Arrays.fill(m_keys, -1L);
+    }
+
+    /**
+     * Appends the date as quoted JSON string.
+     *
+     * @param date the date
+     * @param out the buffer to append to
+     */
+    void appendDate(final LocalDate date, final JsonOutputBuffer out) {
+        out.appendBytes(encodedDate(date)).appendAscii('"');
+    }
+
+    /**
+     * Appends the date and time as quoted JSON string.
+     *
+     * @param dateTime the date and time
+     * @param out the buffer to append to
+     */
+    void appendDateTime(final LocalDateTime dateTime, final JsonOutputBuffer out) {
+        out.appendBytes(encodedDate(dateTime.toLocalDate()));
+        final var length = encodeTime(dateTime.toLocalTime(), m_time);
+        out.appendBytes(m_time, 0, length);
+    }
+
+    private byte[] encodedDate(final LocalDate date) {
+        final var year = date.getYear();
+        if (year < 0) {
+            return encodeDate(date);
+        }
+        // unique for every date with a non-negative year
+        final var key = ((long)year << 9) | (date.getMonthValue() << 5) | date.getDayOfMonth();
+        final var slot = (int)(key ^ (key >>> 9)) & (CACHE_SIZE - 1);
+        if (m_keys[slot] != key) {
+            m_keys[slot] = key;
+            m_dates[slot] = encodeDate(date);
+        }
+        return m_dates[slot];
+    }
+
+    private static byte[] encodeDate(final LocalDate date) {
+        final var year = date.getYear();
+        if (year < 0 || year > MAX_FAST_YEAR) {
+            // sign and expanded year representation, rare enough to be left to the formatter
+            return ('"' + date.format(DateTimeFormatter.ISO_LOCAL_DATE)).getBytes(StandardCharsets.US_ASCII);
+        }
+        final var bytes = new byte[DATE_LENGTH];
+        bytes[0] = '"';
+        writeDigits(year / 100, bytes, 1);
+        writeDigits(year % 100, bytes, 3);
+        bytes[5] = '-';
+        writeDigits(date.getMonthValue(), bytes, 6);
+        bytes[8] = '-';
+        writeDigits(date.getDayOfMonth(), bytes, 9);
+        return bytes;
+    }
+
+    /**
+     * Encodes <code>THH:mm:ss</code>, the fraction of the second without trailing zeros if it is not zero, and the
+     * closing quote.
+     */
+    private static int encodeTime(final LocalTime time, final byte[] bytes) {
+        bytes[0] = 'T';
+        writeDigits(time.getHour(), bytes, 1);
+        bytes[3] = ':';
+        writeDigits(time.getMinute(), bytes, 4);
+        bytes[6] = ':';
+        writeDigits(time.getSecond(), bytes, 7);
+        var pos = 9;
+        var nano = time.getNano();
+        if (nano != 0) {
+            bytes[pos++] = '.';
+            var digits = NANO_DIGITS;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            for (var i = pos + digits - 1; i >= pos; i--) {
+                bytes[i] = (byte)('0' + nano % 10);
+                nano /= 10;
+            }
+            pos += digits;
+        }
+        bytes[pos++] = '"';
+        return pos;
+    }
+
+    /** Writes a value between 0 and 99 as two digits */
+    private static void writeDigits(final int value, final byte[] bytes, final int pos) {
+        bytes[pos] = (byte)('0' + value / 10);
+        bytes[pos + 1] = (byte)('0' + value % 10);
+    }
+}
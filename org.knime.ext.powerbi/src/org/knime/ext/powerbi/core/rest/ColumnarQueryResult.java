@@ -0,0 +1,430 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The table of a DAX query result held in memory column by column. Integers and numbers are kept in primitive arrays,
+ * booleans in a bit set, and strings are dictionary-encoded. A bit set per column marks the rows that have a value.
+ * Since Power BI reports the values of a row by column name and omits <code>null</code> values, a column is created
+ * when it first appears and is missing in all rows before.
+ * <p>
+ * A column that receives values of different types is converted: integers and numbers become numbers, all other
+ * combinations become strings. Integers and numbers are converted to strings with {@link Double#toString(double)}.
+ * <p>
+ * The result is filled as a {@link QueryResultsHandler} while the response is parsed and must only contain a single
+ * table.
+ */
+public final class ColumnarQueryResult implements QueryResultsHandler {
+
+    /** The type of the values of a column */
+    public enum ColumnType {
+            /** The column only contains missing values */
+            EMPTY,
+            /** Integral numbers, see {@link Column#getLong(int)} */
+            INTEGER,
+            /** Numbers, see {@link Column#getDouble(int)} */
+            NUMBER,
+            /** Booleans, see {@link Column#getBoolean(int)} */
+            BOOLEAN,
+            /** Strings, see {@link Column#getString(int)} */
+            STRING;
+    }
+
+    private final Map<String, Column> m_columnIndex = new HashMap<>();
+
+    private final List<Column> m_columns = new ArrayList<>();
+
+    private int m_rowCount;
+
+    private int m_tableCount;
+
+    private boolean m_hasError;
+
+    private String m_errorCode;
+
+    private String m_errorMessage;
+
+    @Override
+    public void startTable(final int resultIndex, final int tableIndex) {
+        if (++m_tableCount > 1) {
+            throw new IllegalStateException("More than one table in response.");
+        }
+    }
+
+    @Override
+    public void startRow() {
+        // the values are written to the row with index m_rowCount
+    }
+
+    @Override
+    public void nullValue(final String column) {
+        column(column);
+    }
+
+    @Override
+    public void stringValue(final String column, final String value) {
+        column(column).setString(m_rowCount, value);
+    }
+
+    @Override
+    public void doubleValue(final String column, final double value) {
+        column(column).setDouble(m_rowCount, value);
+    }
+
+    @Override
+    public void longValue(final String column, final long value) {
+        column(column).setLong(m_rowCount, value);
+    }
+
+    @Override
+    public void booleanValue(final String column, final boolean value) {
+        column(column).setBoolean(m_rowCount, value);
+    }
+
+    @Override
+    public void endRow() {
+        m_rowCount++;
+    }
+
+    @Override
+    public void endTable() {
+        // nothing to do
+    }
+
+    @Override
+    public void error(final int resultIndex, final String code, final String message) {
+        m_hasError = true;
+        m_errorCode = code;
+        m_errorMessage = message;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return m_rowCount;
+    }
+
+    /**
+     * @return the columns in the order in which they first appeared in the response
+     */
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(m_columns);
+    }
+
+    /**
+     * @param name the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @return the column, <code>null</code> if no row contained the column
+     */
+    public Column getColumn(final String name) {
+        return m_columnIndex.get(name);
+    }
+
+    /**
+     * @return whether the query result contained an error notice
+     */
+    public boolean hasError() {
+        return m_hasError;
+    }
+
+    /**
+     * @return the code of the error notice, may be <code>null</code>
+     */
+    public String getErrorCode() {
+        return m_errorCode;
+    }
+
+    /**
+     * @return the message of the error notice, may be <code>null</code>
+     */
+    public String getErrorMessage() {
+        return m_errorMessage;
+    }
+
+    private Column column(final String name) {
+        return m_columnIndex.computeIfAbsent(name, n -> {
+            final var column = new Column(n);
+            m_columns.add(column);
+            return column;
+        });
+    }
+
+    /**
+     * A column of the result. The values of rows without a value are undefined.
+     */
+    public static final class Column {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final String m_name;
+
+        private ColumnType m_type = ColumnType.EMPTY;
+
+        /** The rows that have a value */
+        private final BitSet m_present = new BitSet();
+
+        private long[] m_longs;
+
+        private double[] m_doubles;
+
+        private BitSet m_booleans;
+
+        /** The index of the value in the dictionary per row */
+        private int[] m_codes;
+
+        private List<String> m_dictionary;
+
+        private Map<String, Integer> m_dictionaryIndex;
+
+        private Column(final String name) {
+            m_name = name;
+        }
+
+        /**
+         * @return the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+         */
+        public String getName() {
+            return m_name;
+        }
+
+        /**
+         * @return the type of the values
+         */
+        public ColumnType getType() {
+            return m_type;
+        }
+
+        /**
+         * @param row the index of the row
+         * @return whether the row has no value in this column
+         */
+        public boolean isMissing(final int row) {
+            return !m_present.get(row);
+        }
+
+        /**
+         * @param row the index of the row
+         * @return the value of a column of type {@link ColumnType#INTEGER}
+         */
+        public long getLong(final int row) {
+            return m_longs[row];
+        }
+
+        /**
+         * @param row the index of the row
+         * @return the value of a column of type {@link ColumnType#INTEGER} or {@link ColumnType#NUMBER}
+         */
+        public double getDouble(final int row) {
+            return m_type == ColumnType.INTEGER ? m_longs[row] : m_doubles[row];
+        }
+
+        /**
+         * @param row the index of the row
+         * @return the value of a column of type {@link ColumnType#BOOLEAN}
+         */
+        public boolean getBoolean(final int row) {
+            return m_booleans.get(row);
+        }
+
+        /**
+         * @param row the index of the row
+         * @return the value of a column of any type as string, <code>null</code> if the value is missing
+         */
+        public String getString(final int row) {
+            if (isMissing(row)) {
+                return null;
+            }
+            return switch (m_type) {
+                case INTEGER -> Double.toString(m_longs[row]);
+                case NUMBER -> Double.toString(m_doubles[row]);
+                case BOOLEAN -> Boolean.toString(m_booleans.get(row));
+                case STRING -> m_dictionary.get(m_codes[row]);
+                case EMPTY -> null;
+            };
+        }
+
+        /**
+         * @return the distinct values of a column of type {@link ColumnType#STRING}
+         */
+        public List<String> getDictionary() {
+            return Collections.unmodifiableList(m_dictionary);
+        }
+
+        /**
+         * @param row the index of the row
+         * @return the index of the value of a column of type {@link ColumnType#STRING} in the
+         *         {@link #getDictionary() dictionary}
+         */
+        public int getCode(final int row) {
+            return m_codes[row];
+        }
+
+        private void setLong(final int row, final long value) {
+            switch (m_type) {
+                case EMPTY -> {
+                    m_type = ColumnType.INTEGER;
+                    m_longs = new long[capacity(row)];
+                }
+                case INTEGER -> m_longs = ensureCapacity(m_longs, row);
+                case NUMBER -> {
+                    setDouble(row, value);
+                    return;
+                }
+                case BOOLEAN, STRING -> {
+                    setString(row, Double.toString(value));
+                    return;
+                }
+            }
+            m_longs[row] = value;
+            m_present.set(row);
+        }
+
+        private void setDouble(final int row, final double value) {
+            switch (m_type) {
+                case EMPTY -> {
+                    m_type = ColumnType.NUMBER;
+                    m_doubles = new double[capacity(row)];
+                }
+                case INTEGER -> toNumbers(row);
+                case NUMBER -> m_doubles = ensureCapacity(m_doubles, row);
+                case BOOLEAN, STRING -> {
+                    setString(row, Double.toString(value));
+                    return;
+                }
+            }
+            m_doubles[row] = value;
+            m_present.set(row);
+        }
+
+        private void setBoolean(final int row, final boolean value) {
+            switch (m_type) {
+                case EMPTY -> {
+                    m_type = ColumnType.BOOLEAN;
+                    m_booleans = new BitSet();
+                }
+                case BOOLEAN -> {
+                    // bit sets grow by themselves
+                }
+                case INTEGER, NUMBER, STRING -> {
+                    setString(row, Boolean.toString(value));
+                    return;
+                }
+            }
+            m_booleans.set(row, value);
+            m_present.set(row);
+        }
+
+        private void setString(final int row, final String value) {
+            if (m_type != ColumnType.STRING) {
+                toStrings(row);
+            } else {
+                m_codes = ensureCapacity(m_codes, row);
+            }
+            m_codes[row] = m_dictionaryIndex.computeIfAbsent(value, v -> {
+                m_dictionary.add(v);
+                return m_dictionary.size() - 1;
+            });
+            m_present.set(row);
+        }
+
+        private void toNumbers(final int row) {
+            m_doubles = new double[Math.max(m_longs.length, capacity(row))];
+            for (var i = m_present.nextSetBit(0); i >= 0; i = m_present.nextSetBit(i + 1)) {
+                m_doubles[i] = m_longs[i];
+            }
+            m_longs = null;
+            m_type = ColumnType.NUMBER;
+        }
+
+        private void toStrings(final int row) {
+            final var size = m_present.length();
+            final var values = new String[size];
+            for (var i = m_present.nextSetBit(0); i >= 0; i = m_present.nextSetBit(i + 1)) {
+                values[i] = getString(i);
+            }
+            m_dictionary = new ArrayList<>();
+            m_dictionaryIndex = new HashMap<>();
+            m_codes = new int[Math.max(size, capacity(row))];
+            m_type = ColumnType.STRING;
+            m_longs = null;
+            m_doubles = null;
+            m_booleans = null;
+            for (var i = m_present.nextSetBit(0); i >= 0; i = m_present.nextSetBit(i + 1)) {
+                m_codes[i] = m_dictionaryIndex.computeIfAbsent(values[i], v -> {
+                    m_dictionary.add(v);
+                    return m_dictionary.size() - 1;
+                });
+            }
+        }
+
+        private static int capacity(final int row) {
+            return Math.max(INITIAL_CAPACITY, row + 1);
+        }
+
+        private static long[] ensureCapacity(final long[] values, final int row) {
+            return row < values.length ? values : Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+        }
+
+        private static double[] ensureCapacity(final double[] values, final int row) {
+            return row < values.length ? values : Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+        }
+
+        private static int[] ensureCapacity(final int[] values, final int row) {
+            return row < values.length ? values : Arrays.copyOf(values, Math.max(row + 1, values.length * 2));
+        }
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Paces the requests that push rows to Power BI according to the documented limits of push datasets. The budgets are
+ * shared by all nodes running in this JVM so that concurrent uploads to the same dataset wait for each other instead
+ * of running into 429 (TOO MANY REQUESTS) responses:
+ * <ul>
+ * <li>{@value #MAX_ROWS_PER_REQUEST} rows per POST rows request</li>
+ * <li>{@value #MAX_REQUESTS_PER_MINUTE} POST rows requests per minute per dataset</li>
+ * <li>{@value #MAX_ROWS_PER_HOUR} rows per hour per dataset</li>
+ * <li>{@value #MAX_LARGE_TABLE_REQUESTS_PER_HOUR} POST rows requests per hour per dataset to tables that contain
+ * {@value #LARGE_TABLE_ROWS} rows or more</li>
+ * </ul>
+ * The request limits are modeled as token buckets that start full, so short uploads are not slowed down. The rows are
+ * counted in hourly windows, a request whose rows do not fit into the current window waits for the next one. Callers
+ * that spread an upload over hours can ask for the wait up front (see {@link #getRowsWait(String, long)}) and save the
+ * current window to continue in it after a restart (see {@link #getRowsWindow(String)}).
+ * <p>
+ * Only rows sent through this JVM are known, so the size of a table is estimated from the rows that were sent to it
+ * during the last hour and since its rows were last deleted. The budgets of datasets that were not used for an hour
+ * are full again and are dropped.
+ *
+ * @see <a href="https://learn.microsoft.com/en-us/power-bi/developer/embedded/push-datasets-limitations">Push
+ *      semantic model limits</a>
+ */
+public final class PowerBIRateLimiter {
+
+    private PowerBIRateLimiter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(PowerBIRateLimiter.class);
+
+    /** Maximum number of rows in a single POST rows request */
+    public static final int MAX_ROWS_PER_REQUEST = 10000;
+
+    private static final int MAX_REQUESTS_PER_MINUTE = 120;
+
+    /** Maximum number of rows that can be posted to a dataset per hour */
+    public static final int MAX_ROWS_PER_HOUR = 1000000;
+
+    private static final int MAX_LARGE_TABLE_REQUESTS_PER_HOUR = 120;
+
+    private static final int LARGE_TABLE_ROWS = 250000;
+
+    private static final long WAIT_POLL_MS = 500;
+
+    /** The longest period of the limits, a budget that was not used for this long is full again */
+    private static final long IDLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    /** The window in which the rows sent to a dataset are counted */
+    private static final Duration ROWS_WINDOW = Duration.ofHours(1);
+
+    /** The window in which the rows sent to a table are counted */
+    private static final Duration TABLE_ROWS_WINDOW = Duration.ofHours(1);
+
+    /** The granularity of the table rows window */
+    private static final Duration TABLE_ROWS_SLOT = Duration.ofMinutes(1);
+
+    /** The budgets per dataset id. Guarded by the class lock. */
+    private static final Map<String, DatasetBudget> BUDGETS = new HashMap<>();
+
+    /**
+     * Waits until rows can be posted to the given table without exceeding the limits and consumes the budget. The
+     * budget is consumed once per call, retries of the request are not counted.
+     *
+     * @param datasetId the identifier of the dataset
+     * @param tableName the name of the table
+     * @param rowCount the number of rows in the request
+     * @param exec the execution context used to check for cancellation and to notify the user about the waiting
+     *            period. The message will be restored. Can be {@code null} in which case no message will be set.
+     * @throws CanceledExecutionException if the execution was canceled while waiting
+     * @throws IllegalArgumentException if more than {@value #MAX_ROWS_PER_REQUEST} rows are posted at once
+     */
+    public static void acquirePostRows(final String datasetId, final String tableName, final long rowCount,
+        final ExecutionContext exec) throws CanceledExecutionException {
+        if (rowCount > MAX_ROWS_PER_REQUEST) {
+            throw new IllegalArgumentException("Power BI accepts at most " + MAX_ROWS_PER_REQUEST
+                + " rows per request but " + rowCount + " rows were given.");
+        }
+        final long waitNanos;
+        synchronized (PowerBIRateLimiter.class) {
+            final long now = System.nanoTime();
+            waitNanos = getBudget(datasetId, now).reserve(tableName, rowCount, now);
+        }
+        if (waitNanos > 0) {
+            waitFor(Duration.ofNanos(waitNanos), exec);
+        }
+    }
+
+    /**
+     * Estimates how long it takes until the hourly window in which the last of the given rows can be sent has started.
+     * Nothing is reserved, the rows are reserved when they are posted.
+     *
+     * @param datasetId the identifier of the dataset
+     * @param rowCount the number of rows that are sent next, can be more than fit into a single window
+     * @return the time to wait, zero if the rows can be sent now
+     */
+    public static Duration getRowsWait(final String datasetId, final long rowCount) {
+        synchronized (PowerBIRateLimiter.class) {
+            final long now = System.nanoTime();
+            return Duration.ofNanos(getBudget(datasetId, now).getRows().getWait(rowCount, now));
+        }
+    }
+
+    /**
+     * @param datasetId the identifier of the dataset
+     * @return the current hourly window of the rows sent to the dataset
+     */
+    public static RowsWindow getRowsWindow(final String datasetId) {
+        synchronized (PowerBIRateLimiter.class) {
+            final long now = System.nanoTime();
+            final HourlyRows rows = getBudget(datasetId, now).getRows();
+            return new RowsWindow(
+                System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(rows.getWindowStart() - now),
+                rows.getWindowRows());
+        }
+    }
+
+    /**
+     * Continues a window that was saved by a previous execution, e.g. before a restart. The window is only used if no
+     * rows were sent to the dataset through this JVM during the last hour, otherwise the rows of this JVM are known
+     * and counted already.
+     *
+     * @param datasetId the identifier of the dataset
+     * @param window the window returned by {@link #getRowsWindow(String)}
+     */
+    public static void restoreRowsWindow(final String datasetId, final RowsWindow window) {
+        synchronized (PowerBIRateLimiter.class) {
+            final long now = System.nanoTime();
+            getBudget(datasetId, now).getRows().restore(
+                now + TimeUnit.MILLISECONDS.toNanos(window.start() - System.currentTimeMillis()), window.rows(), now);
+        }
+    }
+
+    /** The budget of the dataset, drops the budgets that are idle. Must hold the class lock. */
+    private static DatasetBudget getBudget(final String datasetId, final long now) {
+        BUDGETS.values().removeIf(budget -> budget.isIdle(now));
+        return BUDGETS.computeIfAbsent(datasetId, id -> new DatasetBudget(now));
+    }
+
+    /**
+     * Records that all rows of a table were deleted, so it is not considered a large table anymore.
+     *
+     * @param datasetId the identifier of the dataset
+     * @param tableName the name of the table
+     */
+    public static void resetTable(final String datasetId, final String tableName) {
+        synchronized (PowerBIRateLimiter.class) {
+            final var budget = BUDGETS.get(datasetId);
+            if (budget != null) {
+                budget.resetTable(tableName);
+            }
+        }
+    }
+
+    private static void waitFor(final Duration time, final ExecutionContext exec) throws CanceledExecutionException {
+        LOGGER.debug(String.format("Waiting %dms to stay within the Power BI push limits", time.toMillis()));
+        final var oldMessage = exec != null ? exec.getProgressMonitor().getMessage() : null;
+        final long end = System.nanoTime() + time.toNanos();
+        try {
+            long remaining;
+            while ((remaining = end - System.nanoTime()) > 0) {
+                if (exec != null) {
+                    exec.checkCanceled();
+                    final long seconds = TimeUnit.NANOSECONDS.toSeconds(remaining) + 1;
+                    exec.setMessage(String.format("%s - waiting %s for the Power BI push limits", oldMessage,
+                        seconds < 120 ? (seconds + "s") : (TimeUnit.SECONDS.toMinutes(seconds) + 1 + "min")));
+                }
+                Thread.sleep(Math.min(WAIT_POLL_MS, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CanceledExecutionException();
+        }
+        if (exec != null) {
+            exec.setMessage(oldMessage);
+        }
+    }
+
+    /**
+     * An hourly window of the rows sent to a dataset.
+     *
+     * @param start the start of the window in milliseconds since the epoch
+     * @param rows the number of rows sent or reserved in the window
+     */
+    public record RowsWindow(long start, long rows) {
+    }
+
+    /** The budgets of one dataset. Not thread-safe, guarded by the class lock. */
+    static final class DatasetBudget {
+
+        private final TokenBucket m_requests;
+
+        private final HourlyRows m_rows;
+
+        private final TokenBucket m_largeTableRequests;
+
+        /** The rows sent to each table during the last hour */
+        private final Map<String, SlidingWindow> m_tableRows = new HashMap<>();
+
+        /** When the last request was reserved, see {@link System#nanoTime()} */
+        private long m_lastUsed;
+
+        DatasetBudget(final long now) {
+            m_requests = new TokenBucket(MAX_REQUESTS_PER_MINUTE, Duration.ofMinutes(1), now);
+            m_rows = new HourlyRows(MAX_ROWS_PER_HOUR, ROWS_WINDOW, now);
+            m_largeTableRequests = new TokenBucket(MAX_LARGE_TABLE_REQUESTS_PER_HOUR, Duration.ofHours(1), now);
+            m_lastUsed = now;
+        }
+
+        /** Reserves the budget for a request and returns how long to wait before sending it */
+        long reserve(final String tableName, final long rowCount, final long now) {
+            m_lastUsed = now;
+            final var tableRows = m_tableRows.computeIfAbsent(tableName,
+                name -> new SlidingWindow(TABLE_ROWS_WINDOW, TABLE_ROWS_SLOT));
+            final long previousRows = tableRows.sum(now);
+            tableRows.add(rowCount, now);
+            long wait = Math.max(m_requests.reserve(1, now), m_rows.reserve(rowCount, now));
+            if (previousRows >= LARGE_TABLE_ROWS) {
+                wait = Math.max(wait, m_largeTableRequests.reserve(1, now));
+            }
+            return wait;
+        }
+
+        /** The rows sent to the dataset */
+        HourlyRows getRows() {
+            return m_rows;
+        }
+
+        /** Forgets the rows sent to the table */
+        void resetTable(final String tableName) {
+            m_tableRows.remove(tableName);
+        }
+
+        /** Whether the budget was not used for so long that all its buckets are full again */
+        boolean isIdle(final long now) {
+            return now - m_lastUsed >= IDLE_NANOS && m_rows.isIdle(now);
+        }
+    }
+
+    /**
+     * Counts rows in fixed windows. A window starts with the first reservation after the previous window has ended.
+     * Rows that do not fit into the current window are reserved in the next one, a window that is still empty takes
+     * any number of rows.
+     */
+    static final class HourlyRows {
+
+        private final long m_rowsPerWindow;
+
+        private final long m_windowNanos;
+
+        /** Start of the current (or a reserved future) window, see {@link System#nanoTime()} */
+        private long m_windowStart;
+
+        /** Rows reserved in the window */
+        private long m_windowRows;
+
+        HourlyRows(final long rowsPerWindow, final Duration window, final long now) {
+            m_rowsPerWindow = rowsPerWindow;
+            m_windowNanos = window.toNanos();
+            // no window has started yet
+            m_windowStart = now - m_windowNanos;
+        }
+
+        /** Reserves the rows in the first window that has room for them and returns the nanoseconds until it starts */
+        long reserve(final long rows, final long now) {
+            if (isIdle(now)) {
+                m_windowStart = now;
+                m_windowRows = 0;
+            }
+            if (m_windowRows > 0 && m_windowRows + rows > m_rowsPerWindow) {
+                m_windowStart += m_windowNanos;
+                m_windowRows = 0;
+            }
+            m_windowRows += rows;
+            return Math.max(0, m_windowStart - now);
+        }
+
+        /**
+         * Returns the nanoseconds until the window in which the last of the rows can be sent starts, without reserving
+         * them. The rows may be spread over several windows.
+         */
+        long getWait(final long rows, final long now) {
+            long windowStart = m_windowStart;
+            long windowRows = m_windowRows;
+            if (isIdle(now)) {
+                windowStart = now;
+                windowRows = 0;
+            }
+            final long rowsInWindow = Math.max(0, m_rowsPerWindow - windowRows);
+            if (rows <= rowsInWindow) {
+                return Math.max(0, windowStart - now);
+            }
+            final long windows = (rows - rowsInWindow + m_rowsPerWindow - 1) / m_rowsPerWindow;
+            return Math.max(0, windowStart + windows * m_windowNanos - now);
+        }
+
+        /** Continues in the given window if there is no current window */
+        void restore(final long windowStart, final long windowRows, final long now) {
+            if (isIdle(now)) {
+                m_windowStart = windowStart;
+                m_windowRows = windowRows;
+            }
+        }
+
+        long getWindowStart() {
+            return m_windowStart;
+        }
+
+        long getWindowRows() {
+            return m_windowRows;
+        }
+
+        /** Whether the window has ended, the next rows start a new window */
+        boolean isIdle(final long now) {
+            return now - m_windowStart >= m_windowNanos;
+        }
+    }
+
+    /**
+     * Sums values over a sliding time window. The window is divided into slots, values older than the window are
+     * dropped slot by slot.
+     */
+    static final class SlidingWindow {
+
+        private final long m_windowNanos;
+
+        private final long m_slotNanos;
+
+        /** The start time and the sum of every slot with values, the oldest slot first */
+        private final Deque<long[]> m_slots = new ArrayDeque<>();
+
+        private long m_sum;
+
+        SlidingWindow(final Duration window, final Duration slot) {
+            m_windowNanos = window.toNanos();
+            m_slotNanos = slot.toNanos();
+        }
+
+        /** Adds a value at the given time */
+        void add(final long value, final long now) {
+            expire(now);
+            final var last = m_slots.peekLast();
+            if (last != null && now - last[0] < m_slotNanos) {
+                last[1] += value;
+            } else {
+                m_slots.addLast(new long[]{now, value});
+            }
+            m_sum += value;
+        }
+
+        /** The sum of the values added during the window before the given time */
+        long sum(final long now) {
+            expire(now);
+            return m_sum;
+        }
+
+        private void expire(final long now) {
+            while (!m_slots.isEmpty() && now - m_slots.peekFirst()[0] >= m_windowNanos) {
+                m_sum -= m_slots.removeFirst()[1];
+            }
+        }
+    }
+
+    /**
+     * A token bucket that is refilled continuously. Reservations may take more tokens than available, later
+     * reservations then wait until the debt is refilled.
+     */
+    static final class TokenBucket {
+
+        private final long m_capacity;
+
+        private final double m_tokensPerNano;
+
+        private double m_tokens;
+
+        private long m_lastRefill;
+
+        TokenBucket(final long capacity, final Duration period, final long now) {
+            m_capacity = capacity;
+            m_tokensPerNano = capacity / (double)period.toNanos();
+            m_tokens = capacity;
+            m_lastRefill = now;
+        }
+
+        /** Takes the tokens and returns the nanoseconds until they are available */
+        long reserve(final long tokens, final long now) {
+            m_tokens = Math.min(m_capacity, m_tokens + (now - m_lastRefill) * m_tokensPerNano);
+            m_lastRefill = now;
+            m_tokens -= tokens;
+            return m_tokens >= 0 ? 0 : (long)Math.ceil(-m_tokens / m_tokensPerNano);
+        }
+    }
+}
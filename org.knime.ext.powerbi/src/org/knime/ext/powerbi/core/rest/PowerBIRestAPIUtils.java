@@ -49,18 +49,22 @@
 package org.knime.ext.powerbi.core.rest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.cxf.jaxrs.client.WebClient;
-import org.apache.cxf.transport.http.HTTPConduit;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.util.ThreadLocalHTTPAuthenticator;
 import org.knime.core.util.ThreadLocalHTTPAuthenticator.AuthenticationCloseable;
+import org.knime.ext.powerbi.core.rest.RetryUtil.ClientRequest;
+import org.knime.ext.powerbi.core.rest.RetryUtil.ResponseHandler;
+import org.knime.ext.powerbi.core.rest.WebClientPool.PooledWebClient;
 import org.knime.ext.powerbi.core.rest.bindings.Column;
 import org.knime.ext.powerbi.core.rest.bindings.Dataset;
 import org.knime.ext.powerbi.core.rest.bindings.Datasets;
@@ -70,6 +74,7 @@
 import org.knime.ext.powerbi.core.rest.bindings.QueryResults;
 import org.knime.ext.powerbi.core.rest.bindings.QueryResults.Result;
 import org.knime.ext.powerbi.core.rest.bindings.Refresh;
+import org.knime.ext.powerbi.core.rest.bindings.RefreshHistory;
 import org.knime.ext.powerbi.core.rest.bindings.Relationship;
 import org.knime.ext.powerbi.core.rest.bindings.Table;
 import org.knime.ext.powerbi.core.rest.bindings.Tables;
@@ -82,6 +87,7 @@
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status.Family;
 import jakarta.ws.rs.core.Response.StatusType;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriBuilder;
 
 /**
@@ -91,10 +97,6 @@
  */
 public final class PowerBIRestAPIUtils {
 
-    private static final long CONNECTION_TIMEOUT = 30000;
-
-    private static final long RECEIVE_TIMEOUT = 60000;
-
     private static final String GET_DATASETS_URI = "https://api.powerbi.com/v1.0/myorg/datasets";
 
     private static final String GET_DATASETS_IN_GROUP_URI =
@@ -327,6 +329,60 @@ public static void postRows(final AuthTokenProvider auth, final String groupId,
         post(uri, Void.class, rows, auth, exec);
     }
 
+    /**
+     * Calls "Push Datasets - Datasets PostRows" from the Power BI REST API. Add rows to an existing Power BI dataset
+     * and table. The request body is streamed to the connection. Waits before sending if the request would exceed the
+     * push limits (see {@link PowerBIRateLimiter}).
+     *
+     * @param auth the authentication to use (the access token is refreshed if necessary)
+     * @param datasetId the identifier of the dataset
+     * @param tableName the name of the table
+     * @param rows writes the UTF-8 encoded JSON body (<code>{"rows":[...]}</code>). It is called once per try and
+     *            must write the same content every time.
+     * @param rowCount the number of rows written by <code>rows</code>
+     * @param exec the execution context used to notify the user about the waiting period when waiting. The message will
+     *            be restored. Can be {@code null} in which case no message will be set.
+     * @return the latency of the request that succeeded, without waiting for the push limits or for retries
+     * @throws PowerBIResponseException if an error was returned by the REST API
+     * @throws CanceledExecutionException if the request or any of its retries was canceled
+     */
+    public static Duration postRows(final AuthTokenProvider auth, final String datasetId, final String tableName,
+        final StreamingOutput rows, final long rowCount, final ExecutionContext exec)
+        throws PowerBIResponseException, CanceledExecutionException {
+        PowerBIRateLimiter.acquirePostRows(datasetId, tableName, rowCount, exec);
+        final String uri = UriBuilder.fromPath(POST_ROWS_URI).build(datasetId, tableName).toString();
+        return postTimed(uri, rows, auth, exec);
+    }
+
+    /**
+     * Calls "Push Datasets - Datasets PostRowsInGroup" from the Power BI REST API. Add rows to an existing Power BI
+     * dataset and table. The request body is streamed to the connection. Waits before sending if the request would
+     * exceed the push limits (see {@link PowerBIRateLimiter}).
+     *
+     * @param auth the authentication to use (the access token is refreshed if necessary)
+     * @param groupId the workspace id (Can be <code>null</code> for "My Workspace")
+     * @param datasetId the identifier of the dataset
+     * @param tableName the name of the table
+     * @param rows writes the UTF-8 encoded JSON body (<code>{"rows":[...]}</code>). It is called once per try and
+     *            must write the same content every time.
+     * @param rowCount the number of rows written by <code>rows</code>
+     * @param exec the execution context used to notify the user about the waiting period when waiting. The message will
+     *            be restored. Can be {@code null} in which case no message will be set.
+     * @return the latency of the request that succeeded, without waiting for the push limits or for retries
+     * @throws PowerBIResponseException if an error was returned by the REST API
+     * @throws CanceledExecutionException if the request or any of its retries was canceled
+     */
+    public static Duration postRows(final AuthTokenProvider auth, final String groupId, final String datasetId,
+        final String tableName, final StreamingOutput rows, final long rowCount, final ExecutionContext exec)
+        throws PowerBIResponseException, CanceledExecutionException {
+        if (groupId == null) {
+            return postRows(auth, datasetId, tableName, rows, rowCount, exec);
+        }
+        PowerBIRateLimiter.acquirePostRows(datasetId, tableName, rowCount, exec);
+        final String uri = UriBuilder.fromPath(POST_ROWS_IN_GROUP_URI).build(groupId, datasetId, tableName).toString();
+        return postTimed(uri, rows, auth, exec);
+    }
+
     /**
      * Calls "Datasets - Delete Dataset" from the Power BI REST API.
      *
@@ -481,6 +537,7 @@ public static void deleteRows(final AuthTokenProvider auth, final String dataset
         final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
         final String uri = UriBuilder.fromPath(DELETE_ROWS_URI).build(datasetId, tableName).toString();
         delete(uri, Void.class, auth, exec);
+        PowerBIRateLimiter.resetTable(datasetId, tableName);
     }
 
     /**
@@ -505,6 +562,7 @@ public static void deleteRows(final AuthTokenProvider auth, final String groupId
         final String uri =
             UriBuilder.fromPath(DELETE_ROWS_IN_GROUP_URI).build(groupId, datasetId, tableName).toString();
         delete(uri, Void.class, auth, exec);
+        PowerBIRateLimiter.resetTable(datasetId, tableName);
     }
 
     /**
@@ -557,6 +615,43 @@ private static Result executeDAXQuery(final String uri, final AuthTokenProvider
         return post.results()[0];
     }
 
+    /**
+     * Calls "Datasets - Execute Queries" from the Power BI REST API. Execute a DAX Query which results in a table. The
+     * response is not materialized but reported to the given handler while it is read.
+     *
+     * @param auth the authentication to use (the access token is refreshed if necessary)
+     * @param groupId the workspace id (Can be <code>null</code> for "My Workspace")
+     * @param datasetId the identifier of the dataset
+     * @param query the query to execute
+     * @param handler the handler that receives the tables, rows, and errors of the result
+     * @param exec the execution context used to notify the user about the waiting period when waiting. The message will
+     *            be restored. Can be {@code null} in which case no message will be set.
+     * @throws PowerBIResponseException if an error was returned by the REST API
+     * @throws IOException if reading the response failed or the handler failed
+     * @throws CanceledExecutionException if the request or any of its retries was canceled
+     */
+    public static void executeDAXQuery(final AuthTokenProvider auth, final String groupId, final String datasetId,
+        final String query, final QueryResultsHandler handler, final ExecutionContext exec)
+        throws PowerBIResponseException, IOException, CanceledExecutionException {
+        final String uri = groupId == null //
+            ? UriBuilder.fromPath(EXECUTE_QUERY_URI).build(datasetId).toString() //
+            : UriBuilder.fromPath(EXECUTE_QUERY_IN_GROUP_URI).build(groupId, datasetId).toString();
+        final var body = GSON.toJson(Map.of("queries", List.of(Map.of("query", query))));
+        request(uri, auth,
+            client -> client.accept(MediaType.APPLICATION_JSON).type(MediaType.APPLICATION_JSON).post(body),
+            response -> {
+                checkStatus(response);
+                if (response.hasEntity()) {
+                    try {
+                        QueryResultsParser.parse(response.readEntity(InputStream.class), handler);
+                    } catch (final ProcessingException e) {
+                        throw new IOException("Error occurred during reading the response from Power BI.", e);
+                    }
+                }
+                return null;
+            }, exec);
+    }
+
     /**
      * Calls "Datasets - Refresh Dataset" from the Power BI REST API. Takes a JSON body to specify further settings.
      *
@@ -600,14 +695,37 @@ public static String refreshDataset(final AuthTokenProvider auth, final String g
 
     private static String refreshDataset(final String uri, final AuthTokenProvider auth, final Refresh settings,
         final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
-        final WebClient client = getClient(uri, auth);
-        client.accept(MediaType.APPLICATION_JSON);
-        client.type(MediaType.APPLICATION_JSON);
-        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups();
-                final Response response = RetryUtil.withRetry(() -> client.post(GSON.toJson(settings)), exec)) {
-            checkResponse(response, String.class);
-            return response.getHeaderString("x-ms-request-id");
-        }
+        final var body = GSON.toJson(settings);
+        return request(uri, auth,
+            client -> client.accept(MediaType.APPLICATION_JSON).type(MediaType.APPLICATION_JSON).post(body),
+            response -> {
+                checkResponse(response, String.class);
+                return response.getHeaderString("x-ms-request-id");
+            }, exec);
+    }
+
+    /**
+     * Calls "Datasets - Get Refresh History" from the Power BI REST API. This returns the most recent refreshes of the
+     * dataset.
+     *
+     * @param auth the authentication to use (the access token is refreshed if necessary)
+     * @param groupId the workspace id (Can be <code>null</code> for "My Workspace")
+     * @param datasetId the identifier of the dataset
+     * @param top the number of refreshes to return
+     * @param exec the execution context used to notify the user about the waiting period when waiting. The message will
+     *            be restored. Can be {@code null} in which case no message will be set.
+     * @return the refreshes, most recent first
+     * @throws PowerBIResponseException if an error was returned by the REST API
+     * @throws CanceledExecutionException if the request or any of its retries was canceled
+     */
+    public static RefreshHistory getDatasetRefreshHistory(final AuthTokenProvider auth, final String groupId,
+        final String datasetId, final int top, final ExecutionContext exec)
+        throws PowerBIResponseException, CanceledExecutionException {
+        final String uri = groupId == null //
+            ? UriBuilder.fromPath(CREATE_DATASET_REFRESH_URI).queryParam("$top", top).build(datasetId).toString() //
+            : UriBuilder.fromPath(CREATE_DATASET_REFRESH_IN_GROUP_URI).queryParam("$top", top)
+                .build(groupId, datasetId).toString();
+        return get(uri, RefreshHistory.class, auth, exec);
     }
 
     /**
@@ -690,6 +808,7 @@ public static void cancelDatasetRefresh(final AuthTokenProvider auth, final Stri
         throws PowerBIResponseException, CanceledExecutionException {
         if (groupId == null) {
             cancelDatasetRefresh(auth, datasetId, refreshId, exec);
+            return;
         }
         final String uri =
             UriBuilder.fromPath(DATASET_REFRESH_IN_GROUP_URI).build(groupId, datasetId, refreshId).toString();
@@ -699,48 +818,61 @@ public static void cancelDatasetRefresh(final AuthTokenProvider auth, final Stri
     /** Make a GET request */
     private static <T> T get(final String uri, final Class<T> responseType, final AuthTokenProvider auth,
         final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
-        final WebClient client = getClient(uri, auth);
-        client.accept(MediaType.APPLICATION_JSON);
-        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups();
-                final var response = RetryUtil.withRetry(client::get, exec)) {
-            return checkResponse(response, responseType);
-        }
+        return request(uri, auth, client -> client.accept(MediaType.APPLICATION_JSON).get(),
+            response -> checkResponse(response, responseType), exec);
     }
 
-    /** Make a POST request */
-    private static <T> T post(final String uri, final Class<T> responseType, final String body,
+    /** Make a POST request, the body is either a {@link String} or a {@link StreamingOutput} */
+    private static <T> T post(final String uri, final Class<T> responseType, final Object body,
         final AuthTokenProvider auth, final ExecutionContext exec)
         throws PowerBIResponseException, CanceledExecutionException {
-        final WebClient client = getClient(uri, auth);
-        client.accept(MediaType.APPLICATION_JSON);
-        client.type(MediaType.APPLICATION_JSON);
-        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups();
-                final Response response = RetryUtil.withRetry(() -> client.post(body), exec)) {
-            return checkResponse(response, responseType);
-        }
+        return request(uri, auth,
+            client -> client.accept(MediaType.APPLICATION_JSON).type(MediaType.APPLICATION_JSON).post(body),
+            response -> checkResponse(response, responseType), exec);
+    }
+
+    /**
+     * Make a POST request without a response body and measure the latency of the try that succeeded, from sending the
+     * request until the response arrived
+     */
+    private static Duration postTimed(final String uri, final Object body, final AuthTokenProvider auth,
+        final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
+        final long[] start = new long[1];
+        return request(uri, auth, client -> {
+            start[0] = System.nanoTime();
+            return client.accept(MediaType.APPLICATION_JSON).type(MediaType.APPLICATION_JSON).post(body);
+        }, response -> {
+            final var latency = Duration.ofNanos(System.nanoTime() - start[0]);
+            checkResponse(response, Void.class);
+            return latency;
+        }, exec);
     }
 
     /** Make a DELETE request */
     private static <T> T delete(final String uri, final Class<T> responseType, final AuthTokenProvider auth,
         final ExecutionContext exec) throws PowerBIResponseException, CanceledExecutionException {
-        final WebClient client = getClient(uri, auth);
-        client.accept(MediaType.APPLICATION_JSON);
-        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups();
-                final Response response = RetryUtil.withRetry(client::delete, exec)) {
-            return checkResponse(response, responseType);
-        }
+        return request(uri, auth, client -> client.accept(MediaType.APPLICATION_JSON).delete(),
+            response -> checkResponse(response, responseType), exec);
     }
 
     /** Make a PUT request */
     private static <T> T put(final String uri, final Class<T> responseType, final String body,
         final AuthTokenProvider auth, final ExecutionContext exec)
         throws PowerBIResponseException, CanceledExecutionException {
-        final WebClient client = getClient(uri, auth);
-        client.accept(MediaType.APPLICATION_JSON);
-        client.type(MediaType.APPLICATION_JSON);
-        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups();
-                final Response response = RetryUtil.withRetry(() -> client.put(body), exec)) {
-            return checkResponse(response, responseType);
+        return request(uri, auth,
+            client -> client.accept(MediaType.APPLICATION_JSON).type(MediaType.APPLICATION_JSON).put(body),
+            response -> checkResponse(response, responseType), exec);
+    }
+
+    /**
+     * Make a request with retries. Every try borrows its own client from the pool (with a fresh access token) and
+     * returns it before waiting for the next try.
+     */
+    private static <T, E extends Exception> T request(final String uri, final AuthTokenProvider auth,
+        final ClientRequest request, final ResponseHandler<T, E> handler, final ExecutionContext exec)
+        throws PowerBIResponseException, CanceledExecutionException, E {
+        try (final AuthenticationCloseable c = ThreadLocalHTTPAuthenticator.suppressAuthenticationPopups()) {
+            return RetryUtil.withRetry(() -> getClient(uri, auth), request, handler, exec);
         }
     }
 
@@ -750,6 +882,20 @@ private static <T> T put(final String uri, final Class<T> responseType, final St
      */
     private static <T> T checkResponse(final Response response, final Class<T> responseType)
         throws PowerBIResponseException {
+        checkStatus(response);
+        try {
+            if (response.hasEntity() && responseType != Void.class) {
+                return GSON.fromJson(response.readEntity(String.class), responseType);
+            } else {
+                return null;
+            }
+        } catch (final JsonSyntaxException e) {
+            throw new PowerBIResponseException("Invalid response from Power BI.", e);
+        }
+    }
+
+    /** Throws an exception with the error returned by Power BI if the response is unsuccessful */
+    private static void checkStatus(final Response response) throws PowerBIResponseException {
         final StatusType statusInfo = response.getStatusInfo();
         if (statusInfo.getFamily() != Family.SUCCESSFUL) {
             String message;
@@ -767,31 +913,21 @@ private static <T> T checkResponse(final Response response, final Class<T> respo
                 message = "Error occurred during communicating with Power BI: " + statusInfo.getReasonPhrase()
                     + " (Error Code: " + statusInfo.getStatusCode() + ")";
             }
-            throw new PowerBIResponseException(message);
-        }
-        try {
-            if (response.hasEntity() && responseType != Void.class) {
-                return GSON.fromJson(response.readEntity(String.class), responseType);
-            } else {
-                return null;
-            }
-        } catch (final JsonSyntaxException e) {
-            throw new PowerBIResponseException("Invalid response from Power BI.", e);
+            throw new PowerBIResponseException(message, statusInfo.getStatusCode());
         }
     }
 
-    /** Get a web client that accesses the given url with the given authentication */
-    private static WebClient getClient(final String url, final AuthTokenProvider auth) throws PowerBIResponseException {
-        final WebClient client = WebClient.create(url);
-
-        // Set the timeout
-        final HTTPConduit httpConduit = WebClient.getConfig(client).getHttpConduit();
-        httpConduit.getClient().setConnectionTimeout(CONNECTION_TIMEOUT);
-        httpConduit.getClient().setReceiveTimeout(RECEIVE_TIMEOUT);
-
-        // Set the auth token
-        client.authorization(getAuthenticationHeader(auth));
-        return client;
+    /**
+     * Borrow a web client from the shared pool that accesses the given url with the given authentication. The client
+     * must be closed to return it to the pool.
+     */
+    private static PooledWebClient getClient(final String url, final AuthTokenProvider auth)
+        throws PowerBIResponseException {
+        // Get the token first so no client is borrowed if this fails
+        final String authHeader = getAuthenticationHeader(auth);
+        final PooledWebClient pooled = WebClientPool.getInstance().acquire(url);
+        pooled.client().authorization(authHeader);
+        return pooled;
     }
 
     private static String getAuthenticationHeader(final AuthTokenProvider auth) throws PowerBIResponseException {
@@ -819,12 +955,31 @@ public static class PowerBIResponseException extends Exception {
 
         private static final long serialVersionUID = 1L;
 
+        /** The HTTP status code or -1 if the request did not return an unsuccessful status */
+        private final int m_statusCode;
+
         private PowerBIResponseException(final String message, final Throwable cause) {
             super(message, cause);
+            m_statusCode = -1;
         }
 
-        private PowerBIResponseException(final String message) {
+        /**
+         * Creates an exception for an unsuccessful response.
+         *
+         * @param message the error message
+         * @param statusCode the HTTP status code of the response
+         */
+        public PowerBIResponseException(final String message, final int statusCode) {
             super(message);
+            m_statusCode = statusCode;
+        }
+
+        /**
+         * @return the HTTP status code of the unsuccessful response or an empty optional if the error did not come
+         *         from an unsuccessful status (e.g. an invalid response body)
+         */
+        public OptionalInt getStatusCode() {
+            return m_statusCode < 0 ? OptionalInt.empty() : OptionalInt.of(m_statusCode);
         }
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.io.IOException;
+
+import org.knime.core.node.CanceledExecutionException;
+
+/**
+ * Receives the content of a "Datasets - Execute Queries" response while it is parsed by {@link QueryResultsParser}.
+ * The values of a row are reported one by one in the order in which they appear in the response. Note that Power BI
+ * omits columns with a <code>null</code> value in a row.
+ */
+public interface QueryResultsHandler {
+
+    /**
+     * Called before the rows of a table are reported.
+     *
+     * @param resultIndex the index of the query result the table belongs to
+     * @param tableIndex the index of the table in the query result
+     * @throws IOException if the table cannot be handled
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void startTable(int resultIndex, int tableIndex) throws IOException, CanceledExecutionException;
+
+    /**
+     * Called before the values of a row are reported.
+     *
+     * @throws IOException if the row cannot be handled
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void startRow() throws IOException, CanceledExecutionException;
+
+    /**
+     * @param column the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @throws IOException if the value cannot be handled
+     */
+    void nullValue(String column) throws IOException;
+
+    /**
+     * @param column the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @param value the value
+     * @throws IOException if the value cannot be handled
+     */
+    void stringValue(String column, String value) throws IOException;
+
+    /**
+     * Called for numbers with a fraction or exponent.
+     *
+     * @param column the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @param value the value
+     * @throws IOException if the value cannot be handled
+     */
+    void doubleValue(String column, double value) throws IOException;
+
+    /**
+     * Called for integral numbers.
+     *
+     * @param column the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @param value the value
+     * @throws IOException if the value cannot be handled
+     */
+    void longValue(String column, long value) throws IOException;
+
+    /**
+     * @param column the name of the column as returned by Power BI (e.g. <code>table[column]</code>)
+     * @param value the value
+     * @throws IOException if the value cannot be handled
+     */
+    void booleanValue(String column, boolean value) throws IOException;
+
+    /**
+     * Called after all values of a row have been reported.
+     *
+     * @throws IOException if the row cannot be handled
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void endRow() throws IOException, CanceledExecutionException;
+
+    /**
+     * Called after all rows of a table have been reported.
+     *
+     * @throws IOException if the table cannot be handled
+     * @throws CanceledExecutionException if the execution was canceled
+     */
+    void endTable() throws IOException, CanceledExecutionException;
+
+    /**
+     * Called if a query result contains an error notice (e.g. because the result was truncated).
+     *
+     * @param resultIndex the index of the query result
+     * @param code the error code, may be <code>null</code>
+     * @param message the error message, may be <code>null</code>
+     * @throws IOException if the error cannot be handled
+     */
+    void error(int resultIndex, String code, String message) throws IOException;
+}
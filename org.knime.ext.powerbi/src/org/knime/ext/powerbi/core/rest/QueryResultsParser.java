@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.knime.core.node.CanceledExecutionException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * A streaming parser for the response of "Datasets - Execute Queries". In contrast to binding the response with
+ * {@link com.google.gson.Gson} the rows are never materialized but reported to a {@link QueryResultsHandler} while
+ * the response is read.
+ */
+public final class QueryResultsParser {
+
+    /** Longs have at most 19 digits plus sign; longer literals are parsed as double */
+    private static final int MAX_LONG_LITERAL_LENGTH = 20;
+
+    private QueryResultsParser() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Parses the response and reports its content to the handler. The stream is closed afterwards.
+     *
+     * @param in the UTF-8 encoded JSON response
+     * @param handler the handler to report the tables, rows, and errors to
+     * @throws IOException if the response is malformed or the handler fails
+     * @throws CanceledExecutionException if the handler canceled the execution
+     */
+    public static void parse(final InputStream in, final QueryResultsHandler handler)
+        throws IOException, CanceledExecutionException {
+        try (final var reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("results".equals(reader.nextName())) {
+                    readResults(reader, handler);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+    }
+
+    private static void readResults(final JsonReader reader, final QueryResultsHandler handler)
+        throws IOException, CanceledExecutionException {
+        reader.beginArray();
+        for (var resultIndex = 0; reader.hasNext(); resultIndex++) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "tables" -> readTables(reader, handler, resultIndex);
+                    case "error" -> readError(reader, handler, resultIndex);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endArray();
+    }
+
+    private static void readTables(final JsonReader reader, final QueryResultsHandler handler,
+        final int resultIndex) throws IOException, CanceledExecutionException {
+        reader.beginArray();
+        for (var tableIndex = 0; reader.hasNext(); tableIndex++) {
+            handler.startTable(resultIndex, tableIndex);
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("rows".equals(reader.nextName())) {
+                    readRows(reader, handler);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            handler.endTable();
+        }
+        reader.endArray();
+    }
+
+    private static void readRows(final JsonReader reader, final QueryResultsHandler handler)
+        throws IOException, CanceledExecutionException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            handler.startRow();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                readValue(reader, handler, reader.nextName());
+            }
+            reader.endObject();
+            handler.endRow();
+        }
+        reader.endArray();
+    }
+
+    private static void readValue(final JsonReader reader, final QueryResultsHandler handler, final String column)
+        throws IOException {
+        switch (reader.peek()) {
+            case STRING -> handler.stringValue(column, reader.nextString());
+            case NUMBER -> readNumber(reader, handler, column);
+            case BOOLEAN -> handler.booleanValue(column, reader.nextBoolean());
+            case NULL -> {
+                reader.nextNull();
+                handler.nullValue(column);
+            }
+            default -> {
+                // nested structures are not expected in a table
+                reader.skipValue();
+                handler.nullValue(column);
+            }
+        }
+    }
+
+    private static void readNumber(final JsonReader reader, final QueryResultsHandler handler, final String column)
+        throws IOException {
+        final var literal = reader.nextString();
+        if (isIntegral(literal)) {
+            try {
+                handler.longValue(column, Long.parseLong(literal));
+                return;
+            } catch (NumberFormatException e) { // NOSONAR integral literals only fail to parse on overflow
+                // fall through to double
+            }
+        }
+        handler.doubleValue(column, Double.parseDouble(literal));
+    }
+
+    private static boolean isIntegral(final String literal) {
+        if (literal.length() > MAX_LONG_LITERAL_LENGTH) {
+            return false;
+        }
+        for (var i = 0; i < literal.length(); i++) {
+            final var c = literal.charAt(i);
+            if ((c < '0' || c > '9') && !(i == 0 && c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readError(final JsonReader reader, final QueryResultsHandler handler, final int resultIndex)
+        throws IOException {
+        String code = null;
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code" -> code = nextStringOrNull(reader);
+                case "message" -> message = nextStringOrNull(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        handler.error(resultIndex, code, message);
+    }
+
+    private static String nextStringOrNull(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NodeContext;
+import org.knime.ext.powerbi.core.rest.PowerBIRestAPIUtils.AuthTokenProvider;
+import org.knime.ext.powerbi.core.rest.bindings.Refresh;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Checks the status of all running refreshes of this JVM. Nodes register the refreshes they requested and wait for
+ * the returned {@link Watch} instead of checking the status themselves. The refreshes of the same semantic model are
+ * checked together: if several refreshes of a semantic model are watched, a single request for the refresh history of
+ * the model tells which of them have finished and only the details of the finished ones are requested. The caller
+ * decides how long to wait between the checks of each refresh and when to give up.
+ * <p>
+ * A single thread only schedules the checks, the semantic models are checked on a small shared pool, so that slow
+ * requests and their retries do not delay the checks of other semantic models. A failed check is repeated after the
+ * next delay, a watch only fails after {@value #MAX_FAILED_CHECKS} checks in a row have failed.
+ */
+public final class RefreshMonitor {
+
+    private RefreshMonitor() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(RefreshMonitor.class);
+
+    /** The minimum number of refreshes requested from the history of a semantic model */
+    private static final int HISTORY_SIZE = 10;
+
+    /** The number of checks of a refresh that may fail in a row before its watch fails */
+    static final int MAX_FAILED_CHECKS = 3;
+
+    /** The number of semantic models that are checked at the same time */
+    private static final int MAX_CONCURRENT_CHECKS = 4;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("Power BI refresh monitor").setDaemon(true).build());
+
+    private static final ExecutorService CHECKS = Executors.newFixedThreadPool(MAX_CONCURRENT_CHECKS,
+        new ThreadFactoryBuilder().setNameFormat("Power BI refresh check-%d").setDaemon(true).build());
+
+    /** The watched refreshes per semantic model. Guarded by the class lock. */
+    private static final Map<ModelKey, List<Watch>> WATCHES = new HashMap<>();
+
+    /** The semantic models that are being checked. Guarded by the class lock. */
+    private static final Set<ModelKey> CHECKING = new HashSet<>();
+
+    /** The next scheduled check, <code>null</code> if none. Guarded by the class lock. */
+    private static ScheduledFuture<?> nextCheck; // NOSONAR guarded by the class lock
+
+    /** When the next scheduled check runs. Guarded by the class lock. */
+    private static long nextCheckTime; // NOSONAR guarded by the class lock
+
+    private record ModelKey(String groupId, String datasetId) {
+    }
+
+    /**
+     * Starts watching a refresh. The status of the refresh is first checked after the delay returned by
+     * <code>nextDelay</code> for zero elapsed time and then after the delays it returns for the time since the
+     * registration. The {@link Watch#getFuture() future} of the watch completes when the refresh has finished.
+     *
+     * @param auth the authentication to use (the access token is refreshed if necessary)
+     * @param groupId the workspace id (Can be <code>null</code> for "My Workspace")
+     * @param datasetId the identifier of the dataset
+     * @param refreshId the identifier of the refresh
+     * @param nextDelay returns the delay until the next check for the time since the registration
+     * @return the watch of the refresh
+     */
+    public static Watch watch(final AuthTokenProvider auth, final String groupId, final String datasetId,
+        final String refreshId, final UnaryOperator<Duration> nextDelay) {
+        final var watch = new Watch(auth, new ModelKey(groupId, datasetId), refreshId, nextDelay);
+        synchronized (RefreshMonitor.class) {
+            WATCHES.computeIfAbsent(watch.m_model, k -> new ArrayList<>()).add(watch);
+            schedule(watch.m_nextCheck);
+        }
+        return watch;
+    }
+
+    /** Schedules a check at the given time unless one is scheduled earlier. Requires the class lock. */
+    private static void schedule(final long time) {
+        if (nextCheck != null && !nextCheck.isDone() && nextCheckTime <= time) {
+            return;
+        }
+        if (nextCheck != null) {
+            nextCheck.cancel(false);
+        }
+        nextCheckTime = time;
+        nextCheck = SCHEDULER.schedule(RefreshMonitor::check, Math.max(0, time - System.currentTimeMillis()),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /** Schedules the next check for the earliest refresh of a semantic model that is not being checked */
+    private static synchronized void scheduleNext() {
+        WATCHES.forEach((model, watches) -> {
+            if (!CHECKING.contains(model)) {
+                watches.stream().filter(w -> !w.m_future.isDone()).mapToLong(w -> w.m_nextCheck).min()
+                    .ifPresent(RefreshMonitor::schedule);
+            }
+        });
+    }
+
+    /** Submits the checks of the semantic models with a due refresh, runs on the scheduler thread */
+    private static void check() {
+        final var now = System.currentTimeMillis();
+        final var due = new LinkedHashMap<ModelKey, List<Watch>>();
+        final var submitted = new HashSet<ModelKey>();
+        try {
+            synchronized (RefreshMonitor.class) {
+                nextCheck = null;
+                WATCHES.values().forEach(watches -> watches.removeIf(w -> w.m_future.isDone()));
+                WATCHES.values().removeIf(List::isEmpty);
+                WATCHES.forEach((model, watches) -> {
+                    if (!CHECKING.contains(model) && watches.stream().anyMatch(w -> w.m_nextCheck <= now)) {
+                        due.put(model, List.copyOf(watches));
+                    }
+                });
+                CHECKING.addAll(due.keySet());
+            }
+            due.forEach((model, watches) -> {
+                CHECKS.execute(() -> checkModel(model, watches, now));
+                submitted.add(model);
+            });
+        } catch (Throwable t) { // NOSONAR the monitor must keep running
+            LOGGER.error("Could not check the status of refreshes: " + t.getMessage(), t);
+            synchronized (RefreshMonitor.class) {
+                due.keySet().stream().filter(model -> !submitted.contains(model)).forEach(CHECKING::remove);
+            }
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    /** Checks the refreshes of a semantic model and schedules the next check, runs on the pool */
+    private static void checkModel(final ModelKey model, final List<Watch> watches, final long now) {
+        try {
+            check(model, watches, now);
+        } catch (Throwable t) { // NOSONAR the due refreshes are checked again later
+            LOGGER.debug("Could not check the refreshes of semantic model " + model.datasetId() + ": "
+                + t.getMessage(), t);
+            failed(watches, now, t);
+        } finally {
+            synchronized (RefreshMonitor.class) {
+                CHECKING.remove(model);
+                scheduleNext();
+            }
+        }
+    }
+
+    /**
+     * Reschedules the due refreshes after a failed check. Fails the watches of refreshes whose last
+     * {@value #MAX_FAILED_CHECKS} checks have failed, e.g. since the access token has expired.
+     */
+    private static void failed(final List<Watch> watches, final long now, final Throwable failure) {
+        for (final var watch : watches) {
+            if (watch.m_future.isDone() || watch.m_nextCheck > now) {
+                continue;
+            }
+            watch.m_failedChecks++;
+            if (watch.m_failedChecks >= MAX_FAILED_CHECKS) {
+                watch.m_future.completeExceptionally(failure);
+            } else {
+                watch.reschedule(now);
+            }
+        }
+    }
+
+    private static void check(final ModelKey model, final List<Watch> watches, final long now) throws Exception {
+        if (watches.size() == 1) {
+            final var watch = watches.get(0);
+            watch.m_statusChecks++; // NOSONAR only the thread checking the semantic model writes
+            update(watch, watch.inContext(() -> PowerBIRestAPIUtils.getDatasetRefreshStatus(watch.m_auth,
+                model.groupId(), model.datasetId(), watch.m_refreshId, null)), now);
+            return;
+        }
+
+        final var first = watches.get(0);
+        final var history = first.inContext(() -> PowerBIRestAPIUtils.getDatasetRefreshHistory(first.m_auth,
+            model.groupId(), model.datasetId(), Math.max(HISTORY_SIZE, 2 * watches.size()), null));
+        final var statuses = new HashMap<String, String>();
+        for (final var entry : history.getValue()) {
+            statuses.putIfAbsent(entry.getRequestId(), entry.getStatus());
+        }
+        for (final var watch : watches) {
+            final var finished = isFinished(statuses.get(watch.m_refreshId));
+            if (finished || watch.m_nextCheck <= now) {
+                watch.m_statusChecks++; // NOSONAR only the thread checking the semantic model writes
+            }
+            if (finished) {
+                // only the details contain the messages and the extended status
+                update(watch, watch.inContext(() -> PowerBIRestAPIUtils.getDatasetRefreshStatus(watch.m_auth,
+                    model.groupId(), model.datasetId(), watch.m_refreshId, null)), now);
+            } else if (watch.m_nextCheck <= now) {
+                watch.m_failedChecks = 0;
+                watch.reschedule(now);
+            }
+        }
+    }
+
+    /** The history reports refreshes that are still running with status <code>Unknown</code> */
+    private static boolean isFinished(final String historyStatus) {
+        return historyStatus != null && !"Unknown".equalsIgnoreCase(historyStatus);
+    }
+
+    private static void update(final Watch watch, final Refresh refresh, final long now) {
+        watch.m_lastDetails = refresh;
+        watch.m_failedChecks = 0;
+        switch (refresh.getExtendedStatus()) {
+            case InProgress, NotStarted, Unknown -> watch.reschedule(now);
+            default -> watch.m_future.complete(refresh);
+        }
+    }
+
+    /**
+     * A watched refresh.
+     */
+    public static final class Watch {
+
+        private final AuthTokenProvider m_auth;
+
+        private final ModelKey m_model;
+
+        private final String m_refreshId;
+
+        private final UnaryOperator<Duration> m_nextDelay;
+
+        /** The context of the node which requested the refresh, needed to refresh the access token */
+        private final NodeContext m_context;
+
+        private final long m_start;
+
+        private final CompletableFuture<Refresh> m_future = new CompletableFuture<>();
+
+        /** When the status is checked next. Guarded by the class lock of the monitor. */
+        private long m_nextCheck;
+
+        /** The number of checks that covered this refresh, only written by the thread checking the semantic model */
+        private volatile int m_statusChecks;
+
+        /** The number of checks in a row that failed, only used by the thread checking the semantic model */
+        private int m_failedChecks;
+
+        private volatile Refresh m_lastDetails;
+
+        private Watch(final AuthTokenProvider auth, final ModelKey model, final String refreshId,
+            final UnaryOperator<Duration> nextDelay) {
+            m_auth = auth;
+            m_model = model;
+            m_refreshId = refreshId;
+            m_nextDelay = nextDelay;
+            m_context = NodeContext.getContext();
+            m_start = System.currentTimeMillis();
+            m_nextCheck = m_start + nextDelay.apply(Duration.ZERO).toMillis();
+        }
+
+        private void reschedule(final long now) {
+            final var next = now + m_nextDelay.apply(Duration.ofMillis(now - m_start)).toMillis();
+            synchronized (RefreshMonitor.class) {
+                m_nextCheck = next;
+            }
+        }
+
+        private <T> T inContext(final Request<T> request) throws Exception {
+            if (m_context == null) {
+                return request.call();
+            }
+            NodeContext.pushContext(m_context);
+            try {
+                return request.call();
+            } finally {
+                NodeContext.removeLastContext();
+            }
+        }
+
+        /**
+         * @return the future which completes with the details of the finished refresh, or exceptionally if its status
+         *         could not be checked
+         */
+        public CompletableFuture<Refresh> getFuture() {
+            return m_future;
+        }
+
+        /**
+         * @return the details of the refresh returned by the last check, <code>null</code> if none were requested yet
+         */
+        public Refresh getLastDetails() {
+            return m_lastDetails;
+        }
+
+        /**
+         * @return the number of requests made to check the status of this refresh
+         */
+        public int getStatusChecks() {
+            return m_statusChecks;
+        }
+
+        /**
+         * Stops watching the refresh. The refresh itself is not canceled.
+         */
+        public void cancel() {
+            m_future.cancel(false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request<T> {
+        T call() throws Exception; // NOSONAR the REST calls throw several exception types
+    }
+}
@@ -50,9 +50,11 @@
 
 import java.time.Duration;
 
+import org.apache.cxf.jaxrs.client.WebClient;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.NodeLogger;
+import org.knime.ext.powerbi.core.rest.WebClientPool.PooledWebClient;
 
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status.Family;
@@ -98,7 +100,7 @@ public static Response withRetry(final RetryableRequest request, final Execution
         for (var wait : RETRY_WAIT) {
             final var res = request.execute();
             final var code = res.getStatus();
-            if (code == 429 /* TOO MANY REQUESTS */ || (res.getStatusInfo().getFamily() == Family.SERVER_ERROR)) {
+            if (isRetryable(res)) {
                 wait = parseRetryAfter(res, wait);
                 waitFor("Got status \"" + res.getStatusInfo().getReasonPhrase() + "\" (" + code + ")", wait, exec);
             } else {
@@ -108,6 +110,45 @@ public static Response withRetry(final RetryableRequest request, final Execution
         return request.execute();
     }
 
+    /**
+     * Retries a request with the same backoff strategy as {@link #withRetry(RetryableRequest, ExecutionContext)}.
+     * Every try borrows its own client and returns it before waiting for the next try, so no client is held while
+     * backing off. The final response is handled while its client is still borrowed.
+     *
+     * @param clients borrows a client for a single try
+     * @param request the request to retry. It will be executed for each try with the borrowed client.
+     * @param handler handles the response which is not retried
+     * @param exec the execution context used to notify the user about the waiting period when waiting. The message
+     *            will be restored. Can be {@code null} in which case no message will be set.
+     * @return the value returned by the handler
+     * @throws PowerBIResponseException if no client could be borrowed or the handler failed
+     * @throws CanceledExecutionException if waiting for a retry or the handler was canceled
+     * @throws E if the handler failed
+     */
+    static <T, E extends Exception> T withRetry(final ClientSupplier clients, final ClientRequest request,
+        final ResponseHandler<T, E> handler, final ExecutionContext exec)
+        throws PowerBIResponseException, CanceledExecutionException, E {
+        for (var wait : RETRY_WAIT) {
+            final String cause;
+            try (final PooledWebClient pooled = clients.get();
+                    final Response res = request.execute(pooled.client())) {
+                if (!isRetryable(res)) {
+                    return handler.handle(res);
+                }
+                cause = "Got status \"" + res.getStatusInfo().getReasonPhrase() + "\" (" + res.getStatus() + ")";
+                wait = parseRetryAfter(res, wait);
+            }
+            waitFor(cause, wait, exec);
+        }
+        try (final PooledWebClient pooled = clients.get(); final Response res = request.execute(pooled.client())) {
+            return handler.handle(res);
+        }
+    }
+
+    private static boolean isRetryable(final Response res) {
+        return res.getStatus() == 429 /* TOO MANY REQUESTS */ || res.getStatusInfo().getFamily() == Family.SERVER_ERROR;
+    }
+
     private static Duration parseRetryAfter(final Response e, final Duration defaultRetryAfter) {
         final var headerVal = e.getHeaders().get("Retry-After");
         if (headerVal != null && !headerVal.isEmpty()) {
@@ -168,4 +209,22 @@ public interface RetryableRequest { // NOSONAR better documentation
         Response execute();
     }
 
+    /** Borrows a client from the {@link WebClientPool} for a single try */
+    @FunctionalInterface
+    interface ClientSupplier {
+        PooledWebClient get() throws PowerBIResponseException;
+    }
+
+    /** A request executed with a borrowed client */
+    @FunctionalInterface
+    interface ClientRequest {
+        Response execute(WebClient client);
+    }
+
+    /** Handles a response which is not retried */
+    @FunctionalInterface
+    interface ResponseHandler<T, E extends Exception> {
+        T handle(Response response) throws PowerBIResponseException, CanceledExecutionException, E;
+    }
+
 }
@@ -0,0 +1,231 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.knime.core.node.NodeLogger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A pool of {@link WebClient}s shared by all calls to the Power BI REST API in this JVM. Every client keeps its own
+ * HTTP conduit, so reusing a client also reuses its kept-alive (TLS) connections instead of opening a new one for every
+ * request. Borrowing never blocks: a new client is created if none is idle. Only a limited number of idle clients is
+ * kept and clients that have not been used for a while are closed.
+ */
+public final class WebClientPool {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WebClientPool.class);
+
+    private static final String BASE_ADDRESS = "https://api.powerbi.com";
+
+    private static final long CONNECTION_TIMEOUT = 30000;
+
+    private static final long RECEIVE_TIMEOUT = 60000;
+
+    /** Maximum number of idle clients (and therefore kept-alive connections) */
+    private static final int MAX_IDLE_CLIENTS = 16;
+
+    /** Clients which have been idle for longer than this are closed */
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(60);
+
+    private static final WebClientPool INSTANCE = new WebClientPool(MAX_IDLE_CLIENTS, MAX_IDLE_TIME);
+
+    private final int m_maxIdleClients;
+
+    private final long m_maxIdleNanos;
+
+    /** Idle clients, the most recently used client first */
+    private final Deque<PooledWebClient> m_idle = new ArrayDeque<>();
+
+    private final ScheduledExecutorService m_evictor;
+
+    private boolean m_closed;
+
+    private WebClientPool(final int maxIdleClients, final Duration maxIdleTime) {
+        m_maxIdleClients = maxIdleClients;
+        m_maxIdleNanos = maxIdleTime.toNanos();
+        m_evictor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Power BI client evictor").setDaemon(true).build());
+        final var period = maxIdleTime.toMillis() / 2;
+        m_evictor.scheduleWithFixedDelay(this::evictIdleClients, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the pool shared by all Power BI REST calls
+     */
+    public static WebClientPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrows a client from the pool and points it to the given URI. All state of a previous request (path, headers)
+     * is reset. A new client is created if no client is idle. The client must be returned by closing it.
+     *
+     * @param uri the URI to access
+     * @return a client which is returned to the pool when closed
+     */
+    PooledWebClient acquire(final String uri) {
+        PooledWebClient pooled;
+        synchronized (m_idle) {
+            pooled = m_idle.pollFirst();
+        }
+        if (pooled == null) {
+            pooled = new PooledWebClient(createClient());
+        }
+        pooled.m_borrowed = true;
+        pooled.m_client.reset();
+        pooled.m_client.to(uri, false);
+        return pooled;
+    }
+
+    /** Puts a client back into the pool or closes it if enough clients are idle */
+    private void release(final PooledWebClient pooled) {
+        pooled.m_lastUsed = System.nanoTime();
+        boolean close;
+        synchronized (m_idle) {
+            close = m_closed || m_idle.size() >= m_maxIdleClients;
+            if (!close) {
+                m_idle.addFirst(pooled);
+            }
+        }
+        if (close) {
+            closeQuietly(pooled);
+        }
+    }
+
+    /** Closes all clients which have not been used for longer than the maximum idle time */
+    private void evictIdleClients() {
+        final var now = System.nanoTime();
+        synchronized (m_idle) {
+            // the least recently used clients are at the end of the deque
+            for (final Iterator<PooledWebClient> it = m_idle.descendingIterator(); it.hasNext();) {
+                final var pooled = it.next();
+                if (now - pooled.m_lastUsed < m_maxIdleNanos) {
+                    break;
+                }
+                it.remove();
+                closeQuietly(pooled);
+            }
+        }
+    }
+
+    /**
+     * Closes all idle clients. Clients which are currently borrowed are closed once they are returned.
+     */
+    public void close() {
+        m_evictor.shutdownNow();
+        synchronized (m_idle) {
+            m_closed = true;
+            m_idle.forEach(WebClientPool::closeQuietly);
+            m_idle.clear();
+        }
+    }
+
+    private static void closeQuietly(final PooledWebClient pooled) {
+        try {
+            pooled.m_client.close();
+        } catch (RuntimeException e) { // NOSONAR closing must not fail the caller
+            LOGGER.debug("Could not close Power BI client: " + e.getMessage(), e);
+        }
+    }
+
+    /** Create a web client with the timeouts set */
+    private static WebClient createClient() {
+        final WebClient client = WebClient.create(BASE_ADDRESS);
+
+        // Set the timeout
+        final HTTPConduit httpConduit = WebClient.getConfig(client).getHttpConduit();
+        httpConduit.getClient().setConnectionTimeout(CONNECTION_TIMEOUT);
+        httpConduit.getClient().setReceiveTimeout(RECEIVE_TIMEOUT);
+        httpConduit.getClient().setConnection(ConnectionType.KEEP_ALIVE);
+        return client;
+    }
+
+    /**
+     * A client borrowed from the {@link WebClientPool}. Closing it returns it to the pool.
+     */
+    static final class PooledWebClient implements AutoCloseable {
+
+        private final WebClient m_client;
+
+        private long m_lastUsed;
+
+        private boolean m_borrowed;
+
+        private PooledWebClient(final WebClient client) {
+            m_client = client;
+        }
+
+        /**
+         * @return the borrowed client
+         */
+        WebClient client() {
+            return m_client;
+        }
+
+        @Override
+        public void close() {
+            if (m_borrowed) {
+                m_borrowed = false;
+                INSTANCE.release(this);
+            }
+        }
+    }
+}
@@ -60,7 +60,7 @@ public final class Refresh {
 
     private Status extendedStatus; // set by GSON
 
-    private final String commitMode = "Transactional"; // NOSONAR always add to request
+    private final CommitMode commitMode;
 
     private final String timeout;
 
@@ -68,8 +68,20 @@ public final class Refresh {
 
     private final List<ObjectRefreshDefinition> objects;
 
+    private final Integer maxParallelism;
+
+    private final Integer retryCount;
+
+    private final Boolean applyRefreshPolicy;
+
     private List<Message> messages; // set by GSON
 
+    private String startTime; // set by GSON
+
+    private String endTime; // set by GSON
+
+    private Integer numberOfAttempts; // set by GSON
+
     /**
      * Create a new refresh request object
      * @param type the type
@@ -77,9 +89,29 @@ public final class Refresh {
      * @param objects the objects to reset, may be null
      */
     public Refresh(final Type type, final String timeout, final List<ObjectRefreshDefinition> objects) {
+        this(type, timeout, objects, CommitMode.Transactional, null, null, null);
+    }
+
+    /**
+     * Create a new refresh request object
+     * @param type the type
+     * @param timeout the timeout to be sent to Power BI
+     * @param objects the objects to reset, may be null
+     * @param commitMode whether the objects are committed together or in batches
+     * @param maxParallelism the maximum number of threads processing the refresh, null for the default of Power BI
+     * @param retryCount the number of retries before the refresh fails, null for the default of Power BI
+     * @param applyRefreshPolicy whether the incremental refresh policies are applied, null for the default of Power BI
+     */
+    public Refresh(final Type type, final String timeout, final List<ObjectRefreshDefinition> objects, // NOSONAR
+        final CommitMode commitMode, final Integer maxParallelism, final Integer retryCount,
+        final Boolean applyRefreshPolicy) {
         this.timeout = timeout;
         this.type = type;
         this.objects = objects;
+        this.commitMode = commitMode;
+        this.maxParallelism = maxParallelism;
+        this.retryCount = retryCount;
+        this.applyRefreshPolicy = applyRefreshPolicy;
     }
 
     /**
@@ -103,6 +135,27 @@ public List<Message> getMessages() {
         return messages;
     }
 
+    /**
+     * @return the start time of the refresh in UTC, may be null
+     */
+    public String getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the end time of the refresh in UTC, null while the refresh is running
+     */
+    public String getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * @return the number of attempts of the refresh, may be null
+     */
+    public Integer getNumberOfAttempts() {
+        return numberOfAttempts;
+    }
+
     /**
      * Specifies objects to be reset
      *
@@ -113,6 +166,7 @@ public static class ObjectRefreshDefinition {
 
         private String table;
         private String partition;
+        private String status; // set by GSON
 
         /**
          * And Object which shall be reset
@@ -123,6 +177,35 @@ public ObjectRefreshDefinition(final String table, final String partition) {
             this.table = table;
             this.partition = partition;
         }
+
+        /**
+         * @return the name of the table, may be null
+         */
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * @return the name of the partition, may be null
+         */
+        public String getPartition() {
+            return partition;
+        }
+
+        /**
+         * @return the status of the refresh of the object, only set in the refresh details
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            if (partition == null) {
+                return table;
+            }
+            return table == null ? partition : (table + "/" + partition);
+        }
     }
 
 
@@ -183,4 +266,13 @@ public enum Type {
         Full;
     }
 
+    /**
+     * Commit mode of refresh
+     */
+    @SuppressWarnings("java:S115") // Names given by JSON Structure (reduce GSON boilerplate)
+    public enum CommitMode {
+        Transactional,
+        PartialBatch;
+    }
+
 }
@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.core.rest.bindings;
+
+/**
+ * The refresh history of a Power BI semantic model, most recent refresh first.
+ */
+@SuppressWarnings("java:S1068") // Names given by JSON Structure and used by it
+public final class RefreshHistory {
+
+    private Entry[] value; // set by GSON
+
+    /**
+     * Returns the refreshes.
+     *
+     * @return the refreshes, most recent first
+     */
+    public Entry[] getValue() {
+        return value == null ? new Entry[0] : value;
+    }
+
+    /**
+     * A refresh of the history.
+     */
+    @SuppressWarnings("java:S1068") // Names given by JSON Structure and used by it
+    public static final class Entry {
+
+        private String requestId; // set by GSON
+
+        private String refreshType; // set by GSON
+
+        private String startTime; // set by GSON
+
+        private String endTime; // set by GSON
+
+        private String status; // set by GSON
+
+        /**
+         * @return the request id of the refresh
+         */
+        public String getRequestId() {
+            return requestId;
+        }
+
+        /**
+         * @return the type of the refresh, e.g. <code>Scheduled</code> or <code>ViaEnhancedApi</code>
+         */
+        public String getRefreshType() {
+            return refreshType;
+        }
+
+        /**
+         * @return the start time of the refresh as ISO 8601 timestamp
+         */
+        public String getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return the end time of the refresh as ISO 8601 timestamp, <code>null</code> while the refresh is running
+         */
+        public String getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * @return the status, <code>Unknown</code> while the refresh is running, <code>Completed</code>,
+         *         <code>Failed</code>, <code>Disabled</code>, or <code>Cancelled</code> otherwise
+         */
+        public String getStatus() {
+            return status;
+        }
+    }
+}
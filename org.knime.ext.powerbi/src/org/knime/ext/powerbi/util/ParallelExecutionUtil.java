@@ -0,0 +1,160 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 17, 2026 (agent): created
+ */
+package org.knime.ext.powerbi.util;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.ThreadUtils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Utility class for running Power BI requests of a node concurrently while the node stays cancelable.
+ */
+public final class ParallelExecutionUtil {
+
+    private static final long POLL_INTERVAL_MS = 500;
+
+    private ParallelExecutionUtil() {
+        // Utility class, no instantiation
+    }
+
+    /**
+     * Creates a fixed size executor whose tasks run with the node context of the calling thread. The executor must be
+     * shut down by the caller.
+     *
+     * @param name the name of the threads, a number is appended
+     * @param threads the number of threads
+     * @return the executor
+     */
+    public static ExecutorService createExecutor(final String name, final int threads) {
+        return ThreadUtils.executorServiceWithContext(Executors.newFixedThreadPool(threads,
+            new ThreadFactoryBuilder().setNameFormat(name + "-%d").setDaemon(true).build()));
+    }
+
+    /**
+     * Waits for the result of the given future while checking regularly whether the execution was canceled.
+     *
+     * @param <T> the type of the result
+     * @param future the future to wait for
+     * @param exec the execution monitor to check for cancellation
+     * @return the result of the future
+     * @throws CanceledExecutionException if the execution was canceled
+     * @throws Exception the exception thrown by the task
+     */
+    public static <T> T waitFor(final Future<T> future, final ExecutionMonitor exec) throws Exception {
+        while (true) {
+            exec.checkCanceled();
+            try {
+                return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) { // NOSONAR check for cancellation and wait again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CanceledExecutionException();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    /**
+     * Waits until the given number of tasks submitted to the completion service are done, in the order in which they
+     * complete, while checking regularly whether the execution was canceled. Fails as soon as the first task fails, so
+     * the caller can cancel the remaining tasks immediately.
+     *
+     * @param completion the completion service the tasks were submitted to
+     * @param count the number of submitted tasks
+     * @param exec the execution monitor to check for cancellation
+     * @throws CanceledExecutionException if the execution was canceled
+     * @throws Exception the exception thrown by the first failed task
+     */
+    public static void waitForAll(final CompletionService<?> completion, final int count,
+        final ExecutionMonitor exec) throws Exception {
+        var done = 0;
+        while (done < count) {
+            exec.checkCanceled();
+            try {
+                final Future<?> future = completion.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    future.get();
+                    done++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CanceledExecutionException();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    private static Exception unwrap(final ExecutionException e) {
+        return e.getCause() instanceof Exception cause ? cause : e;
+    }
+
+    /**
+     * Cancels all futures that are not done yet, interrupting running tasks, and shuts down the executor.
+     *
+     * @param futures the futures to cancel
+     * @param executor the executor to shut down
+     */
+    public static void cancelAll(final Collection<? extends Future<?>> futures, final ExecutorService executor) {
+        futures.forEach(f -> f.cancel(true));
+        executor.shutdownNow();
+    }
+}